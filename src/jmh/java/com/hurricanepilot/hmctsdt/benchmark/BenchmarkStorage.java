@@ -0,0 +1,89 @@
+package com.hurricanepilot.hmctsdt.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.hurricanepilot.hmctsdt.HmctsTaskApplication;
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.service.TaskService;
+
+/**
+ * Starts the application against either the default in-memory database
+ * ({@code mem}) or the file-backed database of the {@code persistent} profile
+ * ({@code file}), and seeds it with a large number of Tasks.
+ */
+final class BenchmarkStorage {
+
+    static final int TASK_COUNT = 1_000_000;
+
+    private static final int SEED_CHUNK_SIZE = 10_000;
+
+    private static final Path DIRECTORY = Path.of("target", "jmh-h2");
+
+    private BenchmarkStorage() {
+    }
+
+    /**
+     * Starts the application without the web tier or the Task cache, so every
+     * call reaches the database.
+     */
+    static ConfigurableApplicationContext start(String storage) {
+        var builder = new SpringApplicationBuilder(HmctsTaskApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.cache.type=none", "logging.level.root=WARN",
+                        "logging.level.com.hurricanepilot.hmctsdt.config=INFO");
+        if ("file".equals(storage)) {
+            builder.profiles("persistent")
+                    .properties("hmcts.h2.path=" + DIRECTORY.resolve("tasks").toAbsolutePath());
+        }
+        return builder.run();
+    }
+
+    /**
+     * Removes any file-backed database left by a previous run.
+     */
+    static void delete() throws IOException {
+        if (Files.exists(DIRECTORY)) {
+            try (var paths = Files.walk(DIRECTORY)) {
+                for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates {@link #TASK_COUNT} Tasks, spread across the statuses and due a
+     * minute apart, returning their IDs.
+     */
+    static long[] seed(TaskService taskService) {
+        var ids = new long[TASK_COUNT];
+        var statuses = Status.values();
+        var due = ZonedDateTime.now();
+        var chunk = new ArrayList<TaskEntity>(SEED_CHUNK_SIZE);
+        var created = 0;
+
+        for (int i = 0; i < TASK_COUNT; i++) {
+            var task = new TaskEntity("Seeded Task " + i, due.plusMinutes(i));
+            task.setStatus(statuses[i % statuses.length]);
+            chunk.add(task);
+
+            if (chunk.size() == SEED_CHUNK_SIZE || i == TASK_COUNT - 1) {
+                for (var id : taskService.createAll(chunk)) {
+                    ids[created++] = id;
+                }
+                chunk = new ArrayList<>(SEED_CHUNK_SIZE);
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,65 @@
+package com.hurricanepilot.hmctsdt.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import com.hurricanepilot.hmctsdt.api.controller.TaskController;
+import com.hurricanepilot.hmctsdt.api.controller.exception.ErrorHandler;
+import com.hurricanepilot.hmctsdt.api.model.ErrorDetail;
+import com.hurricanepilot.hmctsdt.api.model.Task;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Measures the cost of building the validation error response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ErrorHandlerBenchmark {
+
+    private ErrorHandler errorHandler;
+
+    private MethodArgumentNotValidException exception;
+
+    @Setup
+    public void setUp() {
+        errorHandler = new ErrorHandler(new SimpleMeterRegistry());
+
+        var bindingResult = new BeanPropertyBindingResult(Task.builder().build(), "task");
+        bindingResult.addError(new FieldError("task", "title", "Title must be specified"));
+        bindingResult.addError(new FieldError("task", "description", "Description should not be more than 2000 characters"));
+        bindingResult.addError(new ObjectError("task", "Task is invalid"));
+
+        var createTask = Arrays.stream(TaskController.class.getMethods())
+                .filter(m -> m.getName().equals("createTask"))
+                .findFirst()
+                .orElseThrow();
+        exception = new MethodArgumentNotValidException(new MethodParameter(createTask, 0), bindingResult);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorDetail> handleValidationError() {
+        return errorHandler.handleValidationError(exception);
+    }
+}
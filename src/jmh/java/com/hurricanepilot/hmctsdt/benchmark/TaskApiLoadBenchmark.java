@@ -0,0 +1,96 @@
+package com.hurricanepilot.hmctsdt.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.ZonedDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.hurricanepilot.hmctsdt.HmctsTaskApplication;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.service.TaskService;
+
+/**
+ * Drives the running application over HTTP from a large number of concurrent
+ * clients, comparing Tomcat's platform thread pool with virtual threads. The
+ * sample time mode reports the latency distribution (including p0.99) as well
+ * as the throughput.
+ * <p>
+ * The cache is disabled so that every request reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(400)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class TaskApiLoadBenchmark {
+
+    private static final int TASK_COUNT = 1000;
+
+    @Param({ "false", "true" })
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient client;
+
+    private String baseUri;
+
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var builder = new SpringApplicationBuilder(HmctsTaskApplication.class)
+                .properties("server.port=0", "spring.cache.type=none", "logging.level.root=WARN",
+                        // every client shares one address, so would be rate limited as one
+                        "hmcts.admission.enabled=false");
+        if (virtualThreads) {
+            builder.profiles("virtual-threads");
+        }
+        context = builder.run();
+        baseUri = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/tasks/";
+
+        var taskService = context.getBean(TaskService.class);
+        ids = new long[TASK_COUNT];
+        for (int i = 0; i < TASK_COUNT; i++) {
+            ids[i] = taskService.create(new TaskEntity("Load Task " + i, ZonedDateTime.now().plusMinutes(i)));
+        }
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int retrieveTask() throws IOException, InterruptedException {
+        var id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        var request = HttpRequest.newBuilder(URI.create(baseUri + id)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,53 @@
+package com.hurricanepilot.hmctsdt.benchmark;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hurricanepilot.hmctsdt.api.model.Task;
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+
+/**
+ * Measures the cost of mapping between the persistence and API models.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TaskMappingBenchmark {
+
+    private TaskEntity entity;
+
+    private Task task;
+
+    @Setup
+    public void setUp() {
+        entity = new TaskEntity("Benchmark Task", "A task used to benchmark mapping", ZonedDateTime.now());
+        entity.setId(1L);
+        entity.setStatus(Status.IN_PROGRESS);
+        task = Task.fromEntity(entity);
+    }
+
+    @Benchmark
+    public Task fromEntity() {
+        return Task.fromEntity(entity);
+    }
+
+    @Benchmark
+    public TaskEntity toEntity() {
+        return task.toEntity();
+    }
+}
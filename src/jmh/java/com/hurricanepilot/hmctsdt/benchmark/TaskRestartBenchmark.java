@@ -0,0 +1,68 @@
+package com.hurricanepilot.hmctsdt.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.hurricanepilot.hmctsdt.service.TaskService;
+
+/**
+ * Measures how long a restart takes to get back to serving
+ * {@value BenchmarkStorage#TASK_COUNT} Tasks. The file-backed database only
+ * has to be reopened (and its indexes warmed up), whereas the in-memory
+ * database starts empty and has to be loaded again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class TaskRestartBenchmark {
+
+    @Param({ "mem", "file" })
+    private String storage;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkStorage.delete();
+        if ("file".equals(storage)) {
+            try (var seeding = BenchmarkStorage.start(storage)) {
+                BenchmarkStorage.seed(seeding.getBean(TaskService.class));
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext restart() {
+        context = BenchmarkStorage.start(storage);
+        if ("mem".equals(storage)) {
+            BenchmarkStorage.seed(context.getBean(TaskService.class));
+        }
+        return context;
+    }
+}
@@ -0,0 +1,83 @@
+package com.hurricanepilot.hmctsdt.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.hurricanepilot.hmctsdt.api.converter.TaskEntitySerializer;
+import com.hurricanepilot.hmctsdt.api.model.Task;
+import com.hurricanepilot.hmctsdt.api.model.TaskPage;
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+
+/**
+ * Measures Jackson serialisation of a page of Tasks, using an ObjectMapper
+ * configured with the same defaults Spring Boot applies. {@code viaDto} is
+ * the original path - each entity copied to a {@link Task} - and
+ * {@code direct} writes the entities with {@link TaskEntitySerializer}. The
+ * output is discarded, as a servlet response would be, so that only the
+ * serialisation itself allocates. Run with {@code -prof gc} to compare the
+ * bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TaskSerialisationBenchmark {
+
+    @Param({ "1", "50", "500" })
+    private int size;
+
+    private List<TaskEntity> tasks;
+
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(new SimpleModule().addSerializer(new TaskEntitySerializer()))
+                .build()
+                .writer();
+        tasks = new ArrayList<>(size);
+        var due = ZonedDateTime.now();
+        for (int i = 0; i < size; i++) {
+            var task = new TaskEntity("Benchmark Task " + i, "A task used to benchmark serialisation",
+                    due.plusMinutes(i));
+            task.setId((long) i);
+            task.setStatus(Status.values()[i % Status.values().length]);
+            tasks.add(task);
+        }
+    }
+
+    @Benchmark
+    public void viaDto() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), tasks.stream().map(Task::fromEntity).toList());
+    }
+
+    @Benchmark
+    public void direct() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), new TaskPage(tasks, null));
+    }
+}
@@ -0,0 +1,95 @@
+package com.hurricanepilot.hmctsdt.benchmark;
+
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.hurricanepilot.hmctsdt.HmctsTaskApplication;
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.service.TaskService;
+import com.hurricanepilot.hmctsdt.service.exception.TaskNotFoundException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskStatusInvalidException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskUpdateNotSupportedException;
+
+/**
+ * Measures the TaskService operations against the in-memory H2 database,
+ * with and without the Task cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TaskServiceBenchmark {
+
+    private static final int TASK_COUNT = 1000;
+
+    @Param({ "caffeine", "none" })
+    private String cacheType;
+
+    private ConfigurableApplicationContext context;
+
+    private TaskService taskService;
+
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(HmctsTaskApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.cache.type=" + cacheType, "logging.level.root=WARN")
+                .run();
+        taskService = context.getBean(TaskService.class);
+
+        ids = new long[TASK_COUNT];
+        for (int i = 0; i < TASK_COUNT; i++) {
+            ids[i] = taskService.create(new TaskEntity("Benchmark Task " + i, ZonedDateTime.now().plusMinutes(i)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long create() {
+        return taskService.create(new TaskEntity("Benchmark Task", ZonedDateTime.now()));
+    }
+
+    @Benchmark
+    public TaskEntity find() throws TaskNotFoundException {
+        return taskService.find(randomId());
+    }
+
+    @Benchmark
+    public void updateTask() throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException {
+        // alternate between two statuses that can always be moved between
+        var status = ThreadLocalRandom.current().nextBoolean() ? Status.IN_PROGRESS : Status.DEFERRED;
+        taskService.updateTask(randomId(), Map.of("status", status.name()));
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
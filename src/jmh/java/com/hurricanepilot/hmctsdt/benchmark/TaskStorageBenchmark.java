@@ -0,0 +1,86 @@
+package com.hurricanepilot.hmctsdt.benchmark;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.service.TaskFilter;
+import com.hurricanepilot.hmctsdt.service.TaskService;
+import com.hurricanepilot.hmctsdt.service.TaskSlice;
+import com.hurricanepilot.hmctsdt.service.exception.TaskNotFoundException;
+
+/**
+ * Compares the throughput of the in-memory and file-backed databases with
+ * {@value BenchmarkStorage#TASK_COUNT} Tasks stored.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class TaskStorageBenchmark {
+
+    @Param({ "mem", "file" })
+    private String storage;
+
+    private ConfigurableApplicationContext context;
+
+    private TaskService taskService;
+
+    private long[] ids;
+
+    private ZonedDateTime seeded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkStorage.delete();
+        seeded = ZonedDateTime.now();
+        context = BenchmarkStorage.start(storage);
+        taskService = context.getBean(TaskService.class);
+        ids = BenchmarkStorage.seed(taskService);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long create() {
+        return taskService.create(new TaskEntity("Benchmark Task", ZonedDateTime.now()));
+    }
+
+    @Benchmark
+    public TaskEntity find() throws TaskNotFoundException {
+        return taskService.find(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    /**
+     * The first page of NEW Tasks due on a random day.
+     */
+    @Benchmark
+    public TaskSlice dueOnDay() {
+        var from = seeded.plusDays(ThreadLocalRandom.current().nextInt(BenchmarkStorage.TASK_COUNT / 1440));
+        var filter = TaskFilter.builder().status(Status.NEW).dueFrom(from).dueTo(from.plusDays(1)).build();
+        return taskService.retrievePage(filter, null, 50);
+    }
+}
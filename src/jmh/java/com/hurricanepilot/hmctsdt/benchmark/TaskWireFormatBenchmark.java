@@ -0,0 +1,131 @@
+package com.hurricanepilot.hmctsdt.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.hurricanepilot.hmctsdt.api.converter.CompactDateTimeModule;
+import com.hurricanepilot.hmctsdt.api.converter.TaskEntitySerializer;
+import com.hurricanepilot.hmctsdt.api.converter.TaskProtobufHttpMessageConverter;
+import com.hurricanepilot.hmctsdt.api.model.TaskPage;
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+
+/**
+ * Compares the encode time of a 10,000 Task page in each of the supported
+ * wire formats, with and without gzip. Encoded sizes are compared by
+ * TaskWireFormatSizeTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TaskWireFormatBenchmark {
+
+    private static final int SIZE = 10_000;
+
+    private static final SimpleModule TASK_SERIALIZER = new SimpleModule().addSerializer(new TaskEntitySerializer());
+
+    @Param({ "json", "smile", "cbor", "protobuf" })
+    private String format;
+
+    @Param({ "false", "true" })
+    private boolean gzip;
+
+    private TaskPage page;
+
+    private ObjectWriter writer;
+
+    private TaskProtobufHttpMessageConverter protobufConverter;
+
+    @Setup
+    public void setUp() throws IOException {
+        var tasks = new ArrayList<TaskEntity>(SIZE);
+        var due = ZonedDateTime.now(ZoneId.of("Europe/London"));
+        for (int i = 0; i < SIZE; i++) {
+            var task = new TaskEntity("Benchmark Task " + i, "A task used to benchmark wire formats",
+                    due.plusMinutes(i));
+            task.setId((long) i);
+            task.setStatus(Status.values()[i % Status.values().length]);
+            tasks.add(task);
+        }
+        page = new TaskPage(tasks, "MjAyNS0wMS0wMVQwOTowMDowMFp8MTAwMDA");
+
+        switch (format) {
+        case "json" -> writer = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(TASK_SERIALIZER)
+                .build().writer();
+        case "smile" -> writer = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(TASK_SERIALIZER)
+                .factory(SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build())
+                .build().registerModule(new CompactDateTimeModule()).writer();
+        case "cbor" -> writer = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(TASK_SERIALIZER)
+                .factory(new CBORFactory())
+                .build().registerModule(new CompactDateTimeModule()).writer();
+        case "protobuf" -> protobufConverter = new TaskProtobufHttpMessageConverter();
+        default -> throw new IllegalArgumentException(format);
+        }
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        var body = new ByteArrayOutputStream(1 << 20);
+        if (gzip) {
+            try (var compressed = new GZIPOutputStream(body, 8192)) {
+                write(compressed);
+            }
+        } else {
+            write(body);
+        }
+        return body.toByteArray();
+    }
+
+    private void write(OutputStream out) throws IOException {
+        if (writer != null) {
+            writer.writeValue(out, page);
+            return;
+        }
+        var headers = new HttpHeaders();
+        protobufConverter.write(page, TaskProtobufHttpMessageConverter.APPLICATION_PROTOBUF, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return out;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        });
+    }
+}
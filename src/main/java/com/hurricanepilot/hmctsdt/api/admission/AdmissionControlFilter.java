@@ -0,0 +1,180 @@
+package com.hurricanepilot.hmctsdt.api.admission;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hurricanepilot.hmctsdt.api.model.ErrorDetail;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control for the Task endpoints. Before a request reaches the
+ * controller it must, in turn:
+ * <ul>
+ * <li>take a token from its client's {@link ClientRateLimiter} bucket, or be
+ * rejected with a {@code 429}</li>
+ * <li>not be of a class the {@link LoadMonitor} is currently shedding, or be
+ * rejected with a {@code 503}</li>
+ * <li>get one of the permits for its {@link EndpointClass}, or be rejected
+ * with a {@code 503}</li>
+ * </ul>
+ * Every rejection carries a {@code Retry-After} header, and none of the
+ * checks ever blocks, so a rejected request costs next to nothing.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    /** Counts the requests rejected, tagged by endpoint class and reason */
+    public static final String REJECTED_COUNTER = "tasks.admission.rejected";
+
+    /** The gauge reporting the number of requests being served, tagged by endpoint class */
+    public static final String IN_FLIGHT_GAUGE = "tasks.admission.in.flight";
+
+    private final ClientRateLimiter rateLimiter;
+
+    private final LoadMonitor loadMonitor;
+
+    private final Map<EndpointClass, Semaphore> permits;
+
+    private final ClientIdentity clientIdentity;
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param limits the number of requests of each class that may be served
+     *        at once; classes without a limit are not limited
+     * @param clientIdentity how the client a request is from is identified
+     */
+    public AdmissionControlFilter(ClientRateLimiter rateLimiter, LoadMonitor loadMonitor,
+            Map<EndpointClass, Integer> limits, ClientIdentity clientIdentity, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.loadMonitor = loadMonitor;
+        this.clientIdentity = clientIdentity;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.permits = new EnumMap<>(EndpointClass.class);
+        limits.forEach((endpoint, limit) -> {
+            var semaphore = new Semaphore(limit);
+            permits.put(endpoint, semaphore);
+            Gauge.builder(IN_FLIGHT_GAUGE, semaphore, s -> limit - s.availablePermits())
+                    .description("The number of Task requests being served")
+                    .tag("class", endpoint.name())
+                    .register(meterRegistry);
+        });
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var endpoint = EndpointClass.of(request);
+        if (endpoint == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        var wait = rateLimiter.acquire(clientIdentity.of(request));
+        if (wait > 0) {
+            reject(response, endpoint, HttpStatus.TOO_MANY_REQUESTS, "rate_limited", Duration.ofNanos(wait),
+                    "Too many requests from this client");
+            return;
+        }
+        if (loadMonitor.sheds(endpoint)) {
+            reject(response, endpoint, HttpStatus.SERVICE_UNAVAILABLE, "shed", loadMonitor.getRetryAfter(),
+                    "The service is overloaded");
+            return;
+        }
+        var semaphore = permits.get(endpoint);
+        if (semaphore != null && !semaphore.tryAcquire()) {
+            reject(response, endpoint, HttpStatus.SERVICE_UNAVAILABLE, "concurrency", loadMonitor.getRetryAfter(),
+                    "Too many " + endpoint.name().toLowerCase() + " requests are in progress");
+            return;
+        }
+
+        var start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // streamed responses are still being written, and take as long
+                // as they take, so only count against the concurrency limit
+                request.getAsyncContext().addListener(new Release(semaphore));
+            } else {
+                if (semaphore != null) {
+                    semaphore.release();
+                }
+                loadMonitor.record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response, EndpointClass endpoint, HttpStatus status, String reason,
+            Duration retryAfter, String message) throws IOException {
+        meterRegistry.counter(REJECTED_COUNTER, "class", endpoint.name(), "reason", reason).increment();
+        // Retry-After is in whole seconds, rounded up
+        var seconds = Math.max(1, retryAfter.plusNanos(999_999_999).toSeconds());
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorDetail(status.value(), message));
+    }
+
+    /**
+     * Returns an async request's permit once it finishes, exactly once - a
+     * request may both time out and complete.
+     */
+    private static final class Release implements AsyncListener {
+
+        private final Semaphore semaphore;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Release(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        private void release() {
+            if (semaphore != null && released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
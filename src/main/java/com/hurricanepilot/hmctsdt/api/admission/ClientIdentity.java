@@ -0,0 +1,56 @@
+package com.hurricanepilot.hmctsdt.api.admission;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.util.StringUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Identifies the client a request was made by, for admission control and
+ * read-your-writes routing. A client is identified by its address, unless
+ * the request came through one of the trusted proxies and carries the client
+ * header, which the proxy is expected to set (e.g. from an API key).
+ * <p>
+ * Behind a proxy every request has the proxy's address, so without the
+ * header all of its clients are treated as one. The header is ignored on
+ * requests from any other address, as a client could otherwise send a
+ * different value with each request to escape its rate limit.
+ */
+public class ClientIdentity {
+
+    private final String header;
+
+    private final Set<String> trustedProxies;
+
+    /**
+     * @param header         the request header identifying the client, or
+     *                       null to identify clients by their address
+     * @param trustedProxies the addresses of the proxies the header is
+     *                       accepted from, required if there is a header
+     */
+    public ClientIdentity(String header, Collection<String> trustedProxies) {
+        this.header = StringUtils.hasText(header) ? header : null;
+        this.trustedProxies = trustedProxies.stream()
+                .filter(StringUtils::hasText)
+                .map(String::trim)
+                .collect(Collectors.toUnmodifiableSet());
+        if (this.header != null && this.trustedProxies.isEmpty()) {
+            throw new IllegalArgumentException("The client header " + header
+                    + " is only accepted from a trusted proxy, but no trusted proxy addresses are configured");
+        }
+    }
+
+    public String of(HttpServletRequest request) {
+        var address = request.getRemoteAddr();
+        if (header != null && trustedProxies.contains(address)) {
+            var client = request.getHeader(header);
+            if (StringUtils.hasText(client)) {
+                return client;
+            }
+        }
+        return address;
+    }
+}
@@ -0,0 +1,65 @@
+package com.hurricanepilot.hmctsdt.api.admission;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * A token bucket per client, allowing each client a sustained rate of
+ * requests plus an initial burst.
+ * <p>
+ * Each bucket is implemented as the generic cell rate algorithm, which keeps
+ * a single value per client - the theoretical arrival time of its next
+ * request - rather than a token count and refill time. That lets a bucket be
+ * updated with a single compare-and-set, so clients never contend on a lock,
+ * and requests from different clients only meet in the (internally striped)
+ * map of buckets. Buckets for clients that have gone quiet expire.
+ */
+public class ClientRateLimiter {
+
+    private final long intervalNanos;
+
+    private final long toleranceNanos;
+
+    private final Cache<String, AtomicLong> buckets;
+
+    /**
+     * @param ratePerSecond the sustained number of requests allowed per second
+     * @param burst the number of requests allowed at once by an idle client
+     * @param maxClients the number of clients tracked at once
+     */
+    public ClientRateLimiter(double ratePerSecond, int burst, long maxClients) {
+        this.intervalNanos = (long) (Duration.ofSeconds(1).toNanos() / ratePerSecond);
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                // by which point the bucket would have refilled anyway
+                .expireAfterAccess(Duration.ofNanos(toleranceNanos + intervalNanos).plusSeconds(1))
+                .build();
+    }
+
+    /**
+     * Takes a token from the client's bucket.
+     *
+     * @return zero if the request is allowed, otherwise the time in
+     *         nanoseconds until the client's next request would be
+     */
+    public long acquire(String client) {
+        var bucket = buckets.get(client, key -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            var now = System.nanoTime();
+            var arrival = bucket.get();
+            // a bucket that has refilled doesn't bank the unused time
+            var next = Math.max(arrival, now) + intervalNanos;
+            var wait = next - intervalNanos - toleranceNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+}
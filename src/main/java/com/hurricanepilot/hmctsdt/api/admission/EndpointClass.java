@@ -0,0 +1,44 @@
+package com.hurricanepilot.hmctsdt.api.admission;
+
+import org.springframework.http.HttpMethod;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The classes of Task endpoint that admission control treats separately,
+ * from the cheapest to shed to the most important to keep serving.
+ */
+public enum EndpointClass {
+    /** The Task list, search, due lists and export, which read many rows */
+    LIST,
+    /** Single Task reads, including history, and the summary */
+    READ,
+    /** Creations, updates and deletions */
+    WRITE,
+    /** The change stream - long lived, so never counted against a concurrency limit or shed */
+    STREAM;
+
+    private static final String TASKS = "/tasks";
+
+    /**
+     * The class of the given request, or null if it isn't for a Task endpoint.
+     */
+    public static EndpointClass of(HttpServletRequest request) {
+        var path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.equals(TASKS) && !path.startsWith(TASKS + "/")) {
+            return null;
+        }
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return WRITE;
+        }
+        var subPath = path.substring(TASKS.length());
+        if (subPath.equals("/changes")) {
+            return STREAM;
+        }
+        if (subPath.isEmpty() || subPath.equals("/") || subPath.equals("/search")
+                || subPath.equals("/overdue") || subPath.equals("/due") || subPath.equals("/export")) {
+            return LIST;
+        }
+        return READ;
+    }
+}
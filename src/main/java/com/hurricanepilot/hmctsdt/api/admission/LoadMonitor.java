@@ -0,0 +1,125 @@
+package com.hurricanepilot.hmctsdt.api.admission;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Decides when requests should be shed, from the mean latency of Task
+ * requests and the mean time spent waiting for a database connection over
+ * the most recent interval.
+ * <p>
+ * Once either passes its threshold, list requests are shed; once either
+ * reaches twice its threshold, single reads are shed too. Writes are never
+ * shed, so work already under way can complete. Shedding lowers the load,
+ * so the level is reassessed each interval and shedding stops as soon as
+ * latency recovers.
+ * <p>
+ * The level is reassessed by whichever request first notices the interval
+ * has passed, so no background thread is needed.
+ */
+public class LoadMonitor {
+
+    /** The gauge reporting the current shedding level */
+    public static final String SHED_LEVEL_GAUGE = "tasks.admission.shed.level";
+
+    /** Hikari's timer of connection acquisition */
+    static final String POOL_ACQUIRE_TIMER = "hikaricp.connections.acquire";
+
+    private final MeterRegistry meterRegistry;
+
+    private final long latencyThresholdNanos;
+
+    private final long poolWaitThresholdNanos;
+
+    private final long intervalNanos;
+
+    private final LongAdder requestNanos = new LongAdder();
+
+    private final LongAdder requestCount = new LongAdder();
+
+    private final AtomicLong nextAssessment;
+
+    private volatile int level;
+
+    // only updated by the request reassessing the level
+    private long lastPoolNanos;
+
+    private long lastPoolCount;
+
+    public LoadMonitor(MeterRegistry meterRegistry, Duration latencyThreshold, Duration poolWaitThreshold,
+            Duration interval) {
+        this.meterRegistry = meterRegistry;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.poolWaitThresholdNanos = poolWaitThreshold.toNanos();
+        this.intervalNanos = interval.toNanos();
+        this.nextAssessment = new AtomicLong(System.nanoTime() + intervalNanos);
+        Gauge.builder(SHED_LEVEL_GAUGE, this, LoadMonitor::getLevel)
+                .description("0 when no requests are being shed, 1 when list requests are, and 2 when reads are too")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the time taken to serve a request.
+     */
+    public void record(long nanos) {
+        requestNanos.add(nanos);
+        requestCount.increment();
+    }
+
+    /**
+     * Whether requests of the given class should currently be rejected.
+     */
+    public boolean sheds(EndpointClass endpoint) {
+        var now = System.nanoTime();
+        var next = nextAssessment.get();
+        if (now - next >= 0 && nextAssessment.compareAndSet(next, now + intervalNanos)) {
+            assess();
+        }
+        return switch (endpoint) {
+            case LIST -> level >= 1;
+            case READ -> level >= 2;
+            case WRITE, STREAM -> false;
+        };
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * The time a client should wait before retrying a shed request.
+     */
+    public Duration getRetryAfter() {
+        return Duration.ofNanos(intervalNanos);
+    }
+
+    /**
+     * Reassesses the shedding level from the requests served, and the
+     * connections acquired, since the last assessment.
+     */
+    void assess() {
+        var nanos = requestNanos.sumThenReset();
+        var count = requestCount.sumThenReset();
+        var latency = count == 0 ? 0 : nanos / count;
+
+        long poolNanos = 0;
+        long poolCount = 0;
+        for (Timer timer : meterRegistry.find(POOL_ACQUIRE_TIMER).timers()) {
+            poolNanos += (long) timer.totalTime(TimeUnit.NANOSECONDS);
+            poolCount += timer.count();
+        }
+        var acquired = poolCount - lastPoolCount;
+        var poolWait = acquired <= 0 ? 0 : (poolNanos - lastPoolNanos) / acquired;
+        lastPoolNanos = poolNanos;
+        lastPoolCount = poolCount;
+
+        var pressure = Math.max((double) latency / latencyThresholdNanos, (double) poolWait / poolWaitThresholdNanos);
+        level = pressure >= 2 ? 2 : pressure >= 1 ? 1 : 0;
+    }
+}
@@ -0,0 +1,305 @@
+package com.hurricanepilot.hmctsdt.api.controller;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hurricanepilot.hmctsdt.api.model.TaskChange;
+import com.hurricanepilot.hmctsdt.service.TaskChangeEvent;
+import com.hurricanepilot.hmctsdt.service.TaskTableRebuiltEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes committed Task changes to Server-Sent Events subscribers.
+ * <p>
+ * Each change is serialised once and numbered; the most recent changes are
+ * kept in a ring buffer so a reconnecting client can resume from the
+ * {@code Last-Event-ID} it last saw. Every subscriber has its own bounded
+ * buffer, drained on a virtual thread, so a slow client only delays itself.
+ * When a subscriber's buffer overflows, or the changes it missed are no
+ * longer available, its buffer is dropped and it is sent a {@code resync}
+ * event, telling it to re-read the Task list rather than rely on the stream.
+ */
+@Slf4j
+@Component
+public class TaskChangeFeed implements DisposableBean {
+
+    public static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    /** The event sent to a subscriber that has missed changes */
+    public static final String RESYNC_EVENT = "resync";
+
+    private static final String SUBSCRIBER_GAUGE = "tasks.changes.subscribers";
+
+    private static final String RESYNC_COUNTER = "tasks.changes.resyncs";
+
+    // distinguishes event IDs issued before a restart, which can't be resumed from
+    private final String bootId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final ObjectWriter writer;
+
+    private final Executor executor;
+
+    private final ScheduledExecutorService heartbeats;
+
+    private final int bufferSize;
+
+    private final Duration timeout;
+
+    private final Counter resyncs;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // guarded by lock
+    private final Change[] replay;
+
+    // guarded by lock
+    private long lastSequence;
+
+    @Autowired
+    public TaskChangeFeed(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${hmcts.changes.replay-size:10000}") int replaySize,
+            @Value("${hmcts.changes.subscriber-buffer:256}") int bufferSize,
+            @Value("${hmcts.changes.heartbeat:15s}") Duration heartbeat,
+            @Value("${hmcts.changes.timeout:30m}") Duration timeout) {
+        this(objectMapper, meterRegistry, replaySize, bufferSize, heartbeat, timeout,
+                Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    TaskChangeFeed(ObjectMapper objectMapper, MeterRegistry meterRegistry, int replaySize, int bufferSize,
+            Duration heartbeat, Duration timeout, Executor executor) {
+        // an SSE data line can't contain line breaks
+        this.writer = objectMapper.writerFor(TaskChange.class).without(SerializationFeature.INDENT_OUTPUT);
+        this.replay = new Change[replaySize];
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.executor = executor;
+        this.resyncs = Counter.builder(RESYNC_COUNTER).register(meterRegistry);
+        Gauge.builder(SUBSCRIBER_GAUGE, subscribers, Set::size).register(meterRegistry);
+
+        if (heartbeat.isZero()) {
+            this.heartbeats = null;
+        } else {
+            // a periodic comment keeps idle connections open through proxies,
+            // and finds subscribers that have gone away
+            this.heartbeats = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("task-change-heartbeat").daemon().factory());
+            this.heartbeats.scheduleAtFixedRate(() -> subscribers.forEach(Subscriber::heartbeat),
+                    heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Subscribes to the changes made from now on, or from just after the given
+     * event ID if one is given.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(new SseEmitter(timeout.toMillis()), lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, String lastEventId) {
+        var subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        lock.lock();
+        try {
+            if (lastEventId != null) {
+                var missed = missedSince(lastEventId);
+                if (missed == null) {
+                    subscriber.resync();
+                } else {
+                    missed.forEach(subscriber::enqueue);
+                }
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        subscriber.schedule();
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(TaskChangeEvent event) {
+        String data;
+        try {
+            data = writer.writeValueAsString(TaskChange.fromEvent(event));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialise change to Task {}", event.getTaskId(), e);
+            return;
+        }
+
+        lock.lock();
+        try {
+            var change = new Change(++lastSequence, event.getType().name().toLowerCase(), data);
+            replay[(int) (change.sequence() % replay.length)] = change;
+            subscribers.forEach(subscriber -> subscriber.enqueue(change));
+        } finally {
+            lock.unlock();
+        }
+        subscribers.forEach(Subscriber::schedule);
+    }
+
+    /**
+     * The task table has been replaced wholesale, so every subscriber has to
+     * re-read it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void rebuilt(TaskTableRebuiltEvent event) {
+        subscribers.forEach(Subscriber::resync);
+        subscribers.forEach(Subscriber::schedule);
+    }
+
+    @Override
+    public void destroy() {
+        if (heartbeats != null) {
+            heartbeats.shutdownNow();
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * The retained changes following the given event ID, or null if the
+     * changes since then can't all be replayed.
+     */
+    private List<Change> missedSince(String lastEventId) {
+        var separator = lastEventId.indexOf(':');
+        if (separator < 0 || !bootId.equals(lastEventId.substring(0, separator))) {
+            return null;
+        }
+        long seen;
+        try {
+            seen = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        var oldestRetained = Math.max(1, lastSequence - replay.length + 1);
+        var missed = lastSequence - seen;
+        if (seen > lastSequence || seen + 1 < oldestRetained || missed > bufferSize) {
+            return null;
+        }
+        var changes = new ArrayList<Change>((int) missed);
+        for (var sequence = seen + 1; sequence <= lastSequence; sequence++) {
+            changes.add(replay[(int) (sequence % replay.length)]);
+        }
+        return changes;
+    }
+
+    private record Change(long sequence, String name, String data) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<Change> queue = new ArrayBlockingQueue<>(bufferSize);
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean resyncRequired;
+
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enqueue(Change change) {
+            if (!queue.offer(change)) {
+                resync();
+            }
+        }
+
+        void resync() {
+            // anything still buffered is superseded by the resync
+            resyncRequired = true;
+            queue.clear();
+        }
+
+        void schedule() {
+            if (!closed && draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        void heartbeat() {
+            executor.execute(() -> send(SseEmitter.event().comment("heartbeat")));
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+
+        private void drain() {
+            try {
+                while (!closed) {
+                    if (resyncRequired) {
+                        resyncRequired = false;
+                        resyncs.increment();
+                        send(SseEmitter.event().name(RESYNC_EVENT).data("{}", MediaType.APPLICATION_JSON));
+                        continue;
+                    }
+                    var change = queue.poll();
+                    if (change == null) {
+                        break;
+                    }
+                    send(SseEmitter.event()
+                            .id(bootId + ":" + change.sequence())
+                            .name(change.name())
+                            .data(change.data(), MediaType.APPLICATION_JSON));
+                }
+            } finally {
+                draining.set(false);
+            }
+            // catch anything enqueued after the queue was found empty
+            if (!closed && (resyncRequired || !queue.isEmpty())) {
+                schedule();
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // the client has gone away, the container completes the emitter
+                close();
+            }
+        }
+    }
+}
@@ -1,8 +1,16 @@
 package com.hurricanepilot.hmctsdt.api.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -13,25 +21,63 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hurricanepilot.hmctsdt.api.converter.TaskProtobufHttpMessageConverter;
 import com.hurricanepilot.hmctsdt.api.model.ErrorDetail;
 import com.hurricanepilot.hmctsdt.api.model.Task;
+import com.hurricanepilot.hmctsdt.api.model.TaskBatchItem;
+import com.hurricanepilot.hmctsdt.api.model.TaskBatchResult;
+import com.hurricanepilot.hmctsdt.api.model.TaskChange;
+import com.hurricanepilot.hmctsdt.api.model.TaskHistoryEntry;
+import com.hurricanepilot.hmctsdt.api.model.TaskPage;
+import com.hurricanepilot.hmctsdt.api.model.TaskSearchPage;
+import com.hurricanepilot.hmctsdt.api.model.TaskSummary;
+import com.hurricanepilot.hmctsdt.api.model.TaskStatusUpdate;
+import com.hurricanepilot.hmctsdt.api.model.TaskStatusUpdateResult;
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.service.TaskBulkUpdateResult;
+import com.hurricanepilot.hmctsdt.service.TaskChangeTracker;
+import com.hurricanepilot.hmctsdt.service.TaskCursor;
+import com.hurricanepilot.hmctsdt.service.TaskFilter;
+import com.hurricanepilot.hmctsdt.service.TaskIdempotency;
 import com.hurricanepilot.hmctsdt.service.TaskService;
+import com.hurricanepilot.hmctsdt.service.TaskStatusWriter;
+import com.hurricanepilot.hmctsdt.service.exception.TaskCursorInvalidException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskIdempotencyKeyReusedException;
 import com.hurricanepilot.hmctsdt.service.exception.TaskNotFoundException;
 import com.hurricanepilot.hmctsdt.service.exception.TaskStatusInvalidException;
 import com.hurricanepilot.hmctsdt.service.exception.TaskUpdateNotSupportedException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskVersionMismatchException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskWriteQueueFullException;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 
 @CrossOrigin
@@ -41,32 +87,270 @@ import lombok.RequiredArgsConstructor;
 @Tag(name = "Task API")
 public class TaskController {
 
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    /** As produced by Spring's MappingJackson2SmileHttpMessageConverter */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private static final Duration MAX_DUE_WITHIN = Duration.ofDays(366);
+
     private final TaskService taskService;
 
+    private final TaskIdempotency taskIdempotency;
+
+    private final TaskStatusWriter taskStatusWriter;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final TaskChangeFeed taskChangeFeed;
+
+    private final TaskChangeTracker taskChangeTracker;
+
     @PostMapping(path = "", consumes = MediaType.APPLICATION_JSON_VALUE)
-    @Operation(summary = "Create new Task", description = "Stores the given Task data and return the ID of the stored task")
+    @Operation(summary = "Create new Task", description = "Stores the given Task data and return the ID of the stored task. If an Idempotency-Key is given, the Task is only created once however many times the request is repeated with that key, and repeats get the original response")
     @ApiResponse(responseCode = "201", description = "Task successfully created")
-    public ResponseEntity<Long> createTask(@Valid @RequestBody Task task) {
-        var result = taskService.create(task.toEntity());
+    @ApiResponse(responseCode = "422", description = "The Idempotency-Key has already been used to create a different Task", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorDetail.class)))
+    public ResponseEntity<Long> createTask(@Valid @RequestBody Task task,
+            @Parameter(description = "A unique value chosen by the client, so that retrying the request can't create a second Task")
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) @Size(max = 255) String idempotencyKey)
+            throws TaskIdempotencyKeyReusedException {
+        var result = idempotencyKey == null
+                ? taskService.create(task.toEntity())
+                : taskIdempotency.create(idempotencyKey, task.toEntity());
         var location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
                 .buildAndExpand(result).toUri();
 
         return ResponseEntity.created(location).body(result);
     }
 
-    @GetMapping(path = "/{id}")
-    @Operation(summary = "Retrieve a Task", description = "Retrieves the Task related to the given ID")
+    @PostMapping(path = "/batch", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    @Operation(summary = "Create new Tasks in bulk", description = "Validates and stores each of the given Tasks, supplied either as a JSON array or as newline delimited JSON, and returns the ID or validation errors for each one")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(content = {
+            @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = Task.class))),
+            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = Task.class)) })
+    @ApiResponse(responseCode = "200", description = "The outcome for each submitted Task", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = TaskBatchResult.class)))
+    @ApiResponse(responseCode = "400", description = "The request body could not be parsed", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorDetail.class)))
+    public ResponseEntity<TaskBatchResult> createTasks(InputStream body) throws IOException {
+        var items = new ArrayList<TaskBatchItem>();
+        var pendingItems = new ArrayList<TaskBatchItem>(TaskService.CREATE_CHUNK_SIZE);
+        var pendingTasks = new ArrayList<TaskEntity>(TaskService.CREATE_CHUNK_SIZE);
+        var rejected = 0;
+
+        // a root level JSON array is iterated element by element in the same
+        // way as newline delimited JSON, so neither is read fully in to memory
+        try (MappingIterator<Task> tasks = objectMapper.readerFor(Task.class).readValues(body)) {
+            while (tasks.hasNextValue()) {
+                var task = tasks.nextValue();
+                var item = new TaskBatchItem(items.size());
+                items.add(item);
+
+                var violations = validator.validate(task);
+                if (!violations.isEmpty()) {
+                    item.setErrors(violations.stream()
+                            .map(v -> String.format("%s: %s", v.getPropertyPath(), v.getMessage()))
+                            .sorted()
+                            .toList());
+                    rejected++;
+                    continue;
+                }
+
+                pendingItems.add(item);
+                pendingTasks.add(task.toEntity());
+                if (pendingTasks.size() == TaskService.CREATE_CHUNK_SIZE) {
+                    createPending(pendingItems, pendingTasks);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unable to parse Task at index " + items.size() + ": " + e.getOriginalMessage());
+        }
+        createPending(pendingItems, pendingTasks);
+
+        return ResponseEntity.ok().body(new TaskBatchResult(items.size() - rejected, rejected, items));
+    }
+
+    private void createPending(List<TaskBatchItem> pendingItems, List<TaskEntity> pendingTasks) {
+        if (pendingTasks.isEmpty()) {
+            return;
+        }
+        var ids = taskService.createAll(pendingTasks);
+        for (int i = 0; i < ids.size(); i++) {
+            pendingItems.get(i).setId(ids.get(i));
+        }
+        pendingItems.clear();
+        pendingTasks.clear();
+    }
+
+    // JSON is listed first, so stays the default for clients that accept anything
+    @GetMapping(path = "/{id}", produces = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, TaskProtobufHttpMessageConverter.APPLICATION_PROTOBUF_VALUE })
+    @Operation(summary = "Retrieve a Task", description = "Retrieves the Task related to the given ID. The response carries the Task's version as an ETag, and a matching If-None-Match header results in a 304 with no body")
     @ApiResponse(responseCode = "200", description = "The retrieved Task", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = Task.class)))
+    @ApiResponse(responseCode = "304", description = "The Task has not changed since the version given by If-None-Match")
     @ApiResponse(responseCode = "404", description = "Task not found", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorDetail.class)))
-    public ResponseEntity<Task> retrieveTask(@PathVariable Long id) throws TaskNotFoundException {
-        return ResponseEntity.ok().body(Task.fromEntity(taskService.find(id)));
+    public ResponseEntity<TaskEntity> retrieveTask(@PathVariable Long id) throws TaskNotFoundException {
+        var task = taskService.find(id);
+        // Spring compares the ETag with any If-None-Match header and converts
+        // the response in to a bodiless 304 when they match. The entity is
+        // written in the shape of a Task by TaskEntitySerializer
+        return ResponseEntity.ok().eTag(String.valueOf(task.getVersion())).body(task);
     }
 
-    @GetMapping(path = "")
-    @Operation(summary = "Retrieve all Tasks", description = "Retrieves all Tasks")
-    @ApiResponse(responseCode = "200", description = "The retrieved Tasks", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = ErrorDetail.class))))
-    public ResponseEntity<List<Task>> retrieveAllTasks() {
-        return ResponseEntity.ok().body(taskService.retrieveAll().stream().map(Task::fromEntity).toList());
+    @GetMapping(path = "/{id}/history")
+    @Operation(summary = "Retrieve a Task's history", description = "Retrieves every change made to the Task related to the given ID, oldest first. The history remains available once the Task has been deleted")
+    @ApiResponse(responseCode = "200", description = "The changes made to the Task", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = TaskHistoryEntry.class))))
+    @ApiResponse(responseCode = "404", description = "No history exists for the Task", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorDetail.class)))
+    public ResponseEntity<List<TaskHistoryEntry>> retrieveTaskHistory(@PathVariable Long id) throws TaskNotFoundException {
+        return ResponseEntity.ok().body(taskService.history(id).stream().map(TaskHistoryEntry::fromEntity).toList());
+    }
+
+    @GetMapping(path = "", produces = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, TaskProtobufHttpMessageConverter.APPLICATION_PROTOBUF_VALUE })
+    @Operation(summary = "Retrieve Tasks", description = "Retrieves a page of Tasks ordered by due date/time, optionally filtered by status and due date/time range. Alternatively, 'since' retrieves the Tasks created, changed or deleted after the given date/time, ordered by when they were last modified. The response carries an ETag and Last-Modified time for the task list as a whole, and a matching If-None-Match or If-Modified-Since header results in a 304 with no body")
+    @ApiResponse(responseCode = "200", description = "The retrieved page of Tasks", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = TaskPage.class)))
+    @ApiResponse(responseCode = "304", description = "No Task has changed since the ETag given by If-None-Match was issued")
+    @ApiResponse(responseCode = "400", description = "Invalid paging or filter parameters", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorDetail.class)))
+    public ResponseEntity<TaskPage> retrieveAllTasks(
+            @Parameter(description = "Only include Tasks with this status")
+            @RequestParam(required = false) Status status,
+            @Parameter(description = "Only include Tasks due at or after this date/time")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime dueFrom,
+            @Parameter(description = "Only include Tasks due before this date/time")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime dueTo,
+            @Parameter(description = "Only include Tasks created, changed or deleted after this date/time - the syncedTo value from the last page of the previous sync. Can't be combined with the filters")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime since,
+            @Parameter(description = "The nextCursor value from the previous page")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "The maximum number of Tasks to return")
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit,
+            WebRequest request) throws TaskCursorInvalidException {
+
+        if (since != null && (status != null || dueFrom != null || dueTo != null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "since can't be combined with status, dueFrom or dueTo");
+        }
+
+        // taken before querying, so a change committed meanwhile can only
+        // leave the ETag older than the body - never newer
+        var eTag = taskChangeTracker.eTag(status, dueFrom, dueTo, since, after, limit);
+        var lastModified = taskChangeTracker.getLastModified();
+        if (request.checkNotModified(eTag, lastModified.toEpochMilli())) {
+            // Spring has already set the response up as a 304
+            return null;
+        }
+
+        var cursor = after == null ? null : TaskCursor.decode(after);
+        TaskPage page;
+        if (since == null) {
+            var filter = TaskFilter.builder().status(status).dueFrom(dueFrom).dueTo(dueTo).build();
+            var slice = taskService.retrievePage(filter, cursor, limit);
+            var next = slice.getNext() == null ? null : slice.getNext().encode();
+            page = new TaskPage(slice.getTasks(), next);
+        } else {
+            var delta = taskService.retrieveChanges(since.toInstant(), cursor, limit);
+            var next = delta.getNext() == null ? null : delta.getNext().encode();
+            page = new TaskPage(delta.getTasks(), next);
+            page.setDeleted(delta.getDeleted());
+            page.setSyncedTo(delta.getSyncedTo());
+        }
+        return ResponseEntity.ok().eTag(eTag).lastModified(lastModified).body(page);
+    }
+
+    @GetMapping(path = "/summary")
+    @Operation(summary = "Summarise Tasks", description = "Retrieves the number of Tasks in each status and the number overdue. The counts are held in memory, so this is cheap to poll however many Tasks there are. The overdue count can lag by up to a second")
+    @ApiResponse(responseCode = "200", description = "The Task counts", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = TaskSummary.class)))
+    public ResponseEntity<TaskSummary> summariseTasks() {
+        var counts = taskService.count();
+        var total = counts.getByStatus().values().stream().mapToLong(Long::longValue).sum();
+        return ResponseEntity.ok(new TaskSummary(counts.getByStatus(), total, counts.getOverdue()));
+    }
+
+    @GetMapping(path = "/overdue")
+    @Operation(summary = "Retrieve overdue Tasks", description = "Retrieves a page of the Tasks yet to be completed whose due date/time has passed, ordered by due date/time and then ID")
+    @ApiResponse(responseCode = "200", description = "The overdue Tasks", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = TaskPage.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid paging parameters", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorDetail.class)))
+    public ResponseEntity<TaskPage> retrieveOverdueTasks(
+            @Parameter(description = "The nextCursor value from the previous page")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "The maximum number of Tasks to return")
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit) throws TaskCursorInvalidException {
+        var cursor = after == null ? null : TaskCursor.decode(after);
+        var slice = taskService.retrieveOverdue(cursor, limit);
+        var next = slice.getNext() == null ? null : slice.getNext().encode();
+        return ResponseEntity.ok(new TaskPage(slice.getTasks(), next));
+    }
+
+    @GetMapping(path = "/due")
+    @Operation(summary = "Retrieve Tasks falling due", description = "Retrieves a page of the Tasks yet to be completed that fall due between now and the given time from now, ordered by due date/time and then ID")
+    @ApiResponse(responseCode = "200", description = "The Tasks falling due", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = TaskPage.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid duration or paging parameters", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorDetail.class)))
+    public ResponseEntity<TaskPage> retrieveTasksDueWithin(
+            @Parameter(description = "How far ahead to look, as an ISO-8601 duration (e.g. PT1H), of at most 366 days", example = "PT1H")
+            @RequestParam Duration within,
+            @Parameter(description = "The nextCursor value from the previous page")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "The maximum number of Tasks to return")
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit) throws TaskCursorInvalidException {
+        if (within.isNegative() || within.isZero() || within.compareTo(MAX_DUE_WITHIN) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "within must be a positive duration of at most 366 days");
+        }
+        var cursor = after == null ? null : TaskCursor.decode(after);
+        var slice = taskService.retrieveDueWithin(within, cursor, limit);
+        var next = slice.getNext() == null ? null : slice.getNext().encode();
+        return ResponseEntity.ok(new TaskPage(slice.getTasks(), next));
+    }
+
+    @GetMapping(path = "/search")
+    @Operation(summary = "Search Tasks", description = "Retrieves a page of the Tasks whose title or description contain any of the words in the query, best match first. Matches in the title rank above matches in the description, and Tasks matching more of the words rank higher")
+    @ApiResponse(responseCode = "200", description = "The matching Tasks", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = TaskSearchPage.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid query or paging parameters", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorDetail.class)))
+    public ResponseEntity<TaskSearchPage> searchTasks(
+            @Parameter(description = "The words to search for")
+            @RequestParam @NotBlank @Size(max = 200) String q,
+            @Parameter(description = "The number of matching Tasks to skip - the nextOffset value from the previous page")
+            @RequestParam(defaultValue = "0") @Min(0) @Max(10000) int offset,
+            @Parameter(description = "The maximum number of Tasks to return")
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit) {
+        var result = taskService.search(q, offset, limit);
+        var nextOffset = offset + limit < result.getTotal() ? offset + limit : null;
+        return ResponseEntity.ok(new TaskSearchPage(result.getTasks(), result.getTotal(), nextOffset));
+    }
+
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream Task changes", description = "Pushes each Task change as a Server-Sent Event named created, status_changed or deleted. Sending the Last-Event-ID header resumes from just after that event. A resync event means changes have been missed, and the Task list should be retrieved again")
+    @ApiResponse(responseCode = "200", description = "The stream of Task changes", content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = TaskChange.class)))
+    public SseEmitter streamTaskChanges(
+            @Parameter(description = "The ID of the last event received, to resume from")
+            @RequestHeader(name = TaskChangeFeed.LAST_EVENT_ID, required = false) String lastEventId) {
+        return taskChangeFeed.subscribe(lastEventId);
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all Tasks", description = "Streams every Task as newline delimited JSON, in ID order")
+    @ApiResponse(responseCode = "200", description = "The exported Tasks, one per line", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = Task.class)))
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        // each Task must be written on a single line, and straight to the
+        // response rather than the stream being closed after the first
+        var writer = objectMapper.writerFor(TaskEntity.class)
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        StreamingResponseBody body = out -> {
+            try {
+                taskService.export(task -> {
+                    try {
+                        writer.writeValue(out, task);
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @DeleteMapping(path = "/{id}")
@@ -78,17 +362,72 @@ public class TaskController {
     }
 
     @PatchMapping(path = "/{id}")
-    @Operation(summary = "Update a Task", description = "Updates the task for the given ID")
+    @Operation(summary = "Update a Task", description = "Updates the task for the given ID. If an If-Match header is given, the update is only applied if the Task is still at that version. When write-behind is enabled, unconditional updates are validated and queued to be written shortly after")
     @ApiResponse(responseCode = "200", description = "Task updated")
+    @ApiResponse(responseCode = "202", description = "Update accepted, to be written shortly (write-behind mode only)")
     @ApiResponse(responseCode = "400", description = "Invalid update specified", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorDetail.class)))
     @ApiResponse(responseCode = "404", description = "Task not found", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorDetail.class)))
-    public ResponseEntity<Void> updateTaskStatus(@PathVariable Long id, @RequestBody Map<String, String> taskUpdates)
-            throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException {
+    @ApiResponse(responseCode = "409", description = "Task was updated concurrently", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorDetail.class)))
+    @ApiResponse(responseCode = "412", description = "Task is no longer at the version given by If-Match", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorDetail.class)))
+    @ApiResponse(responseCode = "429", description = "Too many updates are waiting to be written (write-behind mode only)", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorDetail.class)))
+    public ResponseEntity<Void> updateTaskStatus(@PathVariable Long id, @RequestBody Map<String, String> taskUpdates,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+            throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException,
+            TaskVersionMismatchException, TaskWriteQueueFullException {
         // can't be null as taskUpdates is a required field
         if (taskUpdates.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No updates specified");
         }
-        this.taskService.updateTask(id, taskUpdates);
+        // conditional updates need the stored version, so are never queued
+        if (ifMatch == null && this.taskStatusWriter.isEnabled()) {
+            this.taskStatusWriter.submit(id, taskUpdates);
+            return ResponseEntity.accepted().build();
+        }
+        this.taskService.updateTask(id, taskUpdates, expectedVersion(ifMatch));
         return ResponseEntity.ok().build();
     }
+
+    @PatchMapping(path = "", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Update the status of many Tasks", description = "Moves every Task selected by ID or by filter to the given status in a single operation")
+    @ApiResponse(responseCode = "200", description = "The number of Tasks updated, rejected and missing", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = TaskStatusUpdateResult.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid update specified", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorDetail.class)))
+    public ResponseEntity<TaskStatusUpdateResult> updateTasksStatus(@Valid @RequestBody TaskStatusUpdate update) {
+        if ((update.getIds() == null) == (update.getFilter() == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Either ids or filter must be specified");
+        }
+
+        TaskBulkUpdateResult result;
+        if (update.getIds() != null) {
+            result = this.taskService.updateStatus(update.getIds(), update.getStatus());
+        } else {
+            var filter = update.getFilter();
+            result = this.taskService.updateStatus(TaskFilter.builder()
+                    .status(filter.getStatus())
+                    .dueFrom(filter.getDueFrom())
+                    .dueTo(filter.getDueTo())
+                    .build(), update.getStatus());
+        }
+        return ResponseEntity.ok()
+                .body(new TaskStatusUpdateResult(result.getUpdated(), result.getRejected(), result.getMissing()));
+    }
+
+    /**
+     * Extracts the Task version from an If-Match header. Returns null if there
+     * is no header, or it matches any version.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        // If-Match uses strong comparison, so a weak ETag can never match
+        var eTag = ifMatch.trim();
+        if (eTag.length() > 2 && eTag.startsWith("\"") && eTag.endsWith("\"")) {
+            try {
+                return Long.valueOf(eTag.substring(1, eTag.length() - 1));
+            } catch (NumberFormatException e) {
+                // fall through - can't match any version
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match any version of the Task");
+    }
 }
@@ -1,5 +1,7 @@
 package com.hurricanepilot.hmctsdt.api.controller.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
@@ -8,35 +10,97 @@ import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import com.hurricanepilot.hmctsdt.api.model.ErrorDetail;
+import com.hurricanepilot.hmctsdt.service.exception.TaskCursorInvalidException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskIdempotencyKeyReusedException;
 import com.hurricanepilot.hmctsdt.service.exception.TaskNotFoundException;
 import com.hurricanepilot.hmctsdt.service.exception.TaskStatusInvalidException;
 import com.hurricanepilot.hmctsdt.service.exception.TaskUpdateNotSupportedException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskVersionMismatchException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskWriteQueueFullException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class ErrorHandler {
 
+    /** Counts the errors handled, tagged by the kind of error */
+    public static final String ERROR_COUNTER = "tasks.errors";
+
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(exception = TaskNotFoundException.class)
     public ResponseEntity<ErrorDetail> handleTaskNotFound(TaskNotFoundException e) {
+        count("not_found");
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(new ErrorDetail(HttpStatus.NOT_FOUND.value(), e.getMessage()));
     }
 
     @ExceptionHandler(exception = TaskStatusInvalidException.class)
     public ResponseEntity<ErrorDetail> handleInvalidStatus(TaskStatusInvalidException e) {
+        count("status_invalid");
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(new ErrorDetail(HttpStatus.BAD_REQUEST.value(), e.getMessage()));
     }
 
     @ExceptionHandler(exception = TaskUpdateNotSupportedException.class)
     public ResponseEntity<ErrorDetail> handleInvalidStatus(TaskUpdateNotSupportedException e) {
+        count("update_not_supported");
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorDetail(HttpStatus.BAD_REQUEST.value(), e.getMessage()));
+    }
+
+    @ExceptionHandler(exception = TaskVersionMismatchException.class)
+    public ResponseEntity<ErrorDetail> handleVersionMismatch(TaskVersionMismatchException e) {
+        count("version_mismatch");
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(new ErrorDetail(HttpStatus.PRECONDITION_FAILED.value(), e.getMessage()));
+    }
+
+    @ExceptionHandler(exception = TaskIdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorDetail> handleIdempotencyKeyReused(TaskIdempotencyKeyReusedException e) {
+        count("idempotency_key_reused");
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(new ErrorDetail(HttpStatus.UNPROCESSABLE_ENTITY.value(), e.getMessage()));
+    }
+
+    @ExceptionHandler(exception = TaskWriteQueueFullException.class)
+    public ResponseEntity<ErrorDetail> handleWriteQueueFull(TaskWriteQueueFullException e) {
+        count("write_queue_full");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorDetail(HttpStatus.TOO_MANY_REQUESTS.value(), e.getMessage()));
+    }
+
+    @ExceptionHandler(exception = OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDetail> handleConcurrentUpdate(OptimisticLockingFailureException e) {
+        count("concurrent_update");
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorDetail(HttpStatus.CONFLICT.value(), "Task was updated concurrently, please retry"));
+    }
+
+    @ExceptionHandler(exception = TaskCursorInvalidException.class)
+    public ResponseEntity<ErrorDetail> handleInvalidCursor(TaskCursorInvalidException e) {
+        count("cursor_invalid");
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(new ErrorDetail(HttpStatus.BAD_REQUEST.value(), e.getMessage()));
     }
 
+    @ExceptionHandler(exception = MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorDetail> handleTypeMismatch(MethodArgumentTypeMismatchException e) {
+        count("type_mismatch");
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorDetail(HttpStatus.BAD_REQUEST.value(),
+                        String.format("Invalid value for %s: %s", e.getName(), e.getValue())));
+    }
+
     @ExceptionHandler(exception = MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorDetail> handleValidationError(MethodArgumentNotValidException e) {
+        count("validation");
 
         var builder = new StringBuilder("Validation errors are present:\n");
 
@@ -65,8 +129,13 @@ public class ErrorHandler {
             message = er.getBody().getDetail();
         }
 
+        count(e instanceof ErrorResponse ? "request_invalid" : "internal");
         return ResponseEntity.status(status)
                 .body(new ErrorDetail(status.value(), message));
     }
 
+    private void count(String type) {
+        meterRegistry.counter(ERROR_COUNTER, "type", type).increment();
+    }
+
 }
@@ -0,0 +1,73 @@
+package com.hurricanepilot.hmctsdt.api.converter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Encodes a {@link ZonedDateTime} as a two element array of its epoch
+ * milliseconds and zone ID, e.g. {@code [1735722000000, "Europe/London"]},
+ * rather than as an ISO-8601 string. Used by the binary formats, where the
+ * number is written natively and nothing has to be formatted or parsed.
+ * Anything finer than a millisecond is dropped.
+ * <p>
+ * Must be registered after the Java time module so that it takes precedence.
+ */
+public class CompactDateTimeModule extends SimpleModule {
+
+    public CompactDateTimeModule() {
+        super(CompactDateTimeModule.class.getSimpleName());
+        addSerializer(ZonedDateTime.class, new Serializer());
+        addDeserializer(ZonedDateTime.class, new Deserializer());
+    }
+
+    static class Serializer extends StdSerializer<ZonedDateTime> {
+
+        Serializer() {
+            super(ZonedDateTime.class);
+        }
+
+        @Override
+        public void serialize(ZonedDateTime value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartArray(value, 2);
+            generator.writeNumber(value.toInstant().toEpochMilli());
+            generator.writeString(value.getZone().getId());
+            generator.writeEndArray();
+        }
+    }
+
+    static class Deserializer extends StdDeserializer<ZonedDateTime> {
+
+        Deserializer() {
+            super(ZonedDateTime.class);
+        }
+
+        @Override
+        public ZonedDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (!parser.isExpectedStartArrayToken()
+                    || parser.nextToken() != JsonToken.VALUE_NUMBER_INT) {
+                return (ZonedDateTime) context.handleUnexpectedToken(ZonedDateTime.class, parser);
+            }
+            var epochMillis = parser.getLongValue();
+            if (parser.nextToken() != JsonToken.VALUE_STRING) {
+                return (ZonedDateTime) context.handleUnexpectedToken(ZonedDateTime.class, parser);
+            }
+            var zone = parser.getText();
+            if (parser.nextToken() != JsonToken.END_ARRAY) {
+                return (ZonedDateTime) context.handleUnexpectedToken(ZonedDateTime.class, parser);
+            }
+            return Instant.ofEpochMilli(epochMillis).atZone(ZoneId.of(zone));
+        }
+    }
+}
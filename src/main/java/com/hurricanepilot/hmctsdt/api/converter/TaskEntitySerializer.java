@@ -0,0 +1,116 @@
+package com.hurricanepilot.hmctsdt.api.converter;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.springframework.boot.jackson.JsonComponent;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.ZonedDateTimeSerializer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hurricanepilot.hmctsdt.api.model.Task;
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+
+/**
+ * Writes a {@link TaskEntity} in the shape of a {@link Task}, straight from
+ * the entity, so responses don't copy each Task in to a DTO first or have
+ * Jackson introspect the DTO's getters.
+ * <p>
+ * Field names and status values are pre-encoded, and formatted due
+ * date/times are cached, as the same values turn up in response after
+ * response. When the ObjectMapper would write a due date/time other than as
+ * a plain ISO-8601 string - e.g. {@link CompactDateTimeModule} in the binary
+ * formats - its own date/time serialiser is used instead.
+ */
+@JsonComponent
+public class TaskEntitySerializer extends StdSerializer<TaskEntity> implements ContextualSerializer {
+
+    private static final int DATE_TIME_CACHE_SIZE = 100_000;
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString DUE_DATE_TIME = new SerializedString("dueDateTime");
+
+    private static final SerializableString[] STATUS_VALUES = new SerializableString[Status.values().length];
+
+    static {
+        for (var status : Status.values()) {
+            STATUS_VALUES[status.ordinal()] = new SerializedString(status.name());
+        }
+    }
+
+    // shared by every ObjectMapper, as the formatted value doesn't depend on the output format
+    private static final Cache<ZonedDateTime, SerializableString> FORMATTED_DATE_TIMES = Caffeine.newBuilder()
+            .maximumSize(DATE_TIME_CACHE_SIZE)
+            .build();
+
+    /** The ObjectMapper's own serialiser, used when the cached ISO-8601 form would be wrong */
+    private final JsonSerializer<Object> dateTimeSerializer;
+
+    public TaskEntitySerializer() {
+        this(null);
+    }
+
+    private TaskEntitySerializer(JsonSerializer<Object> dateTimeSerializer) {
+        super(TaskEntity.class);
+        this.dateTimeSerializer = dateTimeSerializer;
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        var serializer = provider.findValueSerializer(ZonedDateTime.class, property);
+        // the Java time module's serialiser writes ISO_OFFSET_DATE_TIME unless
+        // configured otherwise
+        var isoOffset = serializer.getClass() == ZonedDateTimeSerializer.class
+                && !provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                && !provider.isEnabled(SerializationFeature.WRITE_DATES_WITH_ZONE_ID)
+                && !provider.getConfig().hasExplicitTimeZone();
+        return new TaskEntitySerializer(isoOffset ? null : serializer);
+    }
+
+    @Override
+    public void serialize(TaskEntity task, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(task);
+        if (task.getId() != null) {
+            generator.writeFieldName(ID);
+            generator.writeNumber(task.getId());
+        }
+        if (task.getTitle() != null) {
+            generator.writeFieldName(TITLE);
+            generator.writeString(task.getTitle());
+        }
+        if (task.getDescription() != null) {
+            generator.writeFieldName(DESCRIPTION);
+            generator.writeString(task.getDescription());
+        }
+        if (task.getStatus() != null) {
+            generator.writeFieldName(STATUS);
+            generator.writeString(STATUS_VALUES[task.getStatus().ordinal()]);
+        }
+        if (task.getDueDateTime() != null) {
+            generator.writeFieldName(DUE_DATE_TIME);
+            if (dateTimeSerializer == null) {
+                generator.writeString(FORMATTED_DATE_TIMES.get(task.getDueDateTime(),
+                        dateTime -> new SerializedString(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(dateTime))));
+            } else {
+                dateTimeSerializer.serialize(task.getDueDateTime(), generator, provider);
+            }
+        }
+        generator.writeEndObject();
+    }
+}
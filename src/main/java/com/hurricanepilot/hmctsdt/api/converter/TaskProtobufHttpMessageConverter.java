@@ -0,0 +1,156 @@
+package com.hurricanepilot.hmctsdt.api.converter;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.hurricanepilot.hmctsdt.api.model.TaskPage;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+
+/**
+ * Writes Tasks ({@link TaskEntity}s) and {@link TaskPage}s in the Protocol
+ * Buffers wire format described by {@code src/main/proto/task.proto}.
+ * <p>
+ * The messages are encoded directly from the entities rather than through
+ * generated classes, which avoids copying every Task in to a second object
+ * graph (and a protoc step in the build). Each nested message is preceded by
+ * its length, so the sizes are computed before anything is written.
+ * Only responses are supported - requests are always JSON.
+ */
+public class TaskProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.valueOf(APPLICATION_PROTOBUF_VALUE);
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // TaskPage fields
+    private static final int PAGE_TASKS = 1;
+    private static final int PAGE_NEXT_CURSOR = 2;
+    private static final int PAGE_DELETED = 3;
+    private static final int PAGE_SYNCED_TO = 4;
+
+    // Task fields
+    private static final int TASK_ID = 1;
+    private static final int TASK_TITLE = 2;
+    private static final int TASK_DESCRIPTION = 3;
+    private static final int TASK_STATUS = 4;
+    private static final int TASK_DUE_DATE_TIME = 5;
+
+    // ZonedDateTime fields
+    private static final int DATE_TIME_EPOCH_MILLIS = 1;
+    private static final int DATE_TIME_ZONE = 2;
+
+    public TaskProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == TaskEntity.class || clazz == TaskPage.class;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protocol Buffers requests are not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        var out = CodedOutputStream.newInstance(outputMessage.getBody(), BUFFER_SIZE);
+        if (value instanceof TaskPage page) {
+            writePage(out, page);
+        } else {
+            writeTask(out, (TaskEntity) value);
+        }
+        out.flush();
+    }
+
+    private static void writePage(CodedOutputStream out, TaskPage page) throws IOException {
+        for (var task : page.getTasks()) {
+            out.writeTag(PAGE_TASKS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(taskSize(task));
+            writeTask(out, task);
+        }
+        if (page.getNextCursor() != null) {
+            out.writeString(PAGE_NEXT_CURSOR, page.getNextCursor());
+        }
+        if (page.getDeleted() != null && !page.getDeleted().isEmpty()) {
+            // repeated scalars are packed in to a single length delimited field
+            var size = 0;
+            for (var id : page.getDeleted()) {
+                size += CodedOutputStream.computeInt64SizeNoTag(id);
+            }
+            out.writeTag(PAGE_DELETED, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(size);
+            for (var id : page.getDeleted()) {
+                out.writeInt64NoTag(id);
+            }
+        }
+        if (page.getSyncedTo() != null) {
+            out.writeInt64(PAGE_SYNCED_TO, page.getSyncedTo().toEpochMilli());
+        }
+    }
+
+    private static void writeTask(CodedOutputStream out, TaskEntity task) throws IOException {
+        if (task.getId() != null) {
+            out.writeInt64(TASK_ID, task.getId());
+        }
+        if (task.getTitle() != null) {
+            out.writeString(TASK_TITLE, task.getTitle());
+        }
+        if (task.getDescription() != null) {
+            out.writeString(TASK_DESCRIPTION, task.getDescription());
+        }
+        if (task.getStatus() != null) {
+            out.writeEnum(TASK_STATUS, task.getStatus().ordinal());
+        }
+        if (task.getDueDateTime() != null) {
+            out.writeTag(TASK_DUE_DATE_TIME, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(dateTimeSize(task.getDueDateTime()));
+            out.writeInt64(DATE_TIME_EPOCH_MILLIS, task.getDueDateTime().toInstant().toEpochMilli());
+            out.writeString(DATE_TIME_ZONE, task.getDueDateTime().getZone().getId());
+        }
+    }
+
+    private static int taskSize(TaskEntity task) {
+        var size = 0;
+        if (task.getId() != null) {
+            size += CodedOutputStream.computeInt64Size(TASK_ID, task.getId());
+        }
+        if (task.getTitle() != null) {
+            size += CodedOutputStream.computeStringSize(TASK_TITLE, task.getTitle());
+        }
+        if (task.getDescription() != null) {
+            size += CodedOutputStream.computeStringSize(TASK_DESCRIPTION, task.getDescription());
+        }
+        if (task.getStatus() != null) {
+            size += CodedOutputStream.computeEnumSize(TASK_STATUS, task.getStatus().ordinal());
+        }
+        if (task.getDueDateTime() != null) {
+            var dateTimeSize = dateTimeSize(task.getDueDateTime());
+            size += CodedOutputStream.computeTagSize(TASK_DUE_DATE_TIME)
+                    + CodedOutputStream.computeUInt32SizeNoTag(dateTimeSize)
+                    + dateTimeSize;
+        }
+        return size;
+    }
+
+    private static int dateTimeSize(ZonedDateTime dateTime) {
+        return CodedOutputStream.computeInt64Size(DATE_TIME_EPOCH_MILLIS, dateTime.toInstant().toEpochMilli())
+                + CodedOutputStream.computeStringSize(DATE_TIME_ZONE, dateTime.getZone().getId());
+    }
+}
@@ -0,0 +1,23 @@
+package com.hurricanepilot.hmctsdt.api.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.media.Schema.AccessMode;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+@Data
+@RequiredArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "The outcome for a single Task submitted as part of a batch")
+public class TaskBatchItem {
+    @Schema(description = "The zero-based position of the Task within the submitted batch", accessMode = AccessMode.READ_ONLY)
+    private final int index;
+    @Schema(description = "The ID assigned to the Task - absent if the Task was rejected", accessMode = AccessMode.READ_ONLY)
+    private Long id;
+    @Schema(description = "The validation errors that caused the Task to be rejected - absent if the Task was created", accessMode = AccessMode.READ_ONLY)
+    private List<String> errors;
+}
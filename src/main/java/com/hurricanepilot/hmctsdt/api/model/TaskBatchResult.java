@@ -0,0 +1,20 @@
+package com.hurricanepilot.hmctsdt.api.model;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.media.Schema.AccessMode;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+@Data
+@RequiredArgsConstructor
+@Schema(description = "The outcome of a batch Task creation request")
+public class TaskBatchResult {
+    @Schema(description = "The number of Tasks created", accessMode = AccessMode.READ_ONLY)
+    private final int created;
+    @Schema(description = "The number of Tasks rejected due to validation errors", accessMode = AccessMode.READ_ONLY)
+    private final int rejected;
+    @Schema(description = "The outcome for each submitted Task, in submission order", accessMode = AccessMode.READ_ONLY)
+    private final List<TaskBatchItem> items;
+}
@@ -0,0 +1,41 @@
+package com.hurricanepilot.hmctsdt.api.model;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.constants.TaskChangeType;
+import com.hurricanepilot.hmctsdt.service.TaskChangeEvent;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+@Data
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "A change made to a Task, as pushed to subscribers of the Task change stream")
+public class TaskChange {
+    @Schema(description = "The kind of change made")
+    private TaskChangeType type;
+    @Schema(description = "When the change was made")
+    private Instant occurredAt;
+    @Schema(description = "The version of the Task after the change. A change for a version no newer than the one already held can be ignored")
+    private long version;
+    @Schema(description = "The status the Task was moved from - only present for a status change")
+    private Status previousStatus;
+    @Schema(description = "The Task after the change, or as it was when deleted")
+    private Task task;
+
+    public static TaskChange fromEvent(TaskChangeEvent event) {
+        return new TaskChange(
+                event.getType(),
+                event.getOccurredAt(),
+                event.getVersion(),
+                event.getPreviousStatus(),
+                new Task(event.getTaskId(), event.getTitle(), event.getDescription(), event.getStatus(),
+                        event.getDueDateTime()));
+    }
+}
@@ -0,0 +1,50 @@
+package com.hurricanepilot.hmctsdt.api.model;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.constants.TaskChangeType;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEventEntity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+@Data
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "A change made to a Task, along with the state of the Task after the change")
+public class TaskHistoryEntry {
+    @Schema(description = "The kind of change made")
+    private TaskChangeType type;
+    @Schema(description = "When the change was made")
+    private Instant occurredAt;
+    @Schema(description = "The version of the Task after the change")
+    private long version;
+    @Schema(description = "The title of the Task")
+    private String title;
+    @Schema(description = "The description of the Task")
+    private String description;
+    @Schema(description = "The status of the Task after the change")
+    private Status status;
+    @Schema(description = "The status the Task was moved from - only present for a status change")
+    private Status previousStatus;
+    @Schema(description = "The due date/time of the Task")
+    private ZonedDateTime dueDateTime;
+
+    public static TaskHistoryEntry fromEntity(TaskEventEntity event) {
+        return new TaskHistoryEntry(
+                event.getType(),
+                event.getOccurredAt(),
+                event.getVersion(),
+                event.getTitle(),
+                event.getDescription(),
+                event.getStatus(),
+                event.getPreviousStatus(),
+                event.getDueDateTime());
+    }
+}
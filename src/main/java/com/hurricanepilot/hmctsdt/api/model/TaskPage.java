@@ -0,0 +1,29 @@
+package com.hurricanepilot.hmctsdt.api.model;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.media.Schema.AccessMode;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+@Data
+@RequiredArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "A page of Tasks, ordered by due date/time and then ID - or, when syncing changes, by last modified time and then ID")
+public class TaskPage {
+    // written in the shape of a Task by TaskEntitySerializer, without copying
+    @ArraySchema(arraySchema = @Schema(description = "The Tasks in this page", accessMode = AccessMode.READ_ONLY), schema = @Schema(implementation = Task.class))
+    private final List<TaskEntity> tasks;
+    @Schema(description = "Opaque cursor to pass as the 'after' parameter to retrieve the next page - absent on the last page", accessMode = AccessMode.READ_ONLY)
+    private final String nextCursor;
+    @Schema(description = "When syncing changes, the IDs of the Tasks deleted since the given time - last page only", accessMode = AccessMode.READ_ONLY)
+    private List<Long> deleted;
+    @Schema(description = "When syncing changes, the time to pass as the 'since' parameter on the next sync - last page only", accessMode = AccessMode.READ_ONLY)
+    private Instant syncedTo;
+}
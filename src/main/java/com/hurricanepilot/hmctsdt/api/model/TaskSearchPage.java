@@ -0,0 +1,26 @@
+package com.hurricanepilot.hmctsdt.api.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.media.Schema.AccessMode;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+@Data
+@RequiredArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "A page of the Tasks matching a search, best match first")
+public class TaskSearchPage {
+    // written in the shape of a Task by TaskEntitySerializer, without copying
+    @ArraySchema(arraySchema = @Schema(description = "The Tasks in this page", accessMode = AccessMode.READ_ONLY), schema = @Schema(implementation = Task.class))
+    private final List<TaskEntity> tasks;
+    @Schema(description = "The total number of Tasks matching the search", accessMode = AccessMode.READ_ONLY)
+    private final int total;
+    @Schema(description = "The offset to pass to retrieve the next page - absent on the last page", accessMode = AccessMode.READ_ONLY)
+    private final Integer nextOffset;
+}
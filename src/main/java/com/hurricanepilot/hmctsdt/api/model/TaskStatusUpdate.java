@@ -0,0 +1,44 @@
+package com.hurricanepilot.hmctsdt.api.model;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.hurricanepilot.hmctsdt.constants.Status;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.media.Schema.RequiredMode;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+@Data
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Moves a set of Tasks, selected either by ID or by filter, to a new status")
+public class TaskStatusUpdate {
+
+    @Schema(description = "The IDs of the Tasks to update - must not be combined with a filter", requiredMode = RequiredMode.NOT_REQUIRED)
+    private List<Long> ids;
+    @Schema(description = "Criteria selecting the Tasks to update - must not be combined with IDs", requiredMode = RequiredMode.NOT_REQUIRED)
+    private Filter filter;
+    @NotNull(message = "Status must be specified")
+    @Schema(description = "The new status for the selected Tasks", requiredMode = RequiredMode.REQUIRED)
+    private Status status;
+
+    @Data
+    @Builder
+    @Jacksonized
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Criteria selecting Tasks - any criteria not specified are ignored")
+    public static class Filter {
+        @Schema(description = "Only select Tasks with this status", requiredMode = RequiredMode.NOT_REQUIRED)
+        private Status status;
+        @Schema(description = "Only select Tasks due at or after this date/time", requiredMode = RequiredMode.NOT_REQUIRED)
+        private ZonedDateTime dueFrom;
+        @Schema(description = "Only select Tasks due before this date/time", requiredMode = RequiredMode.NOT_REQUIRED)
+        private ZonedDateTime dueTo;
+    }
+}
@@ -0,0 +1,18 @@
+package com.hurricanepilot.hmctsdt.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.media.Schema.AccessMode;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+@Data
+@RequiredArgsConstructor
+@Schema(description = "The outcome of moving a set of Tasks to a new status")
+public class TaskStatusUpdateResult {
+    @Schema(description = "The number of Tasks moved to the new status", accessMode = AccessMode.READ_ONLY)
+    private final long updated;
+    @Schema(description = "The number of Tasks that could not be moved to the new status, e.g. back to NEW", accessMode = AccessMode.READ_ONLY)
+    private final long rejected;
+    @Schema(description = "The number of requested IDs for which no Task exists", accessMode = AccessMode.READ_ONLY)
+    private final long missing;
+}
@@ -0,0 +1,22 @@
+package com.hurricanepilot.hmctsdt.api.model;
+
+import java.util.Map;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.media.Schema.AccessMode;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+@Data
+@RequiredArgsConstructor
+@Schema(description = "The number of Tasks in each status, for dashboards")
+public class TaskSummary {
+    @Schema(description = "The number of Tasks in each status", example = "{\"NEW\": 12, \"IN_PROGRESS\": 4, \"DEFERRED\": 1, \"COMPLETED\": 30}", accessMode = AccessMode.READ_ONLY)
+    private final Map<Status, Long> byStatus;
+    @Schema(description = "The total number of Tasks", example = "47", accessMode = AccessMode.READ_ONLY)
+    private final long total;
+    @Schema(description = "The number of Tasks yet to be completed whose due date/time has passed", example = "3", accessMode = AccessMode.READ_ONLY)
+    private final long overdue;
+}
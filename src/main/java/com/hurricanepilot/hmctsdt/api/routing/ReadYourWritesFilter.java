@@ -0,0 +1,72 @@
+package com.hurricanepilot.hmctsdt.api.routing;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hurricanepilot.hmctsdt.api.admission.ClientIdentity;
+import com.hurricanepilot.hmctsdt.persistence.replica.ReplicaRoutingDataSource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sends the reads made for a client that has written within the stickiness
+ * window to the primary, so it sees its own writes even while they are yet
+ * to reach the replicas. Other clients' reads are unaffected.
+ * <p>
+ * Clients are identified in the same way as by admission control, by a
+ * {@link ClientIdentity}. Only
+ * reads made on the request thread are covered, so a streamed export may
+ * still be served by a replica. Those reads also skip the Task cache and
+ * don't share reads in progress for other requests, either of which may
+ * hold a Task read from a replica.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ClientIdentity clientIdentity;
+
+    // the System.nanoTime() of each client's most recent write
+    private final Cache<String, Long> lastWrites;
+
+    private final long windowNanos;
+
+    /**
+     * @param window       how long after a write a client's reads go to the
+     *                     primary, which should exceed the replicas' lag
+     * @param maxClients   the number of recently writing clients tracked at once
+     * @param clientIdentity how the client a request is from is identified
+     */
+    public ReadYourWritesFilter(Duration window, long maxClients, ClientIdentity clientIdentity) {
+        this.windowNanos = window.toNanos();
+        this.clientIdentity = clientIdentity;
+        this.lastWrites = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var client = clientIdentity.of(request);
+        var lastWrite = lastWrites.getIfPresent(client);
+        var sticky = lastWrite != null && System.nanoTime() - lastWrite < windowNanos;
+        ReplicaRoutingDataSource.requirePrimary(sticky);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.requirePrimary(false);
+            // timed from the end of the write, once it has committed
+            if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+                lastWrites.put(client, System.nanoTime());
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.hurricanepilot.hmctsdt.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hurricanepilot.hmctsdt.api.admission.AdmissionControlFilter;
+import com.hurricanepilot.hmctsdt.api.admission.ClientIdentity;
+import com.hurricanepilot.hmctsdt.api.admission.ClientRateLimiter;
+import com.hurricanepilot.hmctsdt.api.admission.EndpointClass;
+import com.hurricanepilot.hmctsdt.api.admission.LoadMonitor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Puts the {@link AdmissionControlFilter} in front of the Task endpoints,
+ * ahead of every other filter so that rejected requests cost as little as
+ * possible. Disabled by setting {@code hmcts.admission.enabled=false}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "hmcts.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfiguration {
+
+    @Bean
+    public ClientRateLimiter clientRateLimiter(
+            @Value("${hmcts.admission.rate:20}") double ratePerSecond,
+            @Value("${hmcts.admission.burst:40}") int burst,
+            @Value("${hmcts.admission.max-clients:100000}") long maxClients) {
+        return new ClientRateLimiter(ratePerSecond, burst, maxClients);
+    }
+
+    @Bean
+    public LoadMonitor loadMonitor(MeterRegistry meterRegistry,
+            @Value("${hmcts.admission.shed.latency:500ms}") Duration latencyThreshold,
+            @Value("${hmcts.admission.shed.pool-wait:100ms}") Duration poolWaitThreshold,
+            @Value("${hmcts.admission.shed.interval:1s}") Duration interval) {
+        return new LoadMonitor(meterRegistry, latencyThreshold, poolWaitThreshold, interval);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(ClientRateLimiter clientRateLimiter,
+            LoadMonitor loadMonitor, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${hmcts.admission.concurrency.list:16}") int listLimit,
+            @Value("${hmcts.admission.concurrency.read:64}") int readLimit,
+            @Value("${hmcts.admission.concurrency.write:32}") int writeLimit,
+            @Value("${hmcts.admission.client-header:}") String clientHeader,
+            @Value("${hmcts.admission.trusted-proxies:}") List<String> trustedProxies) {
+        var limits = Map.of(EndpointClass.LIST, listLimit, EndpointClass.READ, readLimit,
+                EndpointClass.WRITE, writeLimit);
+        var registration = new FilterRegistrationBean<>(new AdmissionControlFilter(
+                clientRateLimiter, loadMonitor, limits, new ClientIdentity(clientHeader, trustedProxies), objectMapper, meterRegistry));
+        registration.addUrlPatterns("/tasks", "/tasks/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,16 @@
+package com.hurricanepilot.hmctsdt.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Enables the caching annotations. The caching advice is ordered ahead of the
+ * transaction advice (which uses the lowest precedence) so that a cache entry
+ * is only evicted once the change that invalidated it has been committed,
+ * rather than leaving a window where the old value can be re-cached.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfiguration {
+}
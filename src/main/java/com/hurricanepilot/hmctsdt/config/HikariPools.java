@@ -0,0 +1,40 @@
+package com.hurricanepilot.hmctsdt.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Creates pools for further databases configured like the application's own.
+ */
+final class HikariPools {
+
+    private HikariPools() {
+    }
+
+    /**
+     * A pool for the given database with the template's driver, credentials,
+     * sizing and timeout. The template has been bound to the
+     * {@code spring.datasource} properties but not yet validated, so settings
+     * left to Hikari's defaults still hold the values it uses to mean "unset",
+     * and are left unset here too.
+     */
+    static HikariDataSource like(HikariDataSource template, String poolName, String jdbcUrl,
+            MeterRegistry meterRegistry) {
+        var pool = new HikariDataSource();
+        pool.setPoolName(poolName);
+        pool.setJdbcUrl(jdbcUrl);
+        pool.setDriverClassName(template.getDriverClassName());
+        pool.setUsername(template.getUsername());
+        pool.setPassword(template.getPassword());
+        if (template.getMaximumPoolSize() >= 1) {
+            pool.setMaximumPoolSize(template.getMaximumPoolSize());
+        }
+        if (template.getMinimumIdle() >= 0) {
+            pool.setMinimumIdle(template.getMinimumIdle());
+        }
+        pool.setConnectionTimeout(template.getConnectionTimeout());
+        pool.setMetricRegistry(meterRegistry);
+        return pool;
+    }
+}
@@ -0,0 +1,48 @@
+package com.hurricanepilot.hmctsdt.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.service.TaskJournal;
+import com.hurricanepilot.hmctsdt.service.TaskStatusCounts;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfiguration {
+
+    /** The gauge reporting the number of Tasks, tagged by status */
+    public static final String TASK_COUNT_GAUGE = "tasks.count";
+
+    /** The gauge reporting the number of change events missing from the journal */
+    public static final String JOURNAL_LOST_GAUGE = "tasks.journal.lost";
+
+    /**
+     * Reports the number of Tasks in each status, from the counts held in
+     * memory, so a scrape doesn't query the database.
+     */
+    @Bean
+    public MeterBinder taskStatusMetrics(TaskStatusCounts taskStatusCounts) {
+        return registry -> {
+            for (var status : Status.values()) {
+                Gauge.builder(TASK_COUNT_GAUGE, taskStatusCounts, c -> c.get(status))
+                        .description("The number of Tasks in each status")
+                        .tag("status", status.name())
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * Reports the number of Task change events that failed to be written to
+     * the journal - anything above zero means the journal is incomplete.
+     */
+    @Bean
+    public MeterBinder taskJournalMetrics(TaskJournal taskJournal) {
+        return registry -> Gauge.builder(JOURNAL_LOST_GAUGE, taskJournal, TaskJournal::getLostCount)
+                .description("The number of Task change events that failed to be written to the journal")
+                .register(registry);
+    }
+}
@@ -0,0 +1,104 @@
+package com.hurricanepilot.hmctsdt.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
+
+import com.hurricanepilot.hmctsdt.api.admission.ClientIdentity;
+import com.hurricanepilot.hmctsdt.api.routing.ReadYourWritesFilter;
+import com.hurricanepilot.hmctsdt.persistence.replica.DelayedCacheEviction;
+import com.hurricanepilot.hmctsdt.persistence.replica.ReplicaRoutingDataSource;
+import com.hurricanepilot.hmctsdt.persistence.replica.ReplicationStandIn;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sends read-only transactions to read replicas, when
+ * {@code hmcts.replicas.enabled=true}.
+ * <p>
+ * The primary pool is built from the usual {@code spring.datasource}
+ * properties, and each replica pool takes its size and credentials but
+ * points at one of the {@code hmcts.replicas.urls}. The application's {@link DataSource} is a
+ * {@link LazyConnectionDataSourceProxy} over the primary, which only takes a
+ * connection once a statement is run - by which point it knows whether the
+ * transaction is read-only, and if so takes it from the
+ * {@link ReplicaRoutingDataSource} instead.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "hmcts.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        var dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+            MeterRegistry meterRegistry, @Value("${hmcts.replicas.urls}") List<String> urls) {
+        var replicas = new LinkedHashMap<String, DataSource>();
+        for (int i = 0; i < urls.size(); i++) {
+            var replica = HikariPools.like(primaryDataSource, "replica-" + (i + 1), urls.get(i), meterRegistry);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+            ReplicaRoutingDataSource replicaRoutingDataSource) {
+        var dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${hmcts.replicas.read-your-writes:2s}") Duration window,
+            @Value("${hmcts.admission.max-clients:100000}") long maxClients,
+            @Value("${hmcts.admission.client-header:}") String clientHeader,
+            @Value("${hmcts.admission.trusted-proxies:}") List<String> trustedProxies) {
+        var registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(window, maxClients,
+                new ClientIdentity(clientHeader, trustedProxies)));
+        registration.addUrlPatterns("/tasks", "/tasks/*");
+        // just behind admission control
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Bean
+    public DelayedCacheEviction delayedCacheEviction(CacheManager cacheManager, TaskScheduler taskScheduler,
+            @Value("${hmcts.replicas.read-your-writes:2s}") Duration window) {
+        return new DelayedCacheEviction(cacheManager, taskScheduler, window);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "hmcts.replicas.stand-in.enabled", havingValue = "true")
+    public ReplicationStandIn replicationStandIn(HikariDataSource primaryDataSource,
+            ReplicaRoutingDataSource replicaRoutingDataSource,
+            @Value("${hmcts.replicas.stand-in.lag:100ms}") Duration lag) {
+        return new ReplicationStandIn(primaryDataSource,
+                new ArrayList<>(replicaRoutingDataSource.getReplicas().values()), lag);
+    }
+}
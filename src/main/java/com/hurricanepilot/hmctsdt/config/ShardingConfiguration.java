@@ -0,0 +1,97 @@
+package com.hurricanepilot.hmctsdt.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.persistence.shard.ShardRoutingDataSource;
+import com.hurricanepilot.hmctsdt.persistence.shard.TaskShardRebalancer;
+import com.hurricanepilot.hmctsdt.persistence.shard.TaskShards;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Partitions the Tasks across several databases by ID range, when
+ * {@code hmcts.shards.enabled=true} - see {@link TaskShards}.
+ * <p>
+ * The home database is configured by the usual {@code spring.datasource}
+ * properties, and holds the change journal and idempotency keys as well as
+ * its share of the Tasks. Each of the {@code hmcts.shards.urls} is another
+ * database, whose pool takes its size and credentials from the home
+ * database's, and whose schema is migrated by Flyway at startup. The
+ * application's {@link DataSource} routes each connection to the database of
+ * the shard being worked on.
+ * <p>
+ * Otherwise there is a single shard, and nothing is routed.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ShardingConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "hmcts.shards.enabled", havingValue = "false", matchIfMissing = true)
+    public TaskShards singleTaskShard() {
+        return TaskShards.single();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "hmcts.shards.enabled", havingValue = "true")
+    public TaskShards taskShards(@Value("${hmcts.shards.urls:}") List<String> urls,
+            @Value("${hmcts.shards.count:0}") int count,
+            @Value("${hmcts.replicas.enabled:false}") boolean replicasEnabled) {
+        if (replicasEnabled) {
+            throw new IllegalStateException("Sharding can't be combined with read replicas");
+        }
+        var databases = urls.size() + 1;
+        return new TaskShards(count > 0 ? count : databases, databases);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "hmcts.shards.enabled", havingValue = "true")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource homeDataSource(DataSourceProperties properties) {
+        var dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("shard-db-0");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "hmcts.shards.enabled", havingValue = "true")
+    public ShardRoutingDataSource dataSource(HikariDataSource homeDataSource, MeterRegistry meterRegistry,
+            @Value("${hmcts.shards.urls:}") List<String> urls) {
+        var databases = new ArrayList<DataSource>();
+        databases.add(homeDataSource);
+        for (int i = 0; i < urls.size(); i++) {
+            var database = HikariPools.like(homeDataSource, "shard-db-" + (i + 1), urls.get(i), meterRegistry);
+            // the home database is migrated by Spring Boot's own Flyway run
+            Flyway.configure().dataSource(database).locations("classpath:db/migration").load().migrate();
+            databases.add(database);
+        }
+        return new ShardRoutingDataSource(databases);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "hmcts.shards.enabled", havingValue = "true")
+    public TaskShardRebalancer taskShardRebalancer(TaskShards taskShards, JdbcTemplate jdbcTemplate) {
+        return new TaskShardRebalancer(taskShards, jdbcTemplate, TaskEntity.ID_ALLOCATION_SIZE);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "hmcts.shards.enabled", havingValue = "true")
+    public TaskShardsEndpoint taskShardsEndpoint(TaskShardRebalancer taskShardRebalancer) {
+        return new TaskShardsEndpoint(taskShardRebalancer);
+    }
+}
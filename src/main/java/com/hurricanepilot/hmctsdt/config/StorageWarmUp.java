@@ -0,0 +1,44 @@
+package com.hurricanepilot.hmctsdt.config;
+
+import java.util.List;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads the Task indexes end to end at startup so their pages are already in
+ * H2's cache when the first requests arrive, rather than being faulted in from
+ * disk by them. Runners complete before the application reports itself ready,
+ * so no traffic is routed to it until the warm-up has finished.
+ * <p>
+ * Only useful with file-backed storage, see the {@code persistent} profile.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "hmcts.h2.warm-up", havingValue = "true")
+@RequiredArgsConstructor
+public class StorageWarmUp implements ApplicationRunner {
+
+    // the secondary indexes created by the migrations. Each query only needs
+    // the columns held in the index, so H2 walks the index without touching
+    // the table's data pages
+    private static final List<String> INDEXES = List.of("idx_task_status_due", "idx_task_due");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        var started = System.nanoTime();
+        for (var index : INDEXES) {
+            jdbcTemplate.queryForObject("select sum(id) from task use index (" + index + ")", Long.class);
+        }
+        var rows = jdbcTemplate.queryForObject("select count(*) from task", Long.class);
+        log.info("Warmed up Task indexes over {} rows in {}ms", rows, (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,29 @@
+package com.hurricanepilot.hmctsdt.config;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import com.hurricanepilot.hmctsdt.service.TaskJournal;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Rebuilds the task table from the change journal, e.g. after restoring the
+ * journal alone from a backup. Exposed over JMX only by default, as anyone
+ * able to call it can replace every Task.
+ */
+@Component
+@Endpoint(id = "taskjournal")
+@RequiredArgsConstructor
+public class TaskJournalEndpoint {
+
+    private final TaskJournal taskJournal;
+
+    @WriteOperation
+    public Map<String, Integer> rebuild() {
+        return Map.of("restored", taskJournal.rebuild());
+    }
+}
@@ -0,0 +1,33 @@
+package com.hurricanepilot.hmctsdt.config;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import com.hurricanepilot.hmctsdt.persistence.shard.TaskShardRebalancer;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Lists which database holds each shard, and moves shards between databases,
+ * when sharding is enabled. Exposed over JMX only by default, as a move
+ * pauses all other Task work until it finishes.
+ */
+@Endpoint(id = "taskshards")
+@RequiredArgsConstructor
+public class TaskShardsEndpoint {
+
+    private final TaskShardRebalancer rebalancer;
+
+    @ReadOperation
+    public Map<Integer, Integer> assignment() {
+        return rebalancer.getAssignment();
+    }
+
+    @WriteOperation
+    public Map<String, Integer> move(int shard, int database) {
+        return Map.of("moved", rebalancer.move(shard, database));
+    }
+}
@@ -0,0 +1,111 @@
+package com.hurricanepilot.hmctsdt.config;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Watches for virtual threads pinning their carrier thread - typically by
+ * blocking inside a synchronized block, as some JDBC drivers do - using the
+ * JFR {@code jdk.VirtualThreadPinned} event. Each distinct pinning location is
+ * logged once, with its stack trace, so hazards are visible without flooding
+ * the log.
+ * <p>
+ * At startup the database path is exercised from a virtual thread so any
+ * pinning in the driver is reported straight away rather than under load.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int REPORTED_FRAMES = 12;
+
+    private final DataSource dataSource;
+
+    private final Duration threshold;
+
+    private final Set<String> reportedLocations = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(DataSource dataSource,
+            @Value("${hmcts.virtual-threads.pinning-threshold:20ms}") Duration threshold) {
+        this.dataSource = dataSource;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+        log.info("Monitoring virtual thread pinning longer than {}", threshold);
+    }
+
+    @Override
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void probe() throws InterruptedException {
+        var jdbc = new JdbcTemplate(dataSource);
+        var probe = Thread.ofVirtual().name("pinning-probe").start(() -> {
+            try {
+                jdbc.queryForObject("select count(*) from task", Long.class);
+            } catch (RuntimeException e) {
+                log.warn("Virtual thread pinning probe failed", e);
+            }
+        });
+        probe.join();
+    }
+
+    private void report(RecordedEvent event) {
+        var stackTrace = event.getStackTrace();
+        var frames = stackTrace == null ? "<no stack trace>"
+                : stackTrace.getFrames().stream()
+                        .limit(REPORTED_FRAMES)
+                        .map(VirtualThreadPinningMonitor::describe)
+                        .collect(Collectors.joining("\n\tat ", "\tat ", ""));
+
+        if (reportedLocations.add(frames)) {
+            log.warn("Virtual thread pinned its carrier thread for {} in {}:\n{}",
+                    event.getDuration(), event.getThread() == null ? "<unknown>" : event.getThread().getJavaName(),
+                    frames);
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        var method = frame.getMethod();
+        return method.getType().getName() + "." + method.getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,60 @@
+package com.hurricanepilot.hmctsdt.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.hurricanepilot.hmctsdt.api.converter.CompactDateTimeModule;
+import com.hurricanepilot.hmctsdt.api.converter.TaskProtobufHttpMessageConverter;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Offers Smile, CBOR and Protocol Buffers as alternatives to JSON, selected by
+ * the request's Accept header. The binary converters are added after the JSON
+ * one, so JSON remains the default for clients that accept anything.
+ * <p>
+ * Spring MVC registers its own Smile and CBOR converters when the libraries
+ * are present, configured independently of the application's ObjectMapper.
+ * They are replaced with ones built from the application's Jackson settings,
+ * plus {@link CompactDateTimeModule}.
+ */
+@Configuration(proxyBeanMethods = false)
+@RequiredArgsConstructor
+public class WireFormatConfiguration implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+
+        // back references to repeated strings - status names and zone IDs -
+        // make up for Smile not having enums
+        var smileFactory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        converters.add(new MappingJackson2SmileHttpMessageConverter(binaryObjectMapper(smileFactory)));
+        converters.add(new MappingJackson2CborHttpMessageConverter(binaryObjectMapper(new CBORFactory())));
+        converters.add(new TaskProtobufHttpMessageConverter());
+    }
+
+    private ObjectMapper binaryObjectMapper(JsonFactory factory) {
+        return objectMapperBuilders.getObject()
+                .factory(factory)
+                .build()
+                .registerModule(new CompactDateTimeModule());
+    }
+}
@@ -0,0 +1,10 @@
+package com.hurricanepilot.hmctsdt.constants;
+
+public enum TaskChangeType {
+    /** The Task was created */
+    CREATED,
+    /** The Task was moved to a new status */
+    STATUS_CHANGED,
+    /** The Task was deleted */
+    DELETED;
+}
@@ -0,0 +1,47 @@
+package com.hurricanepilot.hmctsdt.persistence.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+
+/**
+ * Records the Task created for an {@code Idempotency-Key}, so that a retried
+ * creation can be answered with the original Task rather than a duplicate.
+ */
+@Entity
+@Immutable
+@Table(name = "idempotency_key")
+@Getter
+public class IdempotencyKeyEntity implements Serializable {
+
+    @Id
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private Long taskId;
+
+    // identifies the request the key was first used with
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    protected IdempotencyKeyEntity() {
+        /* required by JPA */
+    }
+
+    public IdempotencyKeyEntity(String idempotencyKey, Long taskId, String fingerprint, Instant createdAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.taskId = taskId;
+        this.fingerprint = fingerprint;
+        this.createdAt = createdAt;
+    }
+}
@@ -1,29 +1,43 @@
 package com.hurricanepilot.hmctsdt.persistence.entity;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 
 import org.hibernate.annotations.TimeZoneStorage;
 import org.hibernate.annotations.TimeZoneStorageType;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.shard.ShardedSequence;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
-@Table(name = "task")
+// the schema, including these indexes, is created by the Flyway migrations
+@Table(name = "task", indexes = {
+        @Index(name = "idx_task_status_due", columnList = "status, due_date_time"),
+        @Index(name = "idx_task_due", columnList = "due_date_time, id"),
+        @Index(name = "idx_task_modified", columnList = "last_modified, id")
+})
 @Getter
 @Setter
 public class TaskEntity implements Serializable {
 
+    /** The number of IDs reserved by each call to the task_seq sequence */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // IDs are handed out in blocks so inserting a batch of Tasks doesn't cost
+    // a sequence call per row, and embed the shard the Task is created on
     @Id
-    @GeneratedValue
+    @ShardedSequence(sequenceName = "task_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false, length = 80)
@@ -39,6 +53,18 @@ public class TaskEntity implements Serializable {
     @Column(nullable = false)
     private ZonedDateTime dueDateTime;
 
+    // incremented on every update, so concurrent updates can be detected
+    // and the version can be used as the Task's ETag
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // set whenever the Task is inserted or updated, so clients can sync just
+    // the Tasks changed since they last looked
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private Instant lastModified;
+
     protected TaskEntity() {
         /* required by JPA */
     }
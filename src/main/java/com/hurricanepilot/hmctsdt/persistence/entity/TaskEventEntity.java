@@ -0,0 +1,81 @@
+package com.hurricanepilot.hmctsdt.persistence.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.TimeZoneStorage;
+import org.hibernate.annotations.TimeZoneStorageType;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.constants.TaskChangeType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+
+/**
+ * An entry in the append-only Task change journal. Entries are only ever
+ * inserted, and the ID gives the order in which they were recorded.
+ */
+@Entity
+@Immutable
+@Table(name = "task_event")
+@Getter
+public class TaskEventEntity implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_event_seq")
+    @SequenceGenerator(name = "task_event_seq", sequenceName = "task_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long taskId;
+
+    @Column(nullable = false)
+    private TaskChangeType type;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    @Column(nullable = false, length = 80)
+    private String title;
+
+    @Column(length = 2000)
+    private String description;
+
+    @Column(nullable = false)
+    private Status status;
+
+    private Status previousStatus;
+
+    @TimeZoneStorage(TimeZoneStorageType.NORMALIZE_UTC)
+    @Column(nullable = false)
+    private ZonedDateTime dueDateTime;
+
+    @Column(nullable = false)
+    private long version;
+
+    protected TaskEventEntity() {
+        /* required by JPA */
+    }
+
+    public TaskEventEntity(Long taskId, TaskChangeType type, Instant occurredAt, String title, String description,
+            Status status, Status previousStatus, ZonedDateTime dueDateTime, long version) {
+        this.taskId = taskId;
+        this.type = type;
+        this.occurredAt = occurredAt;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.previousStatus = previousStatus;
+        this.dueDateTime = dueDateTime;
+        this.version = version;
+    }
+}
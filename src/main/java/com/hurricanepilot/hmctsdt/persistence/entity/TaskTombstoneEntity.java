@@ -0,0 +1,38 @@
+package com.hurricanepilot.hmctsdt.persistence.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+
+/**
+ * Records that a Task has been deleted, so that clients syncing changes can
+ * be told to remove it.
+ */
+@Entity
+@Immutable
+@Table(name = "task_tombstone")
+@Getter
+public class TaskTombstoneEntity implements Serializable {
+
+    @Id
+    private Long taskId;
+
+    @Column(nullable = false)
+    private Instant deletedAt;
+
+    protected TaskTombstoneEntity() {
+        /* required by JPA */
+    }
+
+    public TaskTombstoneEntity(Long taskId, Instant deletedAt) {
+        this.taskId = taskId;
+        this.deletedAt = deletedAt;
+    }
+}
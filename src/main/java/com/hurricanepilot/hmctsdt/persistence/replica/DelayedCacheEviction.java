@@ -0,0 +1,40 @@
+package com.hurricanepilot.hmctsdt.persistence.replica;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hurricanepilot.hmctsdt.service.TaskChangeEvent;
+import com.hurricanepilot.hmctsdt.service.TaskService;
+
+/**
+ * Evicts each changed Task from the Task cache a second time, once the
+ * replicas should have caught up with the change. A lookup made just after
+ * the change may have been served by a replica that had yet to apply it, and
+ * cached the old Task; this stops that lasting until the entry expires.
+ */
+public class DelayedCacheEviction {
+
+    private final CacheManager cacheManager;
+
+    private final TaskScheduler taskScheduler;
+
+    private final Duration delay;
+
+    public DelayedCacheEviction(CacheManager cacheManager, TaskScheduler taskScheduler, Duration delay) {
+        this.cacheManager = cacheManager;
+        this.taskScheduler = taskScheduler;
+        this.delay = delay;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void changed(TaskChangeEvent event) {
+        var cache = cacheManager.getCache(TaskService.TASK_CACHE);
+        if (cache != null) {
+            taskScheduler.schedule(() -> cache.evict(event.getTaskId()), Instant.now().plus(delay));
+        }
+    }
+}
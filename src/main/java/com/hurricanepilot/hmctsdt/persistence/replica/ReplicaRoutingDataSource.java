@@ -0,0 +1,168 @@
+package com.hurricanepilot.hmctsdt.persistence.replica;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands out connections for read-only work, round-robin across the healthy
+ * replicas. It is used as the read-only data source of a
+ * {@link LazyConnectionDataSourceProxy} in front of the primary, so a
+ * {@code @Transactional(readOnly = true)} transaction (including those of
+ * Spring Data's own read methods) is served by a replica, and everything else
+ * by the primary.
+ * <p>
+ * A replica that fails to hand out a connection is marked unhealthy and
+ * skipped until a health check finds it working again. With no healthy
+ * replica, or while the current thread {@linkplain #requirePrimary requires
+ * the primary}, reads go to the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    /** The number of read-only connections handed out, tagged by target */
+    public static final String READS_COUNTER = "tasks.datasource.reads";
+
+    /** The number of replicas currently considered healthy */
+    public static final String HEALTHY_GAUGE = "tasks.datasource.replicas.healthy";
+
+    private static final String PRIMARY = "primary";
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter primaryReads;
+
+    /**
+     * @param primary  the data source written to
+     * @param replicas the replica data sources, by name
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+            MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream()
+                .map(replica -> new Replica(replica.getKey(), replica.getValue(),
+                        readsCounter(meterRegistry, replica.getKey())))
+                .toList();
+        this.primaryReads = readsCounter(meterRegistry, PRIMARY);
+        Gauge.builder(HEALTHY_GAUGE, this, r -> r.replicas.stream().filter(replica -> replica.healthy).count())
+                .description("The number of read replicas currently considered healthy")
+                .register(meterRegistry);
+    }
+
+    private static Counter readsCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder(READS_COUNTER)
+                .description("The number of read-only connections handed out")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends the current thread's reads to the primary, e.g. so a client sees
+     * its own recent writes before they reach the replicas, until cleared.
+     */
+    public static void requirePrimary(boolean required) {
+        if (required) {
+            PRIMARY_REQUIRED.set(Boolean.TRUE);
+        } else {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        var byName = new LinkedHashMap<String, DataSource>();
+        replicas.forEach(replica -> byName.put(replica.name, replica.dataSource));
+        return byName;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!isPrimaryRequired()) {
+            var start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+            for (int i = 0; i < replicas.size(); i++) {
+                var replica = replicas.get((start + i) % replicas.size());
+                if (replica.healthy) {
+                    try {
+                        var connection = replica.dataSource.getConnection();
+                        replica.reads.increment();
+                        return connection;
+                    } catch (SQLException e) {
+                        replica.healthy = false;
+                        log.warn("Read replica {} is unavailable, skipping it until it recovers: {}",
+                                replica.name, e.getMessage());
+                    }
+                }
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Connections are only available with the configured credentials");
+    }
+
+    /**
+     * Checks that every replica can hand out a working connection, marking it
+     * healthy or unhealthy accordingly.
+     */
+    @Scheduled(initialDelayString = "${hmcts.replicas.health-check-interval:PT5S}",
+            fixedDelayString = "${hmcts.replicas.health-check-interval:PT5S}")
+    public void checkHealth() {
+        for (var replica : replicas) {
+            var healthy = false;
+            try (var connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                log.debug("Read replica {} failed its health check", replica.name, e);
+            }
+            if (healthy != replica.healthy) {
+                log.info("Read replica {} is now {}", replica.name, healthy ? "healthy" : "unhealthy");
+                replica.healthy = healthy;
+            }
+        }
+    }
+
+    private static class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private final Counter reads;
+
+        private volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource, Counter reads) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.reads = reads;
+        }
+    }
+}
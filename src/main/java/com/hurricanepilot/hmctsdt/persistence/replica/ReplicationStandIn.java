@@ -0,0 +1,143 @@
+package com.hurricanepilot.hmctsdt.persistence.replica;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hurricanepilot.hmctsdt.service.TaskChangeEvent;
+import com.hurricanepilot.hmctsdt.service.TaskTableRebuiltEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps local replica databases in step with the primary, so replica routing
+ * can be tried without a real replicated database. Not for production use.
+ * <p>
+ * Each replica is given the schema by the Flyway migrations, and the task and
+ * task_tombstone tables are copied from the primary at startup. From then on
+ * each committed {@link TaskChangeEvent} is applied to every replica by a
+ * single background thread, in commit order, after the configured lag - so
+ * reads from the replicas can be seen to trail the writes, as they would with
+ * asynchronous replication. Other tables (the change journal and idempotency
+ * keys) are only read from the primary, so are not copied.
+ */
+@Slf4j
+public class ReplicationStandIn implements ApplicationRunner, DisposableBean {
+
+    private static final String UPSERT_TASK = """
+            merge into task (id, title, description, status, due_date_time, version, last_modified)
+            key (id) values (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPSERT_TOMBSTONE = "merge into task_tombstone (task_id, deleted_at) key (task_id) values (?, ?)";
+
+    private static final int COPY_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate primary;
+
+    private final List<JdbcTemplate> replicas;
+
+    private final Duration lag;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("replication-stand-in").daemon().factory());
+
+    public ReplicationStandIn(DataSource primary, List<DataSource> replicas, Duration lag) {
+        this.primary = new JdbcTemplate(primary);
+        this.replicas = replicas.stream().map(JdbcTemplate::new).toList();
+        this.lag = lag;
+        for (var replica : replicas) {
+            Flyway.configure().dataSource(replica).locations("classpath:db/migration").load().migrate();
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // queued ahead of any change, which is then applied on top of the copy
+        executor.execute(this::copyAll);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void changed(TaskChangeEvent event) {
+        executor.schedule(() -> apply(event), lag.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void rebuilt(TaskTableRebuiltEvent event) {
+        executor.schedule(this::copyAll, lag.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void apply(TaskChangeEvent event) {
+        var at = Timestamp.from(event.getOccurredAt());
+        for (var replica : replicas) {
+            try {
+                switch (event.getType()) {
+                    case CREATED -> replica.update(UPSERT_TASK, event.getTaskId(), event.getTitle(),
+                            event.getDescription(), event.getStatus().ordinal(),
+                            event.getDueDateTime().withZoneSameInstant(ZoneOffset.UTC).toOffsetDateTime(),
+                            event.getVersion(), at);
+                    case STATUS_CHANGED -> replica.update(
+                            "update task set status = ?, version = ?, last_modified = ? where id = ?",
+                            event.getStatus().ordinal(), event.getVersion(), at, event.getTaskId());
+                    case DELETED -> {
+                        replica.update("delete from task where id = ?", event.getTaskId());
+                        replica.update(UPSERT_TOMBSTONE, event.getTaskId(), at);
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to replicate the {} of Task {}", event.getType(), event.getTaskId(), e);
+            }
+        }
+    }
+
+    private void copyAll() {
+        var started = Instant.now();
+        var tasks = primary.queryForList(
+                "select id, title, description, status, due_date_time, version, last_modified from task");
+        var tombstones = primary.queryForList("select task_id, deleted_at from task_tombstone");
+        for (var replica : replicas) {
+            try {
+                replica.update("delete from task");
+                batches(tasks.stream().map(row -> new Object[] { row.get("ID"), row.get("TITLE"),
+                        row.get("DESCRIPTION"), row.get("STATUS"), row.get("DUE_DATE_TIME"), row.get("VERSION"),
+                        row.get("LAST_MODIFIED") }).toList())
+                        .forEach(batch -> replica.batchUpdate(UPSERT_TASK, batch));
+                batches(tombstones.stream()
+                        .map(row -> new Object[] { row.get("TASK_ID"), row.get("DELETED_AT") }).toList())
+                        .forEach(batch -> replica.batchUpdate(UPSERT_TOMBSTONE, batch));
+            } catch (RuntimeException e) {
+                log.warn("Failed to copy the Tasks to a read replica", e);
+            }
+        }
+        log.info("Copied {} Tasks to {} read replicas in {}ms", tasks.size(), replicas.size(),
+                Duration.between(started, Instant.now()).toMillis());
+    }
+
+    private static List<List<Object[]>> batches(List<Object[]> rows) {
+        var batches = new ArrayList<List<Object[]>>();
+        for (int i = 0; i < rows.size(); i += COPY_BATCH_SIZE) {
+            batches.add(rows.subList(i, Math.min(rows.size(), i + COPY_BATCH_SIZE)));
+        }
+        return batches;
+    }
+}
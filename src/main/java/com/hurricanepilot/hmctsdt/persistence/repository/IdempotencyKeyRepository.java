@@ -0,0 +1,28 @@
+package com.hurricanepilot.hmctsdt.persistence.repository;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import com.hurricanepilot.hmctsdt.persistence.entity.IdempotencyKeyEntity;
+
+public interface IdempotencyKeyRepository extends CrudRepository<IdempotencyKeyEntity, String> {
+
+    /**
+     * Removes the given key if it was recorded before the cutoff, so it can be
+     * used again.
+     */
+    @Modifying
+    @Query("delete from IdempotencyKeyEntity k where k.idempotencyKey = :key and k.createdAt < :cutoff")
+    int deleteExpired(@Param("key") String key, @Param("cutoff") Instant cutoff);
+
+    /**
+     * Removes every key recorded before the cutoff.
+     */
+    @Modifying
+    @Query("delete from IdempotencyKeyEntity k where k.createdAt < :cutoff")
+    int deleteAllExpired(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,29 @@
+package com.hurricanepilot.hmctsdt.persistence.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEventEntity;
+
+import jakarta.persistence.QueryHint;
+
+public interface TaskEventRepository extends CrudRepository<TaskEventEntity, Long> {
+
+    List<TaskEventEntity> findByTaskIdOrderById(Long taskId);
+
+    /**
+     * Streams the whole journal in the order it was recorded. Must be called
+     * within a transaction, and the stream must be closed once consumed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select e from TaskEventEntity e order by e.id")
+    Stream<TaskEventEntity> streamAll();
+}
@@ -1,7 +1,167 @@
 package com.hurricanepilot.hmctsdt.persistence.repository;
 
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import com.hurricanepilot.hmctsdt.constants.Status;
 import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
 
-public interface TaskRepository extends CrudRepository<TaskEntity, Long> { /* magic! */}
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface TaskRepository extends CrudRepository<TaskEntity, Long>, JpaSpecificationExecutor<TaskEntity> {
+
+    /**
+     * Keyset (seek) pagination over Tasks ordered by due date/time and ID. Any
+     * null criteria are ignored, and a null {@code afterDue} returns the first
+     * page. Only the criteria given are put in the query, so it seeks on the
+     * {@code idx_task_due} index from the cursor, or on
+     * {@code idx_task_status_due} when filtered by status.
+     */
+    default List<TaskEntity> findPage(Status status, ZonedDateTime dueFrom, ZonedDateTime dueTo,
+            ZonedDateTime afterDue, Long afterId, int limit) {
+        return findBy(TaskSpecifications.matching(status, dueFrom, dueTo)
+                .and(TaskSpecifications.dueAfter(afterDue, afterId)),
+                query -> query.sortBy(Sort.by("dueDateTime", "id")).limit(limit).all());
+    }
+
+    /**
+     * Keyset pagination over the Tasks created or changed after {@code since},
+     * ordered by last modified time and ID. A null {@code afterModified}
+     * returns the first page. Served by the {@code idx_task_modified} index.
+     */
+    @Query("""
+            select t from TaskEntity t
+            where t.lastModified > :since
+              and (:afterModified is null
+                   or t.lastModified > :afterModified
+                   or (t.lastModified = :afterModified and t.id > :afterId))
+            order by t.lastModified, t.id
+            """)
+    List<TaskEntity> findModifiedSince(@Param("since") Instant since,
+            @Param("afterModified") Instant afterModified,
+            @Param("afterId") Long afterId,
+            Pageable page);
+
+    /**
+     * Streams every Task with an ID in {@code [fromId, toId)} - e.g. a whole
+     * shard - in ID order. The rows are pulled from the database in batches of
+     * the configured fetch size as the stream is consumed, and Hibernate does
+     * not keep dirty-checking snapshots of the loaded entities.
+     * <p>
+     * Must be called within a transaction, and the stream must be closed once
+     * consumed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from TaskEntity t where t.id >= :fromId and t.id < :toId order by t.id")
+    Stream<TaskEntity> streamIdRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * The number of Tasks in each status that has any, as (status, count)
+     * pairs, from a single pass over the {@code idx_task_status_due} index.
+     */
+    @Query("select t.status, count(t) from TaskEntity t group by t.status")
+    List<Object[]> countGroupedByStatus();
+
+    long countByIdIn(Collection<Long> ids);
+
+    long countByIdInAndStatus(Collection<Long> ids, Status status);
+
+    /**
+     * Counts the Tasks matching the given criteria, any of which may be null.
+     * {@code currentStatus} is applied in addition to the {@code status}
+     * criteria so the same filter can be counted with and without it.
+     */
+    default long countMatching(Status status, ZonedDateTime dueFrom, ZonedDateTime dueTo, Status currentStatus) {
+        return count(TaskSpecifications.matching(status, dueFrom, dueTo)
+                .and(TaskSpecifications.hasStatus(currentStatus)));
+    }
+
+    /**
+     * The next batch of Tasks, in ID order after {@code afterId}, that
+     * {@link #updateStatus(Collection, Status, Collection, Instant)} would
+     * change, locked so that they can't change before the update is made.
+     * Read as snapshots, so the Tasks aren't loaded in to the persistence
+     * context.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select new com.hurricanepilot.hmctsdt.persistence.repository.TaskSnapshot(
+                t.id, t.title, t.description, t.status, t.dueDateTime, t.version)
+            from TaskEntity t
+            where t.id in :ids
+              and t.id > :afterId
+              and t.status <> :newStatus
+              and t.status in :permitted
+            order by t.id
+            """)
+    List<TaskSnapshot> findUpdatable(@Param("ids") Collection<Long> ids,
+            @Param("afterId") long afterId,
+            @Param("newStatus") Status newStatus,
+            @Param("permitted") Collection<Status> permitted,
+            Pageable batch);
+
+    /**
+     * As {@link #findUpdatable(Collection, long, Status, Collection, Pageable)},
+     * but for the Tasks matching the given criteria, any of which may be null.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select new com.hurricanepilot.hmctsdt.persistence.repository.TaskSnapshot(
+                t.id, t.title, t.description, t.status, t.dueDateTime, t.version)
+            from TaskEntity t
+            where (:status is null or t.status = :status)
+              and (:dueFrom is null or t.dueDateTime >= :dueFrom)
+              and (:dueTo is null or t.dueDateTime < :dueTo)
+              and t.id > :afterId
+              and t.status <> :newStatus
+              and t.status in :permitted
+            order by t.id
+            """)
+    List<TaskSnapshot> findUpdatableMatching(@Param("status") Status status,
+            @Param("dueFrom") ZonedDateTime dueFrom,
+            @Param("dueTo") ZonedDateTime dueTo,
+            @Param("afterId") long afterId,
+            @Param("newStatus") Status newStatus,
+            @Param("permitted") Collection<Status> permitted,
+            Pageable batch);
+
+    /**
+     * Moves the given Tasks to the new status in a single statement. Only Tasks
+     * currently in one of the {@code permitted} statuses are changed, which
+     * allows the caller to enforce the status transition rules in the query.
+     * Bulk updates bypass Hibernate's timestamping, so the caller supplies the
+     * last modified time.
+     *
+     * @return the number of Tasks changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update TaskEntity t
+            set t.status = :newStatus, t.version = t.version + 1, t.lastModified = :now
+            where t.id in :ids
+              and t.status <> :newStatus
+              and t.status in :permitted
+            """)
+    int updateStatus(@Param("ids") Collection<Long> ids,
+            @Param("newStatus") Status newStatus,
+            @Param("permitted") Collection<Status> permitted,
+            @Param("now") Instant now);
+}
@@ -0,0 +1,21 @@
+package com.hurricanepilot.hmctsdt.persistence.repository;
+
+import java.time.ZonedDateTime;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+
+import lombok.Value;
+
+/**
+ * The fields of a Task carried by its change events, read without loading
+ * the Task as an entity.
+ */
+@Value
+public class TaskSnapshot {
+    Long id;
+    String title;
+    String description;
+    Status status;
+    ZonedDateTime dueDateTime;
+    Long version;
+}
@@ -0,0 +1,52 @@
+package com.hurricanepilot.hmctsdt.persistence.repository;
+
+import java.time.ZonedDateTime;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+
+/**
+ * Criteria for the Task queries whose filters are optional. Absent criteria
+ * are left out of the query altogether, rather than written as
+ * {@code (:param is null or ...)}, which would stop the database from seeking
+ * on the index for the criteria that are present.
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    /**
+     * The Tasks in the given status due within {@code [dueFrom, dueTo)}, any of
+     * which may be null to match every Task.
+     */
+    public static Specification<TaskEntity> matching(Status status, ZonedDateTime dueFrom, ZonedDateTime dueTo) {
+        return Specification.where(hasStatus(status))
+                .and(dueFrom == null ? null : (task, query, cb) -> cb.greaterThanOrEqualTo(task.get("dueDateTime"), dueFrom))
+                .and(dueTo == null ? null : (task, query, cb) -> cb.lessThan(task.get("dueDateTime"), dueTo));
+    }
+
+    /**
+     * The Tasks in the given status, or every Task if it is null.
+     */
+    public static Specification<TaskEntity> hasStatus(Status status) {
+        return status == null ? null : (task, query, cb) -> cb.equal(task.get("status"), status);
+    }
+
+    /**
+     * The Tasks after the given one in due date then ID order, or every Task
+     * if {@code afterDue} is null. The due date bound is stated on its own so
+     * that the database can start the index seek from it.
+     */
+    public static Specification<TaskEntity> dueAfter(ZonedDateTime afterDue, Long afterId) {
+        if (afterDue == null) {
+            return null;
+        }
+        return (task, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(task.get("dueDateTime"), afterDue),
+                cb.or(cb.greaterThan(task.get("dueDateTime"), afterDue),
+                        cb.greaterThan(task.get("id"), afterId)));
+    }
+}
@@ -0,0 +1,13 @@
+package com.hurricanepilot.hmctsdt.persistence.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.repository.CrudRepository;
+
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskTombstoneEntity;
+
+public interface TaskTombstoneRepository extends CrudRepository<TaskTombstoneEntity, Long> {
+
+    List<TaskTombstoneEntity> findByDeletedAtAfter(Instant since);
+}
@@ -0,0 +1,25 @@
+package com.hurricanepilot.hmctsdt.persistence.shard;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method against a single shard, chosen before any
+ * transaction the method has starts - see {@link TaskShardRouting}.
+ */
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface ShardRouted {
+
+    Key value();
+
+    enum Key {
+        /** The shard holding the Task whose ID is the method's first argument */
+        TASK_ID,
+        /** The next shard in turn, for methods that create Tasks */
+        NEW_TASK
+    }
+}
@@ -0,0 +1,42 @@
+package com.hurricanepilot.hmctsdt.persistence.shard;
+
+import java.util.HashMap;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections to the database the current thread's work has been
+ * routed to by {@link TaskShards}, or to the home database when it hasn't
+ * been routed.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final List<DataSource> databases;
+
+    /**
+     * @param databases the databases, in {@link TaskShards} order, starting
+     *                  with the home database
+     */
+    public ShardRoutingDataSource(List<DataSource> databases) {
+        this.databases = List.copyOf(databases);
+        var targets = new HashMap<Object, Object>();
+        for (int i = 0; i < databases.size(); i++) {
+            targets.put(i, databases.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(databases.get(0));
+        setLenientFallback(false);
+    }
+
+    public List<DataSource> getDatabases() {
+        return databases;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TaskShards.currentDatabase();
+    }
+}
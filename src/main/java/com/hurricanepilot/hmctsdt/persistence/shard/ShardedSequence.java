@@ -0,0 +1,25 @@
+package com.hurricanepilot.hmctsdt.persistence.shard;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Generates the annotated ID from a database sequence, embedding the shard
+ * the entity is created on - see {@link ShardedSequenceGenerator}.
+ */
+@IdGeneratorType(ShardedSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target(FIELD)
+public @interface ShardedSequence {
+
+    /** The name of the sequence in each database */
+    String sequenceName();
+
+    /** The number of IDs reserved by each call to the sequence */
+    int allocationSize();
+}
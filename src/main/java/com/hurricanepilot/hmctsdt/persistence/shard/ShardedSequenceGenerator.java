@@ -0,0 +1,81 @@
+package com.hurricanepilot.hmctsdt.persistence.shard;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * Hands out IDs for the shard the current thread is creating Tasks on (see
+ * {@link TaskShards#currentShard()}), composed of the shard and an ID read
+ * from the sequence of the shard's database.
+ * <p>
+ * As with Hibernate's pooled optimiser, each call to the sequence reserves
+ * the block of IDs ending at the value read, so inserting a batch of Tasks
+ * doesn't cost a sequence call per row. A block is kept for each shard, as
+ * blocks read from one database can't be used in another. With a single
+ * shard, the IDs are the same as those of the pooled optimiser.
+ */
+public class ShardedSequenceGenerator implements IdentifierGenerator {
+
+    private final String sequenceName;
+
+    private final int allocationSize;
+
+    private final Map<Integer, Block> blocks = new ConcurrentHashMap<>();
+
+    public ShardedSequenceGenerator(ShardedSequence config) {
+        this.sequenceName = config.sequenceName();
+        this.allocationSize = config.allocationSize();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object entity) {
+        var shard = TaskShards.currentShard();
+        var block = blocks.computeIfAbsent(shard, s -> new Block());
+        // a lock rather than a monitor, as the sequence is read while it is
+        // held, which would pin a virtual thread to its carrier
+        block.lock.lock();
+        try {
+            if (block.next > block.last) {
+                var value = nextSequenceValue(session);
+                block.last = value;
+                // the first value read from a new sequence is its start value
+                block.next = Math.max(1, value - allocationSize + 1);
+            }
+            return TaskShards.idOf(shard, block.next++);
+        } finally {
+            block.lock.unlock();
+        }
+    }
+
+    private long nextSequenceValue(SharedSessionContractImplementor session) {
+        var sql = session.getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString(sequenceName);
+        var jdbc = session.getJdbcCoordinator();
+        var statement = jdbc.getStatementPreparer().prepareStatement(sql);
+        try {
+            var results = jdbc.getResultSetReturn().extract(statement, sql);
+            results.next();
+            return results.getLong(1);
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "Could not read " + sequenceName, sql);
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbc.afterStatementExecution();
+        }
+    }
+
+    private static class Block {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        // guarded by lock
+        private long next = 1;
+
+        // guarded by lock
+        private long last = 0;
+    }
+}
@@ -0,0 +1,171 @@
+package com.hurricanepilot.hmctsdt.persistence.shard;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves shards between databases, e.g. on to a newly added database, and
+ * keeps the record of which database holds each shard in the home
+ * database's {@code task_shard} table. Shards with no record are held by
+ * database {@code shard % databases}.
+ * <p>
+ * A shard's Tasks and tombstones keep their IDs when it moves. They are
+ * copied to the new database in batches, the shard is reassigned, and then
+ * they are deleted from the old one - all while every other routed
+ * operation waits, so move shards at a quiet time. The copy overwrites
+ * anything already copied, so a move that fails part way can be run again.
+ * <p>
+ * Other instances only read the assignments at startup, so run a single
+ * instance while moving shards.
+ */
+@Slf4j
+public class TaskShardRebalancer implements SmartInitializingSingleton {
+
+    private static final int COPY_BATCH_SIZE = 1000;
+
+    private static final String SELECT_TASKS = """
+            select id, title, description, status, due_date_time, version, last_modified
+            from task where id >= ? and id < ? order by id limit ?
+            """;
+
+    private static final String UPSERT_TASK = """
+            merge into task (id, title, description, status, due_date_time, version, last_modified)
+            key (id) values (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPSERT_TOMBSTONE = """
+            merge into task_tombstone (task_id, deleted_at) key (task_id) values (?, ?)
+            """;
+
+    private final TaskShards taskShards;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int idAllocationSize;
+
+    /**
+     * @param jdbcTemplate     over the {@link ShardRoutingDataSource}
+     * @param idAllocationSize the number of IDs reserved by each call to the
+     *                         task_seq sequence
+     */
+    public TaskShardRebalancer(TaskShards taskShards, JdbcTemplate jdbcTemplate, int idAllocationSize) {
+        this.taskShards = taskShards;
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocationSize = idAllocationSize;
+    }
+
+    /**
+     * Loads the recorded shard assignments once the schema is in place, and
+     * before any work is routed.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        jdbcTemplate.query("select shard, database_index from task_shard", row -> {
+            var shard = row.getInt(1);
+            var database = row.getInt(2);
+            if (shard < taskShards.getShardCount() && database < taskShards.getDatabaseCount()) {
+                taskShards.assign(shard, database);
+            } else {
+                log.warn("Ignored the assignment of shard {} to database {}, which isn't configured", shard,
+                        database);
+            }
+        });
+        log.info("Partitioning Tasks in to {} shards across {} databases: {}", taskShards.getShardCount(),
+                taskShards.getDatabaseCount(), taskShards.getAssignment());
+    }
+
+    /**
+     * Moves the shard to the given database.
+     *
+     * @return the number of Tasks moved
+     */
+    public int move(int shard, int database) {
+        if (shard < 0 || shard >= taskShards.getShardCount() || database < 0
+                || database >= taskShards.getDatabaseCount()) {
+            throw new IllegalArgumentException("There is no shard " + shard + " or database " + database);
+        }
+        return taskShards.exclusively(() -> {
+            var source = taskShards.databaseOf(shard);
+            if (source == database) {
+                return 0;
+            }
+            var started = System.nanoTime();
+            var from = TaskShards.firstIdOf(shard);
+            var to = TaskShards.firstIdOf(shard + 1);
+
+            var moved = copyTasks(source, database, from, to);
+            var tombstones = taskShards.onDatabase(source, () -> jdbcTemplate.query(
+                    "select task_id, deleted_at from task_tombstone where task_id >= ? and task_id < ?",
+                    (row, i) -> new Object[] { row.getObject(1), row.getObject(2) }, from, to));
+            taskShards.onDatabase(database, () -> jdbcTemplate.batchUpdate(UPSERT_TOMBSTONE, tombstones));
+            advanceSequence(source, database);
+
+            jdbcTemplate.update("merge into task_shard (shard, database_index) key (shard) values (?, ?)", shard,
+                    database);
+            taskShards.assign(shard, database);
+
+            taskShards.onDatabase(source, () -> {
+                jdbcTemplate.update("delete from task where id >= ? and id < ?", from, to);
+                return jdbcTemplate.update("delete from task_tombstone where task_id >= ? and task_id < ?", from,
+                        to);
+            });
+            log.info("Moved shard {} ({} Tasks) from database {} to database {} in {}ms", shard, moved, source,
+                    database, (System.nanoTime() - started) / 1_000_000);
+            return moved;
+        });
+    }
+
+    /**
+     * The database each shard is held by, by shard.
+     */
+    public Map<Integer, Integer> getAssignment() {
+        var assignment = taskShards.getAssignment();
+        var byShard = new LinkedHashMap<Integer, Integer>();
+        for (int shard = 0; shard < assignment.size(); shard++) {
+            byShard.put(shard, assignment.get(shard));
+        }
+        return byShard;
+    }
+
+    private int copyTasks(int source, int target, long from, long to) {
+        var copied = 0;
+        var next = from;
+        while (true) {
+            var after = next;
+            List<Object[]> batch = taskShards.onDatabase(source, () -> jdbcTemplate.query(SELECT_TASKS,
+                    (row, i) -> new Object[] { row.getObject(1), row.getObject(2), row.getObject(3),
+                            row.getObject(4), row.getObject(5), row.getObject(6), row.getObject(7) },
+                    after, to, COPY_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                return copied;
+            }
+            taskShards.onDatabase(target, () -> jdbcTemplate.batchUpdate(UPSERT_TASK, new ArrayList<>(batch)));
+            copied += batch.size();
+            next = ((Number) batch.get(batch.size() - 1)[0]).longValue() + 1;
+        }
+    }
+
+    /**
+     * Moves the target database's ID sequence past the source's, so the IDs
+     * the shard is given from now on follow those it was given before.
+     */
+    private void advanceSequence(int source, int target) {
+        var sourceNext = taskShards.onDatabase(source,
+                () -> jdbcTemplate.queryForObject("select next value for task_seq", Long.class));
+        var targetNext = taskShards.onDatabase(target,
+                () -> jdbcTemplate.queryForObject("select next value for task_seq", Long.class));
+        if (targetNext < sourceNext) {
+            taskShards.onDatabase(target, () -> {
+                jdbcTemplate.execute("alter sequence task_seq restart with " + (sourceNext + idAllocationSize));
+                return null;
+            });
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.hurricanepilot.hmctsdt.persistence.shard;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Routes {@link ShardRouted} methods to their shard. Runs ahead of the
+ * transaction and cache advice, so the transaction's connection comes from
+ * the shard's database.
+ * <p>
+ * The annotation is read from the method rather than bound by the pointcut:
+ * binding needs Spring's ExposeInvocationInterceptor to run first, which it
+ * doesn't at the highest precedence.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class TaskShardRouting {
+
+    private final TaskShards taskShards;
+
+    @Around("@annotation(com.hurricanepilot.hmctsdt.persistence.shard.ShardRouted)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        var routed = ((MethodSignature) joinPoint.getSignature()).getMethod().getAnnotation(ShardRouted.class);
+        return switch (routed.value()) {
+            case TASK_ID -> taskShards.onShardOf((Long) joinPoint.getArgs()[0], joinPoint::proceed);
+            case NEW_TASK -> taskShards.onNewShard(joinPoint::proceed);
+        };
+    }
+}
@@ -0,0 +1,350 @@
+package com.hurricanepilot.hmctsdt.persistence.shard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Partitions the Tasks across one or more databases by ID range.
+ * <p>
+ * Each Task ID embeds the logical shard it was created on in its upper bits,
+ * so shard {@code s} owns the IDs from {@code s << 40} up to (but excluding)
+ * {@code (s + 1) << 40}. Shard 0 covers every ID handed out before sharding
+ * was enabled. Each shard is assigned to a database, and there are usually
+ * more shards than databases, so a shard can be moved to another database
+ * (see {@link TaskShardRebalancer}) without changing the IDs of its Tasks.
+ * <p>
+ * Work is routed by the calling thread: the {@link ShardRoutingDataSource}
+ * hands out connections to the database of the current shard, so a
+ * transaction must start within {@link #onShard} (or one of its variants)
+ * and only ever touches that one database. Work that spans databases is run
+ * on each of them in parallel by {@link #onEachDatabase} or
+ * {@link #onDatabasesOf}, and its results merged by the caller. With a single
+ * database everything runs on the calling thread, so joins any transaction
+ * already in progress.
+ * <p>
+ * Routed work holds a read lock that a shard move takes exclusively, so
+ * reads and writes pause while a shard is moved. The lock is taken once, by
+ * the outermost routed call: work it runs - on the calling thread or on the
+ * pool for {@link #onEachDatabase} - doesn't take it again, as that would
+ * wait behind a queued move that is itself waiting for the outer call.
+ */
+public class TaskShards implements DisposableBean {
+
+    /** The number of ID bits left for the IDs handed out within each shard */
+    public static final int LOCAL_ID_BITS = 40;
+
+    /** The database holding the Task tables that aren't sharded */
+    public static final int HOME_DATABASE = 0;
+
+    /** Keeps every ID below 2^52, so it's exact as a JavaScript number */
+    public static final int MAX_SHARDS = 1 << 12;
+
+    private static final long LOCAL_ID_MASK = (1L << LOCAL_ID_BITS) - 1;
+
+    private static final ThreadLocal<Route> ROUTE = new ThreadLocal<>();
+
+    private final int shardCount;
+
+    private final int databaseCount;
+
+    // the database each shard is held by, replaced as a whole when a shard moves
+    private volatile int[] assignment;
+
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    private final ReentrantReadWriteLock moveLock = new ReentrantReadWriteLock();
+
+    private final ExecutorService executor;
+
+    /**
+     * @param shardCount    the number of logical shards, which can be raised
+     *                      but not lowered once Tasks have been created
+     * @param databaseCount the number of databases, the first of which is the
+     *                      home database holding the other Task tables
+     */
+    public TaskShards(int shardCount, int databaseCount) {
+        if (shardCount < 1 || shardCount > MAX_SHARDS) {
+            throw new IllegalArgumentException("The shard count must be between 1 and " + MAX_SHARDS);
+        }
+        if (databaseCount < 1) {
+            throw new IllegalArgumentException("There must be at least one database");
+        }
+        this.shardCount = shardCount;
+        this.databaseCount = databaseCount;
+        this.assignment = IntStream.range(0, shardCount).map(shard -> shard % databaseCount).toArray();
+        this.executor = databaseCount == 1 ? null
+                : Executors.newCachedThreadPool(Thread.ofPlatform().name("task-shards-", 0).daemon().factory());
+    }
+
+    /**
+     * A single shard in a single database, where no work is routed.
+     */
+    public static TaskShards single() {
+        return new TaskShards(1, 1);
+    }
+
+    public static int shardOf(long id) {
+        return (int) (id >>> LOCAL_ID_BITS);
+    }
+
+    public static long localIdOf(long id) {
+        return id & LOCAL_ID_MASK;
+    }
+
+    public static long idOf(int shard, long localId) {
+        if (localId > LOCAL_ID_MASK) {
+            throw new IllegalStateException("Shard " + shard + " has run out of IDs");
+        }
+        return firstIdOf(shard) | localId;
+    }
+
+    public static long firstIdOf(int shard) {
+        return (long) shard << LOCAL_ID_BITS;
+    }
+
+    /**
+     * The shard that Tasks created by the current thread are placed in.
+     *
+     * @throws IllegalStateException if the thread is working across a whole
+     *                               database rather than on a shard
+     */
+    public static int currentShard() {
+        var route = ROUTE.get();
+        if (route == null) {
+            return 0;
+        }
+        if (route.shard() < 0) {
+            throw new IllegalStateException("Tasks can only be created on a shard, not across database "
+                    + route.database());
+        }
+        return route.shard();
+    }
+
+    /**
+     * The database the current thread's connections come from - the home
+     * database when no work is being routed.
+     */
+    static int currentDatabase() {
+        var route = ROUTE.get();
+        return route == null ? HOME_DATABASE : route.database();
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1 || databaseCount > 1;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int getDatabaseCount() {
+        return databaseCount;
+    }
+
+    public int databaseOf(int shard) {
+        var current = assignment;
+        return shard < current.length ? current[shard] : shard % databaseCount;
+    }
+
+    /**
+     * The database of each shard, in shard order.
+     */
+    public List<Integer> getAssignment() {
+        return Arrays.stream(assignment).boxed().toList();
+    }
+
+    /**
+     * Runs the work against the shard holding the Task with the given ID.
+     */
+    public <T, E extends Throwable> T onShardOf(long id, Work<T, E> work) throws E {
+        return onShard(shardOf(id), work);
+    }
+
+    /**
+     * Runs work that creates Tasks against the next shard in turn, or against
+     * the current shard if the thread is already on one, so all the Tasks
+     * created within a transaction land on the same shard.
+     */
+    public <T, E extends Throwable> T onNewShard(Work<T, E> work) throws E {
+        var route = ROUTE.get();
+        if (route != null && route.shard() >= 0) {
+            return work.get();
+        }
+        return onShard(Math.floorMod(nextShard.getAndIncrement(), shardCount), work);
+    }
+
+    /**
+     * Runs work that creates Tasks against the next shard in turn held by the
+     * given database.
+     *
+     * @throws IllegalStateException if the database holds no shards
+     */
+    public <T, E extends Throwable> T onNewShard(int database, Work<T, E> work) throws E {
+        var shards = new ArrayList<Integer>();
+        var current = assignment;
+        for (int shard = 0; shard < current.length; shard++) {
+            if (current[shard] == database) {
+                shards.add(shard);
+            }
+        }
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("Database " + database + " holds no shards");
+        }
+        return onShard(shards.get(Math.floorMod(nextShard.getAndIncrement(), shards.size())), work);
+    }
+
+    public <T, E extends Throwable> T onShard(int shard, Work<T, E> work) throws E {
+        if (!isSharded()) {
+            return work.get();
+        }
+        return locked(() -> on(new Route(shard, databaseOf(shard)), work));
+    }
+
+    /**
+     * Runs the work against the given database as a whole, on the calling
+     * thread.
+     */
+    public <T, E extends Throwable> T onDatabase(int database, Work<T, E> work) throws E {
+        if (databaseCount == 1) {
+            return work.get();
+        }
+        return locked(() -> on(new Route(-1, database), work));
+    }
+
+    /**
+     * Runs the work against every database in parallel, returning the results
+     * in database order.
+     */
+    public <T> List<T> onEachDatabase(IntFunction<T> work) {
+        if (databaseCount == 1) {
+            return Collections.singletonList(work.apply(0));
+        }
+        return locked(() -> join(IntStream.range(0, databaseCount)
+                .mapToObj(database -> CompletableFuture.supplyAsync(
+                        () -> on(new Route(-1, database), () -> work.apply(database)), executor))
+                .toList()));
+    }
+
+    /**
+     * Runs the work in parallel against each database holding any of the
+     * Tasks with the given IDs, passing it the IDs of the Tasks held there.
+     * With a single database the work is given all of the IDs, even if there
+     * are none.
+     */
+    public <T> List<T> onDatabasesOf(Collection<Long> ids, Function<List<Long>, T> work) {
+        if (databaseCount == 1) {
+            return Collections.singletonList(work.apply(new ArrayList<>(ids)));
+        }
+        return locked(() -> {
+            var byDatabase = new LinkedHashMap<Integer, List<Long>>();
+            for (var id : ids) {
+                byDatabase.computeIfAbsent(databaseOf(shardOf(id)), database -> new ArrayList<>()).add(id);
+            }
+            return join(byDatabase.entrySet().stream()
+                    .map(entry -> CompletableFuture.supplyAsync(
+                            () -> on(new Route(-1, entry.getKey()), () -> work.apply(entry.getValue())), executor))
+                    .toList());
+        });
+    }
+
+    /**
+     * Runs the work with every other routed operation paused, e.g. while a
+     * shard is moved.
+     */
+    <T, E extends Throwable> T exclusively(Work<T, E> work) throws E {
+        moveLock.writeLock().lock();
+        try {
+            return work.get();
+        } finally {
+            moveLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Assigns shards to databases. Only called while working
+     * {@link #exclusively}, or before any work is routed.
+     */
+    void assign(int shard, int database) {
+        if (shard < 0 || shard >= shardCount || database < 0 || database >= databaseCount) {
+            throw new IllegalArgumentException("There is no shard " + shard + " or database " + database);
+        }
+        var updated = assignment.clone();
+        updated[shard] = database;
+        assignment = updated;
+    }
+
+    /**
+     * Runs the work holding the read lock, unless the thread is already
+     * routed - which it only ever is within work run for a caller that holds
+     * the lock, either itself or a thread waiting on the pool.
+     */
+    private <T, E extends Throwable> T locked(Work<T, E> work) throws E {
+        if (ROUTE.get() != null) {
+            return work.get();
+        }
+        moveLock.readLock().lock();
+        try {
+            return work.get();
+        } finally {
+            moveLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T, E extends Throwable> T on(Route route, Work<T, E> work) throws E {
+        var previous = ROUTE.get();
+        ROUTE.set(route);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                ROUTE.remove();
+            } else {
+                ROUTE.set(previous);
+            }
+        }
+    }
+
+    private static <T> List<T> join(List<CompletableFuture<T>> futures) {
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Work run against a shard or database, which may throw.
+     */
+    @FunctionalInterface
+    public interface Work<T, E extends Throwable> {
+        T get() throws E;
+    }
+
+    private record Route(int shard, int database) {
+    }
+}
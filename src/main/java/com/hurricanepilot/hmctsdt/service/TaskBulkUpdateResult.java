@@ -0,0 +1,16 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import lombok.Value;
+
+/**
+ * The outcome of moving a set of Tasks to a new status.
+ */
+@Value
+public class TaskBulkUpdateResult {
+    /** Tasks moved to the new status */
+    long updated;
+    /** Tasks left unchanged because the transition is not permitted */
+    long rejected;
+    /** Requested IDs for which no Task exists */
+    long missing;
+}
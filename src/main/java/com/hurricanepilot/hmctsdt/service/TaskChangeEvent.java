@@ -0,0 +1,61 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.constants.TaskChangeType;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.persistence.repository.TaskSnapshot;
+
+import lombok.Value;
+
+/**
+ * A change made to a Task, published by the {@link TaskService}. Carries a
+ * snapshot of the Task as it stands after the change - or, for a deletion,
+ * as it stood before it - so the Task can be rebuilt from its latest event
+ * alone.
+ */
+@Value
+public class TaskChangeEvent {
+    Long taskId;
+    TaskChangeType type;
+    Instant occurredAt;
+    String title;
+    String description;
+    Status status;
+    /** The status the Task was moved from, for a status change */
+    Status previousStatus;
+    ZonedDateTime dueDateTime;
+    /** The version of the Task after the change */
+    long version;
+
+    static TaskChangeEvent created(TaskEntity task) {
+        return new TaskChangeEvent(task.getId(), TaskChangeType.CREATED, Instant.now(), task.getTitle(),
+                task.getDescription(), task.getStatus(), null, task.getDueDateTime(), task.getVersion());
+    }
+
+    /**
+     * Must be called before the Task is moved to the new status. The version
+     * is incremented by the update, so is one more than the Task's current
+     * version.
+     */
+    static TaskChangeEvent statusChanged(TaskEntity task, Status newStatus) {
+        return new TaskChangeEvent(task.getId(), TaskChangeType.STATUS_CHANGED, Instant.now(), task.getTitle(),
+                task.getDescription(), newStatus, task.getStatus(), task.getDueDateTime(), task.getVersion() + 1);
+    }
+
+    /**
+     * As {@link #statusChanged(TaskEntity, Status)}, for a Task moved by a bulk
+     * update.
+     */
+    static TaskChangeEvent statusChanged(TaskSnapshot task, Status newStatus) {
+        return new TaskChangeEvent(task.getId(), TaskChangeType.STATUS_CHANGED, Instant.now(), task.getTitle(),
+                task.getDescription(), newStatus, task.getStatus(), task.getDueDateTime(), task.getVersion() + 1);
+    }
+
+    static TaskChangeEvent deleted(TaskEntity task) {
+        return new TaskChangeEvent(task.getId(), TaskChangeType.DELETED, Instant.now(), task.getTitle(),
+                task.getDescription(), task.getStatus(), null, task.getDueDateTime(), task.getVersion());
+    }
+}
@@ -0,0 +1,62 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Maintains a version number for the task table as a whole, incremented as
+ * each change commits, along with the time of the latest change. Together
+ * they give Task list responses validators that cost nothing to compute,
+ * rather than ones derived from the response body.
+ * <p>
+ * The version is held in memory, so ETags include an ID for this run of the
+ * application and never match once it has restarted.
+ */
+@Component
+public class TaskChangeTracker {
+
+    private final String instanceId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicReference<Instant> lastModified = new AtomicReference<>(Instant.now());
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void changed(TaskChangeEvent event) {
+        touch();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void rebuilt(TaskTableRebuiltEvent event) {
+        touch();
+    }
+
+    /**
+     * An ETag for a query against the current state of the task table. The
+     * query parameters are included so that different queries never share a
+     * tag.
+     */
+    public String eTag(Object... query) {
+        return instanceId + "-" + version.get() + "-" + Integer.toHexString(Arrays.hashCode(query));
+    }
+
+    /**
+     * When the most recent change committed.
+     */
+    public Instant getLastModified() {
+        return lastModified.get();
+    }
+
+    private void touch() {
+        // stamped with the commit time rather than the time of the change, so
+        // the last modified time only ever moves forward
+        var now = Instant.now();
+        version.incrementAndGet();
+        lastModified.accumulateAndGet(now, (current, next) -> next.isAfter(current) ? next : current);
+    }
+}
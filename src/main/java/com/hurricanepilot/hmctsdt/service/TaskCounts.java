@@ -0,0 +1,17 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import java.util.Map;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+
+import lombok.Value;
+
+/**
+ * The number of Tasks in each status, and the number of Tasks yet to be
+ * completed that are overdue.
+ */
+@Value
+public class TaskCounts {
+    Map<Status, Long> byStatus;
+    long overdue;
+}
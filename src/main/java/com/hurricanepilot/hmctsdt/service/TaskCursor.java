@@ -0,0 +1,62 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.service.exception.TaskCursorInvalidException;
+
+import lombok.Value;
+
+/**
+ * The keyset position of the last Task returned in a page. Tasks are ordered
+ * by due date/time - or last modified time, when syncing changes - and then
+ * ID, so the next page starts with the first Task strictly after this
+ * position - which lets the database seek straight to it using an index
+ * rather than counting past the preceding rows.
+ * <p>
+ * Cursors are handed to clients as an opaque URL-safe string.
+ */
+@Value
+public class TaskCursor {
+
+    private static final char SEPARATOR = '|';
+
+    Instant position;
+    Long id;
+
+    public static TaskCursor of(TaskEntity task) {
+        return new TaskCursor(task.getDueDateTime().toInstant(), task.getId());
+    }
+
+    public static TaskCursor ofModified(TaskEntity task) {
+        return new TaskCursor(task.getLastModified(), task.getId());
+    }
+
+    public ZonedDateTime getPositionAsDateTime() {
+        return position.atZone(ZoneOffset.UTC);
+    }
+
+    public String encode() {
+        var raw = position.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String cursor) throws TaskCursorInvalidException {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var split = raw.lastIndexOf(SEPARATOR);
+            if (split < 0) {
+                throw new TaskCursorInvalidException("Invalid cursor: " + cursor);
+            }
+            return new TaskCursor(Instant.parse(raw.substring(0, split)), Long.valueOf(raw.substring(split + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // NumberFormatException is an IllegalArgumentException
+            throw new TaskCursorInvalidException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
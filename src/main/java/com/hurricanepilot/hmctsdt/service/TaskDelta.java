@@ -0,0 +1,23 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+
+import lombok.Value;
+
+/**
+ * A page of the Tasks changed since a point in time, ordered by when they
+ * were last modified and then ID.
+ */
+@Value
+public class TaskDelta {
+    List<TaskEntity> tasks;
+    /** The position to continue from, or null if this is the last page */
+    TaskCursor next;
+    /** The IDs of the Tasks deleted since the point in time - last page only */
+    List<Long> deleted;
+    /** The point in time to sync from next - last page only */
+    Instant syncedTo;
+}
@@ -0,0 +1,307 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.constants.TaskChangeType;
+import com.hurricanepilot.hmctsdt.persistence.shard.TaskShards;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An in-memory index of the Tasks that are yet to be completed, in due
+ * date/time and then ID order, for answering "what is overdue" and "what is
+ * due soon" without querying the database.
+ * <p>
+ * Positions are held in a skip list, so reads never wait for a change to be
+ * applied and can start from a {@link TaskCursor} in logarithmic time.
+ * Changes are applied one at a time, as the {@link TaskChangeEvent}s
+ * published by the {@link TaskService} commit. As transactions may finish in
+ * a different order to the one they committed in, the version of each Task
+ * is kept and a change older than the one already applied is ignored. The
+ * version of a Task that is completed or deleted is kept for a minute after
+ * it leaves the index, then forgotten. The
+ * index is built from the task table at startup.
+ * <p>
+ * Once a second (by default) the index is checked for Tasks whose due
+ * date/time has passed since the last check, and a {@link TaskOverdueEvent}
+ * is published for each. Tasks already overdue when the application starts
+ * are not announced, nor, as a rule, are Tasks created or reopened after
+ * their due date/time.
+ */
+@Slf4j
+@Component
+public class TaskDueIndex implements ApplicationRunner {
+
+    /** The number of Tasks announced as having become overdue */
+    public static final String OVERDUE_COUNTER = "tasks.due.overdue";
+
+    /** The version recorded for a deleted Task, which no change can follow */
+    private static final long DELETED = Long.MAX_VALUE;
+
+    /**
+     * How long the version of a Task that has left the index is kept, which is
+     * ample time for any older change to it to have been delivered
+     */
+    private static final Duration DEPARTED_RETENTION = Duration.ofMinutes(1);
+
+    private static final Comparator<TaskCursor> DUE_ORDER = Comparator.comparing(TaskCursor::getPosition)
+            .thenComparing(TaskCursor::getId);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TaskShards taskShards;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Counter overdue;
+
+    private final NavigableSet<TaskCursor> positions = new ConcurrentSkipListSet<>(DUE_ORDER);
+
+    // guarded by this - the due date/time of each indexed Task, so it can be removed
+    private final Map<Long, Instant> dueById = new HashMap<>();
+
+    // guarded by this - the version of each Task as of the change last applied,
+    // including Tasks that recently left the index, so an older change arriving
+    // late is ignored
+    private final Map<Long, Long> versionById = new HashMap<>();
+
+    // guarded by this - when each Task no longer open left the index, earliest
+    // first, so its version can be forgotten once DEPARTED_RETENTION has passed
+    private final Map<Long, Instant> departedAt = new LinkedHashMap<>();
+
+    // guarded by this - the changes committed while the index is being rebuilt,
+    // with a null due date/time for a Task that is no longer open
+    private final Map<Long, Instant> changedDuringRebuild = new HashMap<>();
+
+    // guarded by this
+    private boolean rebuilding;
+
+    // guarded by this - the time up to which Tasks have been announced as overdue
+    private Instant checkedTo = Instant.now();
+
+    // guarded by this - the number of indexed Tasks due before checkedTo
+    private long overdueCount;
+
+    public TaskDueIndex(JdbcTemplate jdbcTemplate, TaskShards taskShards, ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskShards = taskShards;
+        this.eventPublisher = eventPublisher;
+        this.overdue = Counter.builder(OVERDUE_COUNTER)
+                .description("The number of Tasks announced as having become overdue")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void changed(TaskChangeEvent event) {
+        var deleted = event.getType() == TaskChangeType.DELETED;
+        var known = versionById.get(event.getTaskId());
+        // a deletion carries the version of the change it follows
+        if (known != null && (deleted ? known == DELETED : event.getVersion() <= known)) {
+            log.debug("Ignored {} of Task {} at version {}, as version {} has been indexed", event.getType(),
+                    event.getTaskId(), event.getVersion(), known);
+            return;
+        }
+        versionById.put(event.getTaskId(), deleted ? DELETED : event.getVersion());
+        var open = !deleted && event.getStatus() != Status.COMPLETED;
+        departedAt.remove(event.getTaskId());
+        if (!open) {
+            departedAt.put(event.getTaskId(), Instant.now());
+        }
+        var due = open ? event.getDueDateTime().toInstant() : null;
+        if (rebuilding) {
+            changedDuringRebuild.put(event.getTaskId(), due);
+        }
+        put(event.getTaskId(), due);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void rebuilt(TaskTableRebuiltEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Replaces the index with one built from the task table. Changes committed
+     * while the table is being read are applied as usual, and take precedence.
+     */
+    public void rebuild() {
+        setRebuilding(true);
+        try {
+            var rows = new ArrayList<OpenTask>();
+            taskShards.onEachDatabase(database -> {
+                var onDatabase = new ArrayList<OpenTask>();
+                jdbcTemplate.query("select id, due_date_time, version from task where status <> ?", row -> {
+                    onDatabase.add(new OpenTask(row.getLong(1), row.getObject(2, OffsetDateTime.class).toInstant(),
+                            row.getLong(3)));
+                }, Status.COMPLETED.ordinal());
+                return onDatabase;
+            }).forEach(rows::addAll);
+
+            synchronized (this) {
+                positions.clear();
+                dueById.clear();
+                overdueCount = 0;
+                var open = new HashMap<Long, Instant>();
+                for (var row : rows) {
+                    open.put(row.getId(), row.getDue());
+                    versionById.merge(row.getId(), row.getVersion(), Math::max);
+                }
+                open.putAll(changedDuringRebuild);
+                open.forEach(this::put);
+                // Tasks no longer in the table
+                versionById.keySet().removeIf(id -> !dueById.containsKey(id) && !departedAt.containsKey(id));
+            }
+        } finally {
+            setRebuilding(false);
+        }
+        log.info("Indexed {} open Tasks by due date/time", size());
+    }
+
+    private synchronized void setRebuilding(boolean rebuilding) {
+        this.rebuilding = rebuilding;
+        changedDuringRebuild.clear();
+    }
+
+    public synchronized int size() {
+        return dueById.size();
+    }
+
+    /**
+     * The number of open Tasks that are overdue, as of the last check.
+     */
+    public synchronized long getOverdueCount() {
+        return overdueCount;
+    }
+
+    /**
+     * The positions of the open Tasks due at or after {@code from} (or at any
+     * time, if null) and before {@code to}, in due order, starting after the
+     * given cursor position if there is one.
+     */
+    public List<TaskCursor> find(Instant from, Instant to, TaskCursor after, int limit) {
+        var lower = from == null ? null : new TaskCursor(from, Long.MIN_VALUE);
+        var inclusive = true;
+        // a cursor from before the start of the range leaves it unchanged
+        if (after != null && (lower == null || DUE_ORDER.compare(after, lower) >= 0)) {
+            lower = after;
+            inclusive = false;
+        }
+        var upper = new TaskCursor(to, Long.MIN_VALUE);
+        if (lower != null && DUE_ORDER.compare(lower, upper) >= 0) {
+            return List.of();
+        }
+        var range = lower == null
+                ? positions.headSet(upper, false)
+                : positions.subSet(lower, inclusive, upper, false);
+
+        var found = new ArrayList<TaskCursor>(Math.min(limit, 1024));
+        for (var position : range) {
+            if (found.size() == limit) {
+                break;
+            }
+            found.add(position);
+        }
+        return found;
+    }
+
+    /**
+     * Publishes a {@link TaskOverdueEvent} for each open Task whose due
+     * date/time has passed since the last check.
+     */
+    @Scheduled(initialDelayString = "${hmcts.due-index.check-interval:PT1S}",
+            fixedDelayString = "${hmcts.due-index.check-interval:PT1S}")
+    public void announceOverdue() {
+        List<TaskCursor> passed;
+        synchronized (this) {
+            var now = Instant.now();
+            if (!now.isAfter(checkedTo)) {
+                return;
+            }
+            passed = List.copyOf(positions.subSet(new TaskCursor(checkedTo, Long.MIN_VALUE), true,
+                    new TaskCursor(now, Long.MIN_VALUE), false));
+            overdueCount += passed.size();
+            checkedTo = now;
+        }
+        for (var position : passed) {
+            eventPublisher.publishEvent(new TaskOverdueEvent(position.getId(), position.getPosition()));
+            overdue.increment();
+        }
+    }
+
+    /**
+     * Forgets the versions of the Tasks that left the index more than
+     * {@link #DEPARTED_RETENTION} ago.
+     */
+    @Scheduled(initialDelayString = "${hmcts.due-index.check-interval:PT1S}",
+            fixedDelayString = "${hmcts.due-index.check-interval:PT1S}")
+    public void forgetDeparted() {
+        forgetDeparted(Instant.now().minus(DEPARTED_RETENTION));
+    }
+
+    synchronized void forgetDeparted(Instant departedBefore) {
+        var departed = departedAt.entrySet().iterator();
+        while (departed.hasNext()) {
+            var entry = departed.next();
+            if (!entry.getValue().isBefore(departedBefore)) {
+                break;
+            }
+            versionById.remove(entry.getKey());
+            departed.remove();
+        }
+    }
+
+    /**
+     * The number of Tasks whose version is kept - those in the index and
+     * those that recently left it.
+     */
+    synchronized int versionCount() {
+        return versionById.size();
+    }
+
+    // guarded by this
+    private void put(Long id, Instant due) {
+        var previous = due == null ? dueById.remove(id) : dueById.put(id, due);
+        if (previous != null) {
+            positions.remove(new TaskCursor(previous, id));
+            overdueCount -= previous.isBefore(checkedTo) ? 1 : 0;
+        }
+        if (due != null) {
+            positions.add(new TaskCursor(due, id));
+            overdueCount += due.isBefore(checkedTo) ? 1 : 0;
+        }
+    }
+
+    @Value
+    private static class OpenTask {
+        Long id;
+        Instant due;
+        long version;
+    }
+}
@@ -0,0 +1,23 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import java.time.ZonedDateTime;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Optional criteria used to restrict the Tasks returned by a list query. Any
+ * criteria left as null are ignored.
+ */
+@Value
+@Builder
+public class TaskFilter {
+    /** Only include Tasks with this status */
+    Status status;
+    /** Only include Tasks due at or after this date/time */
+    ZonedDateTime dueFrom;
+    /** Only include Tasks due before this date/time */
+    ZonedDateTime dueTo;
+}
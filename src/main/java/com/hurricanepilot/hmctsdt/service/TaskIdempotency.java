@@ -0,0 +1,206 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hurricanepilot.hmctsdt.persistence.entity.IdempotencyKeyEntity;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.persistence.repository.IdempotencyKeyRepository;
+import com.hurricanepilot.hmctsdt.persistence.shard.TaskShards;
+import com.hurricanepilot.hmctsdt.service.exception.TaskIdempotencyKeyReusedException;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates Tasks at most once per idempotency key, so that a client retrying a
+ * creation it never saw the response to gets the original Task back rather
+ * than a duplicate.
+ * <p>
+ * Keys are held in a bounded in-memory map, each expiring after the TTL.
+ * Concurrent requests with the same key share a single creation: the first
+ * creates the Task and the rest wait for its result. A creation that fails
+ * releases the key, so it can be retried.
+ * <p>
+ * The in-memory keys are lost on restart and aren't shared between instances.
+ * With {@code hmcts.idempotency.persistent} enabled, each key is also written
+ * to the {@code idempotency_key} table in the same transaction as its Task,
+ * and keys not held in memory are looked up there. The table's primary key
+ * guarantees that only one creation commits, even across instances. As the
+ * key and its Task are written together, such Tasks are created on a shard
+ * held by the home database.
+ */
+@Slf4j
+@Component
+public class TaskIdempotency {
+
+    private final TaskService taskService;
+
+    private final TaskShards taskShards;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EntityManager entityManager;
+
+    private final Duration ttl;
+
+    private final boolean persistent;
+
+    private final Cache<String, CompletableFuture<Creation>> keys;
+
+    @Autowired
+    public TaskIdempotency(TaskService taskService, TaskShards taskShards,
+            IdempotencyKeyRepository idempotencyKeyRepository,
+            TransactionTemplate transactionTemplate, EntityManager entityManager,
+            @Value("${hmcts.idempotency.ttl:24h}") Duration ttl,
+            @Value("${hmcts.idempotency.max-keys:100000}") long maxKeys,
+            @Value("${hmcts.idempotency.persistent:false}") boolean persistent) {
+        this.taskService = taskService;
+        this.taskShards = taskShards;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.ttl = ttl;
+        this.persistent = persistent;
+        this.keys = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Creates the Task, unless a Task has already been created with the given
+     * key, in which case that Task's ID is returned instead.
+     *
+     * @throws TaskIdempotencyKeyReusedException if the key was used to create
+     *         a different Task
+     */
+    public Long create(String key, TaskEntity task) throws TaskIdempotencyKeyReusedException {
+        var fingerprint = fingerprint(task);
+        var pending = new CompletableFuture<Creation>();
+        var existing = keys.asMap().putIfAbsent(key, pending);
+
+        Creation creation;
+        if (existing == null) {
+            try {
+                creation = createOnce(key, task, fingerprint);
+                pending.complete(creation);
+            } catch (RuntimeException e) {
+                keys.asMap().remove(key, pending);
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        } else {
+            creation = await(existing);
+        }
+
+        if (!creation.fingerprint().equals(fingerprint)) {
+            throw new TaskIdempotencyKeyReusedException(
+                    "Idempotency key " + key + " has already been used to create a different Task");
+        }
+        return creation.taskId();
+    }
+
+    /**
+     * Removes the expired keys from the {@code idempotency_key} table.
+     */
+    @Scheduled(initialDelayString = "${hmcts.idempotency.purge-interval:PT1H}",
+            fixedDelayString = "${hmcts.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        if (persistent) {
+            var purged = transactionTemplate.execute(
+                    status -> idempotencyKeyRepository.deleteAllExpired(Instant.now().minus(ttl)));
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private Creation createOnce(String key, TaskEntity task, String fingerprint) {
+        if (!persistent) {
+            return new Creation(taskService.create(task), fingerprint);
+        }
+
+        var cutoff = Instant.now().minus(ttl);
+        var stored = idempotencyKeyRepository.findById(key).filter(k -> k.getCreatedAt().isAfter(cutoff));
+        if (stored.isPresent()) {
+            return Creation.of(stored.get());
+        }
+        try {
+            return taskShards.onNewShard(TaskShards.HOME_DATABASE, () -> transactionTemplate.execute(status -> {
+                idempotencyKeyRepository.deleteExpired(key, cutoff);
+                var id = taskService.create(task);
+                // inserted rather than merged, so a concurrent creation with
+                // the same key fails here instead of being overwritten
+                entityManager.persist(new IdempotencyKeyEntity(key, id, fingerprint, Instant.now()));
+                entityManager.flush();
+                return new Creation(id, fingerprint);
+            }));
+        } catch (DataIntegrityViolationException | PersistenceException e) {
+            // another instance committed a creation with this key first
+            return idempotencyKeyRepository.findById(key).map(Creation::of).orElseThrow(() -> e);
+        }
+    }
+
+    private static Creation await(CompletableFuture<Creation> creation) {
+        try {
+            return creation.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Identifies the content of a creation request, to tell a retry from a
+     * different request reusing the key: the hex SHA-256 digest of the
+     * request's fields, each written with its length so that no two different
+     * requests have the same encoding.
+     */
+    static String fingerprint(TaskEntity task) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        for (var field : new Object[] { task.getTitle(), task.getDescription(), task.getStatus(),
+                task.getDueDateTime() }) {
+            if (field == null) {
+                digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(-1).array());
+            } else {
+                var bytes = field.toString().getBytes(StandardCharsets.UTF_8);
+                digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+                digest.update(bytes);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private record Creation(Long taskId, String fingerprint) {
+
+        static Creation of(IdempotencyKeyEntity key) {
+            return new Creation(key.getTaskId(), key.getFingerprint());
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hurricanepilot.hmctsdt.constants.TaskChangeType;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEventEntity;
+import com.hurricanepilot.hmctsdt.persistence.repository.TaskEventRepository;
+import com.hurricanepilot.hmctsdt.persistence.shard.TaskShards;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The append-only journal of Task changes. Each {@link TaskChangeEvent} is
+ * recorded once the change has been committed, so rolled back changes are
+ * never journalled.
+ * <p>
+ * Recording an event only queues it - a single writer thread inserts the
+ * queued events in batches, in their own transaction, so journalling adds no
+ * database work to the request that made the change. The trade-off is that
+ * events still queued when the process dies are lost. The queue is bounded;
+ * if it ever fills, the caller writes its event itself rather than dropping it.
+ * Failed writes are retried, and events that still can't be written are
+ * counted, as the journal can't then be trusted to {@link #rebuild} the Tasks.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskJournal implements SmartLifecycle {
+
+    private static final int QUEUE_CAPACITY = 65_536;
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final Duration FLUSH_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final int WRITE_ATTEMPTS = 3;
+
+    private static final Duration WRITE_RETRY_DELAY = Duration.ofMillis(200);
+
+    private final TaskEventRepository taskEventRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TaskShards taskShards;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final BlockingQueue<TaskChangeEvent> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition written = lock.newCondition();
+
+    // guarded by lock
+    private long enqueuedCount;
+
+    // guarded by lock
+    private long writtenCount;
+
+    // events that could not be written, so are missing from the journal
+    private final AtomicLong lostCount = new AtomicLong();
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void record(TaskChangeEvent event) {
+        lock.lock();
+        try {
+            if (running && queue.offer(event)) {
+                enqueuedCount++;
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        // not running (e.g. during shutdown) or the writer has fallen behind
+        write(List.of(event));
+    }
+
+    /**
+     * Waits until every event recorded so far has been written.
+     */
+    public void flush() {
+        var remaining = FLUSH_TIMEOUT.toNanos();
+        lock.lock();
+        try {
+            var target = enqueuedCount;
+            while (writtenCount < target && remaining > 0) {
+                remaining = written.awaitNanos(remaining);
+            }
+            if (writtenCount < target) {
+                log.warn("Timed out waiting for {} journal events to be written", target - writtenCount);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The number of events this instance has failed to write since it
+     * started, despite retrying. While there are any, the journal is
+     * incomplete and won't be used to {@link #rebuild} the task table.
+     */
+    public long getLostCount() {
+        return lostCount.get();
+    }
+
+    /**
+     * The journal entries for the given Task, oldest first, including any
+     * changes made up to the time of the call.
+     */
+    public List<TaskEventEntity> history(Long taskId) {
+        flush();
+        return taskEventRepository.findByTaskIdOrderById(taskId);
+    }
+
+    /**
+     * Replaces the contents of the task table with the state recorded in the
+     * journal - the latest snapshot of each Task that has not been deleted -
+     * and moves the ID sequence past the highest restored ID. When sharded,
+     * each database gets back the Tasks of the shards it holds. Each restored
+     * Task's last modified time is that of its latest journal entry.
+     *
+     * @return the number of Tasks restored
+     * @throws IllegalStateException if events have failed to be written, as
+     *                               the Tasks they changed would be lost
+     */
+    @CacheEvict(cacheNames = TaskService.TASK_CACHE, allEntries = true)
+    @Transactional
+    public int rebuild() {
+        flush();
+        if (lostCount.get() > 0) {
+            throw new IllegalStateException("The journal is missing " + lostCount.get()
+                    + " Task change events that failed to be written, so can't be used to rebuild the Tasks");
+        }
+
+        var latest = new HashMap<Long, TaskEventEntity>();
+        try (var events = taskEventRepository.streamAll()) {
+            events.forEach(event -> latest.merge(event.getTaskId(), event, TaskJournal::later));
+        }
+        var tasks = latest.values().stream()
+                .filter(event -> event.getType() != TaskChangeType.DELETED)
+                .toList();
+
+        // deleted Tasks are included so their IDs aren't handed out again
+        var byDatabase = latest.values().stream().collect(Collectors.groupingBy(
+                event -> taskShards.databaseOf(TaskShards.shardOf(event.getTaskId()))));
+        taskShards.onEachDatabase(database -> transactionTemplate.execute(
+                status -> restore(byDatabase.getOrDefault(database, List.of()))));
+
+        eventPublisher.publishEvent(new TaskTableRebuiltEvent(tasks.size()));
+        log.info("Rebuilt {} Tasks from the journal", tasks.size());
+        return tasks.size();
+    }
+
+    private int restore(List<TaskEventEntity> latest) {
+        var tasks = latest.stream()
+                .filter(event -> event.getType() != TaskChangeType.DELETED)
+                .toList();
+        jdbcTemplate.update("delete from task");
+        jdbcTemplate.batchUpdate("""
+                insert into task (id, title, description, status, due_date_time, version, last_modified)
+                values (?, ?, ?, ?, ?, ?, ?)
+                """, tasks, BATCH_SIZE, (statement, event) -> {
+                    statement.setLong(1, event.getTaskId());
+                    statement.setString(2, event.getTitle());
+                    statement.setString(3, event.getDescription());
+                    statement.setInt(4, event.getStatus().ordinal());
+                    statement.setObject(5, event.getDueDateTime().toOffsetDateTime());
+                    statement.setLong(6, event.getVersion());
+                    statement.setObject(7, event.getOccurredAt().atOffset(ZoneOffset.UTC));
+                });
+
+        // the pooled optimiser hands out the block of IDs ending at the value it
+        // reads from the sequence, so that block has to start after the highest
+        // restored ID. Each database's sequence covers the local part of the
+        // IDs of every shard it holds
+        var maxId = latest.stream().mapToLong(event -> TaskShards.localIdOf(event.getTaskId())).max().orElse(0);
+        jdbcTemplate.execute("alter sequence task_seq restart with " + (maxId + TaskEntity.ID_ALLOCATION_SIZE));
+        return tasks.size();
+    }
+
+    /**
+     * Picks the later of two events for the same Task. Deletion is final, and
+     * otherwise the higher version wins - events for concurrent commits can
+     * reach the journal in either order.
+     */
+    private static TaskEventEntity later(TaskEventEntity current, TaskEventEntity next) {
+        if (current.getType() == TaskChangeType.DELETED) {
+            return current;
+        }
+        if (next.getType() == TaskChangeType.DELETED || next.getVersion() >= current.getVersion()) {
+            return next;
+        }
+        return current;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("task-journal-writer").daemon().start(this::drain);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(FLUSH_TIMEOUT.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // stop after the web server, so changes made by in-flight requests are
+        // still written by the writer thread
+        return DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        var batch = new ArrayList<TaskChangeEvent>(BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                var first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                signalWritten(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<TaskChangeEvent> events) {
+        // when called from record, the committed transaction that made the
+        // change is still bound to the thread, and joining it would mean the
+        // events are never committed
+        var newTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int attempt = 1;; attempt++) {
+            try {
+                // the journal is kept on the home database, whichever shard changed
+                taskShards.onDatabase(TaskShards.HOME_DATABASE, () -> newTransaction.execute(
+                        status -> taskEventRepository.saveAll(events.stream().map(TaskJournal::toEntity).toList())));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == WRITE_ATTEMPTS) {
+                    lostCount.addAndGet(events.size());
+                    log.error("Failed to write {} Task change events to the journal, which can no longer be used "
+                            + "to rebuild the Tasks", events.size(), e);
+                    return;
+                }
+                log.warn("Failed to write {} Task change events to the journal, retrying", events.size(), e);
+            }
+            try {
+                Thread.sleep(WRITE_RETRY_DELAY.multipliedBy(attempt));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lostCount.addAndGet(events.size());
+                log.error("Interrupted writing {} Task change events to the journal", events.size());
+                return;
+            }
+        }
+    }
+
+    private void signalWritten(int count) {
+        if (count == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            writtenCount += count;
+            written.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static TaskEventEntity toEntity(TaskChangeEvent event) {
+        return new TaskEventEntity(event.getTaskId(), event.getType(), event.getOccurredAt(), event.getTitle(),
+                event.getDescription(), event.getStatus(), event.getPreviousStatus(), event.getDueDateTime(),
+                event.getVersion());
+    }
+}
@@ -0,0 +1,211 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.persistence.replica.ReplicaRoutingDataSource;
+import com.hurricanepilot.hmctsdt.persistence.repository.TaskRepository;
+import com.hurricanepilot.hmctsdt.persistence.shard.TaskShards;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Loads single Tasks by ID, sharing database reads between concurrent
+ * lookups. A lookup for a Task that is already being read waits for that
+ * read rather than issuing its own, so a burst of requests for a popular Task
+ * costs one query.
+ * <p>
+ * With a batch window set, lookups for different Tasks arriving within the
+ * window are also combined, in to a single {@code IN (...)} query of up to
+ * the maximum batch size. The first lookup in a batch waits for the window to
+ * pass (or the batch to fill) before the query is made, so the window is the
+ * most latency a lookup can gain.
+ * <p>
+ * Lookups made within a transaction always read the database themselves, so
+ * they see the transaction's own changes and get an entity attached to it.
+ * So do lookups that {@linkplain ReplicaRoutingDataSource#requirePrimary
+ * require the primary}, as a shared read may be served by a lagging replica.
+ * Any other lookup may be handed the same entity instance as other callers,
+ * so must not modify it. A read in progress when a change to its Task
+ * commits is not shared with later lookups.
+ */
+@Component
+public class TaskLoader {
+
+    /** The number of database reads avoided, tagged by reason */
+    public static final String QUERIES_SAVED_COUNTER = "tasks.loader.queries.saved";
+
+    /** The number of Tasks requested by each batched read */
+    public static final String BATCH_SIZE_SUMMARY = "tasks.loader.batch.size";
+
+    private final TaskRepository taskRepository;
+
+    private final TaskShards taskShards;
+
+    private final Duration batchWindow;
+
+    private final int maxBatchSize;
+
+    private final Map<Long, CompletableFuture<Optional<TaskEntity>>> inFlight = new ConcurrentHashMap<>();
+
+    private final Object batchLock = new Object();
+
+    // guarded by batchLock
+    private Batch openBatch;
+
+    private final Counter coalesced;
+
+    private final Counter batched;
+
+    private final DistributionSummary batchSizes;
+
+    @Autowired
+    public TaskLoader(TaskRepository taskRepository, TaskShards taskShards, MeterRegistry meterRegistry,
+            @Value("${hmcts.task-loader.batch-window:0ms}") Duration batchWindow,
+            @Value("${hmcts.task-loader.max-batch-size:100}") int maxBatchSize) {
+        this.taskRepository = taskRepository;
+        this.taskShards = taskShards;
+        this.batchWindow = batchWindow;
+        this.maxBatchSize = maxBatchSize;
+        this.coalesced = savedCounter(meterRegistry, "coalesced");
+        this.batched = savedCounter(meterRegistry, "batched");
+        this.batchSizes = DistributionSummary.builder(BATCH_SIZE_SUMMARY)
+                .description("The number of Tasks requested by each batched read")
+                .register(meterRegistry);
+    }
+
+    private static Counter savedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(QUERIES_SAVED_COUNTER)
+                .description("The number of single Task database reads avoided")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    public Optional<TaskEntity> load(Long id) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                || ReplicaRoutingDataSource.isPrimaryRequired()) {
+            return taskRepository.findById(id);
+        }
+
+        var pending = new CompletableFuture<Optional<TaskEntity>>();
+        var existing = inFlight.putIfAbsent(id, pending);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        try {
+            if (batchWindow.isZero()) {
+                pending.complete(taskRepository.findById(id));
+            } else {
+                loadInBatch(id, pending);
+            }
+            return await(pending);
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, pending);
+        }
+    }
+
+    /**
+     * Stops sharing any read in progress for the changed Task, as it may have
+     * started before the change committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void changed(TaskChangeEvent event) {
+        inFlight.remove(event.getTaskId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void rebuilt(TaskTableRebuiltEvent event) {
+        inFlight.clear();
+    }
+
+    private void loadInBatch(Long id, CompletableFuture<Optional<TaskEntity>> pending) {
+        Batch batch;
+        boolean first;
+        synchronized (batchLock) {
+            first = openBatch == null;
+            if (first) {
+                openBatch = new Batch();
+            }
+            batch = openBatch;
+            batch.tasks.put(id, pending);
+            if (batch.tasks.size() >= maxBatchSize) {
+                openBatch = null;
+                batch.full.countDown();
+            }
+        }
+
+        if (first) {
+            try {
+                batch.full.await(batchWindow.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                synchronized (batchLock) {
+                    if (openBatch == batch) {
+                        openBatch = null;
+                    }
+                }
+            }
+            batch.load();
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The lookups to be made by one query. Lookups are only added while the
+     * batch is open, and the batch is closed before it is loaded.
+     */
+    private class Batch {
+
+        // guarded by batchLock until the batch is closed
+        private final Map<Long, CompletableFuture<Optional<TaskEntity>>> tasks = new LinkedHashMap<>();
+
+        private final CountDownLatch full = new CountDownLatch(1);
+
+        void load() {
+            try {
+                var found = new HashMap<Long, TaskEntity>();
+                // one query for each shard's database, made in parallel
+                taskShards.onDatabasesOf(tasks.keySet(), taskRepository::findAllById)
+                        .forEach(loaded -> loaded.forEach(task -> found.put(task.getId(), task)));
+                tasks.forEach((id, future) -> future.complete(Optional.ofNullable(found.get(id))));
+                batched.increment(tasks.size() - 1d);
+                batchSizes.record(tasks.size());
+            } catch (RuntimeException e) {
+                tasks.values().forEach(future -> future.completeExceptionally(e));
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import java.time.Instant;
+
+import lombok.Value;
+
+/**
+ * Published by the {@link TaskDueIndex} when the due date/time of a Task that
+ * is yet to be completed passes.
+ */
+@Value
+public class TaskOverdueEvent {
+    Long taskId;
+    Instant dueAt;
+}
@@ -0,0 +1,15 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+
+import lombok.Value;
+
+/**
+ * A status update accepted by the {@link TaskStatusWriter} but not yet
+ * written, and the version the Task will be at once it is.
+ */
+@Value
+public class TaskPendingStatus {
+    Status status;
+    long version;
+}
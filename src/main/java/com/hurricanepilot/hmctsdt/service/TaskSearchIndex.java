@@ -0,0 +1,307 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hurricanepilot.hmctsdt.constants.TaskChangeType;
+import com.hurricanepilot.hmctsdt.persistence.shard.TaskShards;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An in-memory inverted index over Task titles and descriptions, ranking
+ * matches with BM25.
+ * <p>
+ * Text is split in to lower case words of letters and digits, with accents
+ * removed. Each word maps to a posting list of the Tasks containing it and
+ * how often it occurs in each; words in the title count double, so a Task
+ * whose title matches ranks above one that only mentions the word in passing.
+ * A Task matching more of the query's words ranks higher, but needn't match
+ * them all.
+ * <p>
+ * The index is built from the task table at startup, before the application
+ * reports itself ready, with the text analysed in parallel. It is then kept
+ * up to date from the {@link TaskChangeEvent}s published by the
+ * {@link TaskService}, once each change commits. Status changes don't alter
+ * the text, so only creations and deletions touch the index.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskSearchIndex implements ApplicationRunner {
+
+    /** BM25 term frequency saturation */
+    private static final double K1 = 1.2;
+
+    /** BM25 document length normalisation */
+    private static final double B = 0.75;
+
+    private static final int TITLE_WEIGHT = 2;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TaskShards taskShards;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+
+    // guarded by lock - the analysed text of each indexed Task, so it can be removed
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    // guarded by lock
+    private long totalLength;
+
+    // guarded by lock - the Tasks created and deleted while the index is being
+    // rebuilt, which the rebuild may have missed, or read before they were deleted
+    private final Map<Long, Document> createdDuringRebuild = new HashMap<>();
+
+    private final Set<Long> deletedDuringRebuild = new HashSet<>();
+
+    // guarded by lock
+    private boolean rebuilding;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void changed(TaskChangeEvent event) {
+        if (event.getType() == TaskChangeType.CREATED) {
+            var document = analyse(event.getTaskId(), event.getTitle(), event.getDescription());
+            lock.writeLock().lock();
+            try {
+                if (rebuilding) {
+                    createdDuringRebuild.put(document.getId(), document);
+                }
+                add(document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } else if (event.getType() == TaskChangeType.DELETED) {
+            lock.writeLock().lock();
+            try {
+                if (rebuilding) {
+                    deletedDuringRebuild.add(event.getTaskId());
+                }
+                remove(event.getTaskId());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void rebuilt(TaskTableRebuiltEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Replaces the index with one built from the task table. Changes committed
+     * while the table is being read are applied as usual, and take precedence.
+     */
+    public void rebuild() {
+        var started = System.nanoTime();
+        setRebuilding(true);
+        try {
+            var rows = new ArrayList<Object[]>();
+            taskShards.onEachDatabase(database -> {
+                var onDatabase = new ArrayList<Object[]>();
+                jdbcTemplate.query("select id, title, description from task", row -> {
+                    onDatabase.add(new Object[] { row.getLong(1), row.getString(2), row.getString(3) });
+                });
+                return onDatabase;
+            }).forEach(rows::addAll);
+            var analysed = rows.parallelStream()
+                    .map(row -> analyse((Long) row[0], (String) row[1], (String) row[2]))
+                    .toList();
+
+            lock.writeLock().lock();
+            try {
+                postings.clear();
+                documents.clear();
+                totalLength = 0;
+                analysed.forEach(this::addUnlessDeleted);
+                createdDuringRebuild.values().forEach(this::addUnlessDeleted);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            setRebuilding(false);
+        }
+        log.info("Indexed {} Tasks for search in {}ms", size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void setRebuilding(boolean rebuilding) {
+        lock.writeLock().lock();
+        try {
+            this.rebuilding = rebuilding;
+            createdDuringRebuild.clear();
+            deletedDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the Tasks matching the query, best first, and returns the
+     * requested page of them.
+     */
+    public Hits search(String query, int offset, int limit) {
+        var terms = tokenise(query).keySet();
+        lock.readLock().lock();
+        try {
+            var count = documents.size();
+            if (count == 0 || terms.isEmpty()) {
+                return new Hits(List.of(), 0);
+            }
+            var averageLength = (double) totalLength / count;
+
+            var scores = new HashMap<Long, Double>();
+            for (var term : terms) {
+                var matches = postings.get(term);
+                if (matches == null) {
+                    continue;
+                }
+                var idf = Math.log(1 + (count - matches.size() + 0.5) / (matches.size() + 0.5));
+                matches.forEach((id, frequency) -> {
+                    var norm = K1 * (1 - B + B * documents.get(id).getLength() / averageLength);
+                    scores.merge(id, idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+                });
+            }
+
+            // keeps the best offset + limit, with the worst of them at the head
+            Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                    .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+            var best = new PriorityQueue<>(ranking);
+            var wanted = offset + limit;
+            for (var entry : scores.entrySet()) {
+                best.offer(entry);
+                if (best.size() > wanted) {
+                    best.poll();
+                }
+            }
+            var ranked = new ArrayList<Long>(best.size());
+            while (!best.isEmpty()) {
+                ranked.add(best.poll().getKey());
+            }
+            var page = ranked.reversed().stream().skip(offset).toList();
+            return new Hits(page, scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addUnlessDeleted(Document document) {
+        if (!deletedDuringRebuild.contains(document.getId())) {
+            add(document);
+        }
+    }
+
+    private void add(Document document) {
+        lock.writeLock().lock();
+        try {
+            if (documents.putIfAbsent(document.getId(), document) != null) {
+                return;
+            }
+            document.getTerms().forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.getId(), frequency));
+            totalLength += document.getLength();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            var document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            document.getTerms().keySet().forEach(term -> {
+                var matches = postings.get(term);
+                matches.remove(id);
+                if (matches.isEmpty()) {
+                    postings.remove(term);
+                }
+            });
+            totalLength -= document.getLength();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Document analyse(Long id, String title, String description) {
+        var terms = tokenise(title);
+        terms.replaceAll((term, frequency) -> frequency * TITLE_WEIGHT);
+        tokenise(description).forEach((term, frequency) -> terms.merge(term, frequency, Integer::sum));
+        var length = terms.values().stream().mapToInt(Integer::intValue).sum();
+        return new Document(id, terms, length);
+    }
+
+    /**
+     * The words in the text, with the number of times each occurs.
+     */
+    static Map<String, Integer> tokenise(String text) {
+        var terms = new HashMap<String, Integer>();
+        if (text == null) {
+            return terms;
+        }
+        var folded = ACCENTS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        for (var word : NON_WORD.split(folded.toLowerCase())) {
+            if (!word.isEmpty()) {
+                terms.merge(word, 1, Integer::sum);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * A page of ranked Task IDs, along with the total number of Tasks matched.
+     */
+    @Value
+    public static class Hits {
+        List<Long> ids;
+        int total;
+    }
+
+    @Value
+    private static class Document {
+        Long id;
+        Map<String, Integer> terms;
+        int length;
+    }
+}
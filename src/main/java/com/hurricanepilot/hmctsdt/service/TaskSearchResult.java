@@ -0,0 +1,17 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import java.util.List;
+
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+
+import lombok.Value;
+
+/**
+ * A page of the Tasks matching a search, best match first, along with the
+ * total number of Tasks matched.
+ */
+@Value
+public class TaskSearchResult {
+    List<TaskEntity> tasks;
+    int total;
+}
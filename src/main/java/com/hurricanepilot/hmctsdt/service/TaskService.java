@@ -1,48 +1,400 @@
 package com.hurricanepilot.hmctsdt.service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
 
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.hurricanepilot.hmctsdt.constants.Status;
 import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEventEntity;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskTombstoneEntity;
 import com.hurricanepilot.hmctsdt.persistence.repository.TaskRepository;
+import com.hurricanepilot.hmctsdt.persistence.repository.TaskSnapshot;
+import com.hurricanepilot.hmctsdt.persistence.repository.TaskTombstoneRepository;
+import com.hurricanepilot.hmctsdt.persistence.shard.ShardRouted;
+import com.hurricanepilot.hmctsdt.persistence.shard.TaskShards;
 import com.hurricanepilot.hmctsdt.service.exception.TaskNotFoundException;
 import com.hurricanepilot.hmctsdt.service.exception.TaskStatusInvalidException;
 import com.hurricanepilot.hmctsdt.service.exception.TaskUpdateNotSupportedException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskVersionMismatchException;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
+@CacheConfig(cacheNames = TaskService.TASK_CACHE)
 public class TaskService {
 
+    /** The cache of single Task lookups, keyed by ID */
+    public static final String TASK_CACHE = "tasks";
+
+    /** The timer recording the duration of each Task operation, tagged by operation */
+    public static final String OPERATION_TIMER = "tasks.operation";
+
+    /** The recommended number of Tasks to pass to {@link #createAll(List)} at a time */
+    public static final int CREATE_CHUNK_SIZE = 500;
+
+    /** How many exported Tasks are held in the persistence context before it is cleared */
+    private static final int EXPORT_DETACH_INTERVAL = 500;
+
+    /** How many Tasks a bulk status update reads, locks and moves at a time */
+    private static final PageRequest STATUS_UPDATE_BATCH = PageRequest.of(0, 1000);
+
+    /**
+     * How long a change may take to commit after it is timestamped. The point a
+     * client is told it has synced to lags the present by this much, so a change
+     * stamped just before a sync but committed just after is not missed.
+     */
+    private static final Duration SYNC_COMMIT_MARGIN = Duration.ofSeconds(5);
+
+    private static final Comparator<TaskEntity> DUE_ORDER = Comparator
+            .comparing((TaskEntity task) -> task.getDueDateTime().toInstant())
+            .thenComparing(TaskEntity::getId);
+
+    private static final Comparator<TaskEntity> MODIFIED_ORDER = Comparator.comparing(TaskEntity::getLastModified)
+            .thenComparing(TaskEntity::getId);
+
     private final TaskRepository taskRepository;
 
+    private final TaskTombstoneRepository taskTombstoneRepository;
+
+    private final EntityManager entityManager;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TaskJournal taskJournal;
+
+    private final TaskLoader taskLoader;
+
+    private final TaskStatusOverlay statusOverlay;
+
+    private final TaskSearchIndex taskSearchIndex;
+
+    private final TaskDueIndex taskDueIndex;
+
+    private final TaskStatusCounts taskStatusCounts;
+
+    private final TaskShards taskShards;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @ShardRouted(ShardRouted.Key.NEW_TASK)
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "create" }, histogram = true)
     public Long create(TaskEntity task) {
-        return this.taskRepository.save(task).getId();
+        var saved = this.taskRepository.save(task);
+        this.eventPublisher.publishEvent(TaskChangeEvent.created(saved));
+        return saved.getId();
     }
 
+    /**
+     * Stores all of the given Tasks in a single transaction, returning their IDs
+     * in the same order. The inserts are sent to the database in JDBC batches,
+     * and the persistence context is cleared afterwards so that the caller can
+     * import an arbitrary number of Tasks by submitting them in chunks. Each
+     * chunk is stored on a single shard.
+     */
+    @Transactional
+    @ShardRouted(ShardRouted.Key.NEW_TASK)
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "createAll" }, histogram = true)
+    public List<Long> createAll(List<TaskEntity> tasks) {
+        var ids = new ArrayList<Long>(tasks.size());
+        for (var task : this.taskRepository.saveAll(tasks)) {
+            ids.add(task.getId());
+            this.eventPublisher.publishEvent(TaskChangeEvent.created(task));
+        }
+        this.entityManager.flush();
+        this.entityManager.clear();
+        return ids;
+    }
+
+    // a client that must read the primary to see its own writes skips the
+    // cache, which may hold a Task read from a lagging replica
+    @Cacheable(condition = "!T(com.hurricanepilot.hmctsdt.persistence.replica.ReplicaRoutingDataSource)"
+            + ".isPrimaryRequired()")
+    @ShardRouted(ShardRouted.Key.TASK_ID)
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "find" }, histogram = true)
     public TaskEntity find(Long id) throws TaskNotFoundException {
-        return this.taskRepository.findById(id)
+        // outside a transaction the repository reads in a read-only transaction
+        // of its own, so this may be served by a read replica
+        var task = this.taskLoader.load(id)
                 .orElseThrow(() -> new TaskNotFoundException("Task not found for ID: " + id));
+        // updates made within a transaction work on the stored state
+        return TransactionSynchronizationManager.isActualTransactionActive() ? task : this.statusOverlay.apply(task);
     }
 
+    /**
+     * The recorded changes to the Task with the given ID, oldest first. The
+     * history remains available after the Task has been deleted.
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "history" }, histogram = true)
+    public List<TaskEventEntity> history(Long id) throws TaskNotFoundException {
+        var history = this.taskJournal.history(id);
+        if (history.isEmpty()) {
+            throw new TaskNotFoundException("Task not found for ID: " + id);
+        }
+        return history;
+    }
+
+    /**
+     * The requested page of the Tasks whose title or description contain any
+     * of the words in the query, best match first.
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "search" }, histogram = true)
+    public TaskSearchResult search(String query, int offset, int limit) {
+        var hits = this.taskSearchIndex.search(query, offset, limit);
+        return new TaskSearchResult(findAllInOrder(hits.getIds()), hits.getTotal());
+    }
+
+    /**
+     * The number of Tasks in each status and the number overdue, read from
+     * counts held in memory rather than by counting the Tasks.
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "count" }, histogram = true)
+    public TaskCounts count() {
+        return new TaskCounts(this.taskStatusCounts.getAll(), this.taskDueIndex.getOverdueCount());
+    }
+
+    /**
+     * The Tasks yet to be completed whose due date/time has passed, in due
+     * date/time and then ID order, one page at a time.
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "retrieveOverdue" }, histogram = true)
+    public TaskSlice retrieveOverdue(TaskCursor after, int limit) {
+        return retrieveDue(null, Instant.now(), after, limit);
+    }
+
+    /**
+     * The Tasks yet to be completed that fall due within the given time from
+     * now, in due date/time and then ID order, one page at a time.
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "retrieveDueWithin" }, histogram = true)
+    public TaskSlice retrieveDueWithin(Duration within, TaskCursor after, int limit) {
+        var now = Instant.now();
+        return retrieveDue(now, now.plus(within), after, limit);
+    }
+
+    private TaskSlice retrieveDue(Instant from, Instant to, TaskCursor after, int limit) {
+        // fetch one more than requested so we know whether a next page exists
+        var positions = this.taskDueIndex.find(from, to, after, limit + 1);
+        var next = positions.size() > limit ? positions.get(limit - 1) : null;
+        var ids = positions.stream().limit(limit).map(TaskCursor::getId).toList();
+        // the index catches up as each change commits, so may still hold a
+        // Task completed moments ago
+        var tasks = findAllInOrder(ids).stream()
+                .filter(task -> task.getStatus() != Status.COMPLETED)
+                .toList();
+        return new TaskSlice(tasks, next);
+    }
+
+    /**
+     * The Tasks with the given IDs, in the same order, leaving out any that
+     * have since been deleted. Each shard's database is read in parallel.
+     */
+    private List<TaskEntity> findAllInOrder(List<Long> ids) {
+        var found = new HashMap<Long, TaskEntity>();
+        this.taskShards.onDatabasesOf(ids,
+                databaseIds -> readOnly(status -> this.taskRepository.findAllById(databaseIds)))
+                .forEach(tasks -> tasks.forEach(task -> found.put(task.getId(), task)));
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .map(this.statusOverlay::apply)
+                .toList();
+    }
+
+    /**
+     * Every Task, in ID order, read from each shard's database in parallel.
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "retrieveAll" }, histogram = true)
     public List<TaskEntity> retrieveAll() {
         var taskSet = new ArrayList<TaskEntity>();
-        this.taskRepository.findAll().forEach(taskSet::add);
+        this.taskShards.onEachDatabase(database -> readOnly(status -> this.taskRepository.findAll()))
+                .forEach(tasks -> tasks.forEach(taskSet::add));
+        taskSet.sort(Comparator.comparing(TaskEntity::getId));
         return taskSet;
     }
 
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "retrievePage" }, histogram = true)
+    public TaskSlice retrievePage(TaskFilter filter, TaskCursor after, int limit) {
+        // fetch one more than requested so we know whether a next page exists
+        // without issuing a separate count query. Each database returns its own
+        // first limit + 1, which between them include the overall first limit + 1
+        var tasks = merge(this.taskShards.onEachDatabase(database -> readOnly(status -> this.taskRepository.findPage(
+                filter.getStatus(),
+                filter.getDueFrom(),
+                filter.getDueTo(),
+                after == null ? null : after.getPositionAsDateTime(),
+                after == null ? null : after.getId(),
+                limit + 1))), DUE_ORDER, limit + 1);
+
+        if (tasks.size() <= limit) {
+            return new TaskSlice(tasks, null);
+        }
+        var page = tasks.subList(0, limit);
+        return new TaskSlice(page, TaskCursor.of(page.get(limit - 1)));
+    }
+
+    /**
+     * The Tasks created or changed after the given instant, in order of last
+     * modification, one page at a time. The last page also lists the IDs of the
+     * Tasks deleted after the given instant, and the instant to sync from next
+     * time.
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "retrieveChanges" }, histogram = true)
+    public TaskDelta retrieveChanges(Instant since, TaskCursor after, int limit) {
+        // taken before reading, so nothing that commits while we read is skipped
+        var syncedTo = Instant.now().minus(SYNC_COMMIT_MARGIN);
+        // the transactions are deliberately not read-only, so never served by a
+        // read replica - a change yet to reach the replica could fall before
+        // syncedTo and never be synced
+        var tasks = merge(this.taskShards.onEachDatabase(database -> this.transactionTemplate.execute(
+                status -> this.taskRepository.findModifiedSince(
+                        since,
+                        after == null ? null : after.getPosition(),
+                        after == null ? null : after.getId(),
+                        PageRequest.ofSize(limit + 1)))), MODIFIED_ORDER, limit + 1);
+
+        if (tasks.size() > limit) {
+            var page = tasks.subList(0, limit);
+            return new TaskDelta(page, TaskCursor.ofModified(page.get(limit - 1)), null, null);
+        }
+        var deleted = this.taskShards.onEachDatabase(database -> this.transactionTemplate.execute(
+                status -> this.taskTombstoneRepository.findByDeletedAtAfter(since))).stream()
+                .flatMap(List::stream)
+                .map(TaskTombstoneEntity::getTaskId)
+                .toList();
+        return new TaskDelta(tasks, null, deleted, syncedTo);
+    }
+
+    /**
+     * Runs the action in a read-only transaction, or joins the transaction
+     * already in progress on this thread.
+     */
+    private <T> T readOnly(TransactionCallback<T> action) {
+        var readOnly = new TransactionTemplate(this.transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        return readOnly.execute(action);
+    }
+
+    /**
+     * Merges the pages read from each database, each already in the given
+     * order, in to the first {@code limit} Tasks overall.
+     */
+    private static List<TaskEntity> merge(List<List<TaskEntity>> pages, Comparator<TaskEntity> order, int limit) {
+        if (pages.size() == 1) {
+            return pages.get(0);
+        }
+        return pages.stream()
+                .flatMap(List::stream)
+                .sorted(order)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Passes every Task to the given sink, one at a time, as it is read from the
+     * database. The persistence context is cleared periodically so memory use
+     * stays flat regardless of the number of Tasks - the sink must not hold on
+     * to the entities it is given.
+     * <p>
+     * The Tasks are exported in ID order, so one shard at a time, each in a
+     * read-only transaction of its own.
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "export" }, histogram = true)
+    public void export(Consumer<TaskEntity> sink) {
+        var lastShard = this.taskShards.getShardCount() - 1;
+        for (int shard = 0; shard <= lastShard; shard++) {
+            var fromId = TaskShards.firstIdOf(shard);
+            var toId = shard == lastShard ? Long.MAX_VALUE : TaskShards.firstIdOf(shard + 1);
+            this.taskShards.onShard(shard, () -> readOnly(status -> exportIdRange(fromId, toId, sink)));
+        }
+    }
+
+    private int exportIdRange(long fromId, long toId, Consumer<TaskEntity> sink) {
+        try (var tasks = this.taskRepository.streamIdRange(fromId, toId)) {
+            var count = 0;
+            for (var iterator = tasks.iterator(); iterator.hasNext();) {
+                sink.accept(iterator.next());
+                if (++count % EXPORT_DETACH_INTERVAL == 0) {
+                    this.entityManager.clear();
+                }
+            }
+            return count;
+        }
+    }
+
+    @CacheEvict(key = "#id")
     @Transactional // this is the only non-atomic database update
+    @ShardRouted(ShardRouted.Key.TASK_ID)
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "updateTask" }, histogram = true)
     public void updateTask(Long id, Map<String, String> updates)
             throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException {
+        applyUpdates(find(id), updates);
+    }
+
+    /**
+     * Applies the given updates to the Task, provided it is still at the
+     * expected version. A null expected version applies the updates regardless.
+     * A status update queued for the Task by the {@link TaskStatusWriter} is
+     * written first, as the expected version may be the one it will give the
+     * Task. Any concurrent update committed after the version check is detected when
+     * this update commits, and is reported as an
+     * {@link org.springframework.dao.OptimisticLockingFailureException}.
+     */
+    @CacheEvict(key = "#id")
+    @Transactional
+    @ShardRouted(ShardRouted.Key.TASK_ID)
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "updateTask" }, histogram = true)
+    public void updateTask(Long id, Map<String, String> updates, Long expectedVersion)
+            throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException,
+            TaskVersionMismatchException {
 
         var task = find(id);
 
+        // the client may have been given the version the Task will be at once
+        // a queued status update is written, so that update is written first
+        var queued = this.statusOverlay.get(id);
+        if (queued != null && task.getVersion() != null && queued.getVersion() == task.getVersion() + 1) {
+            updateTaskStatus(task, queued.getStatus());
+            this.entityManager.flush();
+        }
+
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new TaskVersionMismatchException(
+                    "Task " + id + " is at version " + task.getVersion() + ", not " + expectedVersion);
+        }
+
+        applyUpdates(task, updates);
+    }
+
+    private void applyUpdates(TaskEntity task, Map<String, String> updates)
+            throws TaskStatusInvalidException, TaskUpdateNotSupportedException {
         for (var entry : updates.entrySet()) {
             if ("status".equalsIgnoreCase(entry.getKey())) {
                 updateTaskStatus(task, Status.valueOf(entry.getValue()));
@@ -52,6 +404,141 @@ public class TaskService {
         }
     }
 
+    /**
+     * Moves every Task with one of the given IDs to the new status, where the
+     * transition is permitted. Tasks already in the new status are neither
+     * updated nor rejected.
+     * <p>
+     * On each database, the Tasks that exist and those already in the new
+     * status are counted first. The Tasks to be changed are then moved a batch
+     * at a time, in ID order: each batch is read as snapshots with a
+     * pessimistic write lock, so a change event can be published for each
+     * Task, and moved by a single update statement. The rejected figure is
+     * worked out from the counts taken before the first batch, so may be off
+     * if other updates commit in between.
+     * <p>
+     * Each shard's database is updated in parallel, in a transaction of its
+     * own, so the update is only atomic within each database - if one fails,
+     * the others may still commit.
+     */
+    @CacheEvict(allEntries = true)
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "updateStatus" }, histogram = true)
+    public TaskBulkUpdateResult updateStatus(Collection<Long> ids, Status newStatus) {
+        var distinctIds = new HashSet<>(ids);
+        if (distinctIds.isEmpty()) {
+            return new TaskBulkUpdateResult(0, 0, 0);
+        }
+        return total(this.taskShards.onDatabasesOf(distinctIds, databaseIds -> this.transactionTemplate.execute(
+                status -> updateStatusOf(databaseIds, newStatus))));
+    }
+
+    private TaskBulkUpdateResult updateStatusOf(Collection<Long> distinctIds, Status newStatus) {
+        var existing = this.taskRepository.countByIdIn(distinctIds);
+        var unchanged = this.taskRepository.countByIdInAndStatus(distinctIds, newStatus);
+        var updated = updateStatusInBatches(newStatus, afterId -> this.taskRepository.findUpdatable(
+                distinctIds, afterId, newStatus, permittedSources(newStatus), STATUS_UPDATE_BATCH));
+        return new TaskBulkUpdateResult(updated, existing - unchanged - updated, distinctIds.size() - existing);
+    }
+
+    /**
+     * As {@link #updateStatus(Collection, Status)}, but for every Task matching
+     * the given filter.
+     */
+    @CacheEvict(allEntries = true)
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "updateStatus" }, histogram = true)
+    public TaskBulkUpdateResult updateStatus(TaskFilter filter, Status newStatus) {
+        return total(this.taskShards.onEachDatabase(database -> this.transactionTemplate.execute(
+                status -> updateStatusMatching(filter, newStatus))));
+    }
+
+    private TaskBulkUpdateResult updateStatusMatching(TaskFilter filter, Status newStatus) {
+        var matching = this.taskRepository.countMatching(
+                filter.getStatus(), filter.getDueFrom(), filter.getDueTo(), null);
+        var unchanged = this.taskRepository.countMatching(
+                filter.getStatus(), filter.getDueFrom(), filter.getDueTo(), newStatus);
+        var updated = updateStatusInBatches(newStatus, afterId -> this.taskRepository.findUpdatableMatching(
+                filter.getStatus(), filter.getDueFrom(), filter.getDueTo(), afterId, newStatus,
+                permittedSources(newStatus), STATUS_UPDATE_BATCH));
+        return new TaskBulkUpdateResult(updated, matching - unchanged - updated, 0);
+    }
+
+    /**
+     * Moves the Tasks returned by the given query, a batch at a time, to the
+     * new status, publishing a change event for each. The query is given the
+     * ID of the last Task in the previous batch.
+     *
+     * @return the number of Tasks changed
+     */
+    private long updateStatusInBatches(Status newStatus, LongFunction<List<TaskSnapshot>> nextBatch) {
+        var now = Instant.now();
+        var updated = 0L;
+        var afterId = Long.MIN_VALUE;
+        List<TaskSnapshot> batch;
+        do {
+            batch = nextBatch.apply(afterId);
+            if (batch.isEmpty()) {
+                break;
+            }
+            var ids = batch.stream().map(TaskSnapshot::getId).toList();
+            updated += this.taskRepository.updateStatus(ids, newStatus, permittedSources(newStatus), now);
+            batch.forEach(task -> this.eventPublisher.publishEvent(TaskChangeEvent.statusChanged(task, newStatus)));
+            afterId = ids.get(ids.size() - 1);
+        } while (batch.size() == STATUS_UPDATE_BATCH.getPageSize());
+        return updated;
+    }
+
+    private static TaskBulkUpdateResult total(List<TaskBulkUpdateResult> results) {
+        return new TaskBulkUpdateResult(
+                results.stream().mapToLong(TaskBulkUpdateResult::getUpdated).sum(),
+                results.stream().mapToLong(TaskBulkUpdateResult::getRejected).sum(),
+                results.stream().mapToLong(TaskBulkUpdateResult::getMissing).sum());
+    }
+
+    /**
+     * Applies status updates queued by the {@link TaskStatusWriter}, moving
+     * each Task to the status given for its ID. Tasks that no longer exist,
+     * have changed since the update was queued or may no longer be moved to
+     * the status are skipped.
+     *
+     * @return the number of Tasks updated
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "applyStatuses" }, histogram = true)
+    public int applyStatuses(Map<Long, TaskPendingStatus> statuses) {
+        return this.taskShards.onDatabasesOf(statuses.keySet(), ids -> this.transactionTemplate.execute(
+                status -> applyStatusesOf(ids, statuses))).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private int applyStatusesOf(Collection<Long> ids, Map<Long, TaskPendingStatus> statuses) {
+        var updated = 0;
+        for (var task : this.taskRepository.findAllById(ids)) {
+            var update = statuses.get(task.getId());
+            var newStatus = update.getStatus();
+            if (task.getVersion() == null || task.getVersion() != update.getVersion() - 1) {
+                log.info("Dropped queued update of Task {} to {}, as it has changed since it was queued",
+                        task.getId(), newStatus);
+                continue;
+            }
+            if (task.getStatus() == newStatus) {
+                continue;
+            }
+            try {
+                updateTaskStatus(task, newStatus);
+                updated++;
+            } catch (TaskStatusInvalidException e) {
+                log.warn("Dropped queued update of Task {} to {}: {}", task.getId(), newStatus, e.getMessage());
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * The statuses a Task may be moved to the given status from.
+     */
+    private static Set<Status> permittedSources(Status newStatus) {
+        // mirrors updateTaskStatus - nothing other than a NEW Task may be NEW
+        return newStatus == Status.NEW ? EnumSet.of(Status.NEW) : EnumSet.allOf(Status.class);
+    }
+
     private void updateTaskStatus(TaskEntity task, Status newStatus) throws TaskStatusInvalidException {
         var currentStatus = task.getStatus();
         if (currentStatus != newStatus) {
@@ -61,12 +548,23 @@ public class TaskService {
             if (newStatus == Status.NEW) {
                 throw new TaskStatusInvalidException("Task cannot be set to NEW once work has commenced.");
             }
+            var event = TaskChangeEvent.statusChanged(task, newStatus);
             task.setStatus(newStatus);
             this.taskRepository.save(task);
+            this.eventPublisher.publishEvent(event);
         }
     }
 
+    @CacheEvict(key = "#id")
+    @Transactional
+    @ShardRouted(ShardRouted.Key.TASK_ID)
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "delete" }, histogram = true)
     public void delete(Long id) {
-        this.taskRepository.deleteById(id);
+        this.taskRepository.findById(id).ifPresent(task -> {
+            this.taskRepository.delete(task);
+            // kept so that clients syncing changes learn of the deletion
+            this.entityManager.persist(new TaskTombstoneEntity(id, Instant.now()));
+            this.eventPublisher.publishEvent(TaskChangeEvent.deleted(task));
+        });
     }
 }
@@ -0,0 +1,17 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import java.util.List;
+
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+
+import lombok.Value;
+
+/**
+ * A single page of Tasks along with the cursor for the following page, or
+ * null if this is the last page.
+ */
+@Value
+public class TaskSlice {
+    List<TaskEntity> tasks;
+    TaskCursor next;
+}
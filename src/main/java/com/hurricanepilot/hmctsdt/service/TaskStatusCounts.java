@@ -0,0 +1,123 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.repository.TaskRepository;
+import com.hurricanepilot.hmctsdt.persistence.shard.TaskShards;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The number of Tasks in each status, kept in memory so they can be read in
+ * constant time however many Tasks there are.
+ * <p>
+ * The counts are loaded from the task table at startup, and then adjusted as
+ * each {@link TaskChangeEvent} published by the {@link TaskService} commits.
+ * As a change that commits while the counts are being read from the table
+ * may be counted twice or not at all, they are reconciled against the table
+ * periodically, which corrects any drift.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskStatusCounts implements ApplicationRunner {
+
+    private final TaskRepository taskRepository;
+
+    private final TaskShards taskShards;
+
+    private final Map<Status, LongAdder> counts = newCounts();
+
+    // set once the counts have first been loaded, after which any correction is drift
+    private volatile boolean loaded;
+
+    private static Map<Status, LongAdder> newCounts() {
+        var counts = new EnumMap<Status, LongAdder>(Status.class);
+        for (var status : Status.values()) {
+            counts.put(status, new LongAdder());
+        }
+        return counts;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        reconcile();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void changed(TaskChangeEvent event) {
+        switch (event.getType()) {
+            case CREATED -> counts.get(event.getStatus()).increment();
+            case STATUS_CHANGED -> {
+                counts.get(event.getPreviousStatus()).decrement();
+                counts.get(event.getStatus()).increment();
+            }
+            case DELETED -> counts.get(event.getStatus()).decrement();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void rebuilt(TaskTableRebuiltEvent event) {
+        reconcile();
+    }
+
+    public long get(Status status) {
+        return counts.get(status).sum();
+    }
+
+    /**
+     * A copy of the count for every status.
+     */
+    public Map<Status, Long> getAll() {
+        var all = new EnumMap<Status, Long>(Status.class);
+        counts.forEach((status, count) -> all.put(status, count.sum()));
+        return all;
+    }
+
+    /**
+     * Corrects the counts to match a {@code GROUP BY} count of the task table.
+     * A count that changes while the table is being read is left alone until
+     * the next reconciliation, as the change may or may not have been read.
+     */
+    @Scheduled(initialDelayString = "${hmcts.status-counts.reconcile-interval:PT5M}",
+            fixedDelayString = "${hmcts.status-counts.reconcile-interval:PT5M}")
+    public void reconcile() {
+        var before = getAll();
+        var stored = new EnumMap<Status, Long>(Status.class);
+        for (var status : Status.values()) {
+            stored.put(status, 0L);
+        }
+        // summed across every shard's database
+        for (var rows : taskShards.onEachDatabase(database -> taskRepository.countGroupedByStatus())) {
+            for (var row : rows) {
+                stored.merge((Status) row[0], (Long) row[1], Long::sum);
+            }
+        }
+
+        stored.forEach((status, count) -> {
+            var counter = counts.get(status);
+            var current = counter.sum();
+            if (current != before.get(status)) {
+                return;
+            }
+            var drift = count - current;
+            if (drift != 0) {
+                counter.add(drift);
+                if (loaded) {
+                    log.warn("Corrected the {} Task count by {}", status, drift);
+                }
+            }
+        });
+        loaded = true;
+    }
+}
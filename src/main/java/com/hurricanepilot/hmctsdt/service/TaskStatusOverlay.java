@@ -0,0 +1,109 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+
+import lombok.Value;
+
+/**
+ * The status changes accepted by the {@link TaskStatusWriter}, keyed by Task
+ * ID. Lookups apply them to the Tasks they read, so a client sees its own
+ * change as soon as it has been accepted.
+ * <p>
+ * A change is kept after it has been written, until a lookup reads the Task
+ * at the version the change brought it to. A lookup that read the Task just
+ * before the write committed still applies the change, so can't cache the
+ * Task as it was. Written changes no lookup has caught up with are swept
+ * after a while.
+ */
+@Component
+public class TaskStatusOverlay {
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    void put(Long id, TaskPendingStatus status) {
+        pending.put(id, new Pending(status, null));
+    }
+
+    TaskPendingStatus get(Long id) {
+        var entry = pending.get(id);
+        return entry == null ? null : entry.getStatus();
+    }
+
+    /**
+     * Removes the pending change for the given Task, unless it has since been
+     * replaced by a later change.
+     */
+    void remove(Long id, TaskPendingStatus status) {
+        pending.computeIfPresent(id, (key, entry) -> entry.getStatus().equals(status) ? null : entry);
+    }
+
+    /**
+     * Records that the pending change for the given Task has been written,
+     * unless it has since been replaced by a later change.
+     */
+    void written(Long id, TaskPendingStatus status, Instant at) {
+        pending.computeIfPresent(id,
+                (key, entry) -> entry.getStatus().equals(status) ? new Pending(status, at) : entry);
+    }
+
+    /**
+     * Removes the changes written before the given time.
+     *
+     * @return the IDs of the Tasks whose change was removed
+     */
+    List<Long> sweep(Instant writtenBefore) {
+        var swept = new ArrayList<Long>();
+        pending.forEach((id, entry) -> {
+            if (entry.getWrittenAt() != null && entry.getWrittenAt().isBefore(writtenBefore)
+                    && pending.remove(id, entry)) {
+                swept.add(id);
+            }
+        });
+        return swept;
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /**
+     * The given Task as it will be once its pending change is written. The
+     * Task itself is never modified - a copy is returned if there is a change
+     * to apply - as it may be shared with other callers.
+     */
+    public TaskEntity apply(TaskEntity task) {
+        var entry = pending.get(task.getId());
+        if (entry == null) {
+            return task;
+        }
+        var status = entry.getStatus();
+        if (task.getVersion() != null && task.getVersion() >= status.getVersion()) {
+            // the Task read already has the change, or a later one
+            pending.remove(task.getId(), entry);
+            return task;
+        }
+        if (status.getStatus() == task.getStatus()) {
+            return task;
+        }
+        var copy = new TaskEntity(task.getTitle(), task.getDescription(), task.getDueDateTime());
+        copy.setId(task.getId());
+        copy.setStatus(status.getStatus());
+        copy.setVersion(status.getVersion());
+        copy.setLastModified(task.getLastModified());
+        return copy;
+    }
+
+    @Value
+    private static class Pending {
+        TaskPendingStatus status;
+        Instant writtenAt;
+    }
+}
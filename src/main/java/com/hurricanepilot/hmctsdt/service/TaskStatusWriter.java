@@ -0,0 +1,271 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.service.exception.TaskNotFoundException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskStatusInvalidException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskUpdateNotSupportedException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskWriteQueueFullException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind for Task status updates, enabled by
+ * {@code hmcts.write-behind.enabled}. An update is validated against the
+ * Task's current state and queued, and the caller can return as soon as it
+ * has been accepted; a single writer thread applies the queued updates in
+ * batches, each in one transaction.
+ * <p>
+ * Only the latest update queued for a Task is kept, so a Task updated many
+ * times before the writer reaches it is written once. Accepted updates are
+ * held in the {@link TaskStatusOverlay} until written, so lookups reflect
+ * them immediately, and for a short while after, so a lookup racing the
+ * write can't cache the Task as it was before. The queue is bounded by the number of Tasks with a
+ * pending update; once full, updates for any other Task are refused until
+ * the writer catches up.
+ * <p>
+ * As with the journal, updates still queued when the process dies are lost,
+ * and an update that can no longer be applied when it is written (e.g.
+ * because the Task has been deleted, or changed by another update) is
+ * dropped.
+ */
+@Slf4j
+@Component
+public class TaskStatusWriter implements SmartLifecycle {
+
+    /** The gauge reporting the number of Tasks with a queued status update */
+    public static final String QUEUE_SIZE_GAUGE = "tasks.write.behind.queued";
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(5);
+
+    /** How long a written update stays in the overlay if no lookup catches up */
+    private static final Duration OVERLAY_GRACE = Duration.ofSeconds(5);
+
+    private final TaskService taskService;
+
+    private final TaskStatusOverlay overlay;
+
+    private final CacheManager cacheManager;
+
+    private final boolean enabled;
+
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    // guarded by lock
+    private final LinkedHashMap<Long, TaskPendingStatus> queued = new LinkedHashMap<>();
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    @Autowired
+    public TaskStatusWriter(TaskService taskService, TaskStatusOverlay overlay, CacheManager cacheManager,
+            MeterRegistry meterRegistry,
+            @Value("${hmcts.write-behind.enabled:false}") boolean enabled,
+            @Value("${hmcts.write-behind.capacity:10000}") int capacity) {
+        this.taskService = taskService;
+        this.overlay = overlay;
+        this.cacheManager = cacheManager;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        Gauge.builder(QUEUE_SIZE_GAUGE, this, TaskStatusWriter::queuedCount)
+                .description("The number of Tasks with a status update waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Validates the updates against the Task's current state - including any
+     * update already queued for it - and queues them to be written.
+     *
+     * @throws TaskWriteQueueFullException if the queue is full
+     */
+    public void submit(Long id, Map<String, String> updates) throws TaskNotFoundException,
+            TaskStatusInvalidException, TaskUpdateNotSupportedException, TaskWriteQueueFullException {
+        Status newStatus = null;
+        for (var entry : updates.entrySet()) {
+            if ("status".equalsIgnoreCase(entry.getKey())) {
+                newStatus = Status.valueOf(entry.getValue());
+            } else {
+                throw new TaskUpdateNotSupportedException(entry.getKey());
+            }
+        }
+
+        var task = taskService.find(id);
+        if (newStatus == Status.NEW && task.getStatus() != Status.NEW) {
+            throw new TaskStatusInvalidException("Task cannot be set to NEW once work has commenced.");
+        }
+        if (newStatus == null || newStatus == task.getStatus()) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            var current = queued.get(id);
+            if (current == null && queued.size() >= capacity) {
+                throw new TaskWriteQueueFullException("Too many Task updates are waiting to be written");
+            }
+            // replacing a queued update doesn't add another write, so another
+            // version. Otherwise the Task read above already shows any update
+            // being written
+            var version = current != null ? current.getVersion()
+                    : (task.getVersion() == null ? 0 : task.getVersion()) + 1;
+            var update = new TaskPendingStatus(newStatus, version);
+            queued.put(id, update);
+            overlay.put(id, update);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        // the cached Task no longer reflects the update
+        evict(id);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (enabled) {
+            writer = Thread.ofPlatform().name("task-status-writer").daemon().start(this::drain);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join(STOP_TIMEOUT.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // stop after the web server, so updates accepted by in-flight
+        // requests are still written
+        return DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        while (running || queuedCount() > 0) {
+            try {
+                writeQueued(100, TimeUnit.MILLISECONDS);
+                sweepWritten(Instant.now());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes the next batch of queued updates, waiting up to the given time
+     * for one to be queued.
+     *
+     * @return the number of updates written
+     */
+    int writeQueued(long timeout, TimeUnit unit) throws InterruptedException {
+        var batch = new LinkedHashMap<Long, TaskPendingStatus>();
+        lock.lock();
+        try {
+            var remaining = unit.toNanos(timeout);
+            while (queued.isEmpty() && running && remaining > 0) {
+                remaining = notEmpty.awaitNanos(remaining);
+            }
+            var iterator = queued.entrySet().iterator();
+            while (iterator.hasNext() && batch.size() < BATCH_SIZE) {
+                var entry = iterator.next();
+                batch.put(entry.getKey(), entry.getValue());
+                iterator.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            taskService.applyStatuses(batch);
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} queued Task status updates", batch.size(), e);
+            // the overlay is removed first, so a failed update can't be cached
+            batch.forEach((id, status) -> {
+                overlay.remove(id, status);
+                evict(id);
+            });
+            return batch.size();
+        }
+        // the overlay is kept until a lookup reads the written Task, as one
+        // that read it before the write committed may yet cache it
+        var writtenAt = Instant.now();
+        batch.forEach((id, status) -> {
+            overlay.written(id, status, writtenAt);
+            evict(id);
+        });
+        return batch.size();
+    }
+
+    /**
+     * Removes written updates from the overlay once they have been written
+     * for longer than any lookup should take, evicting the Tasks again in
+     * case a slow lookup cached one as it was before the write.
+     */
+    void sweepWritten(Instant now) {
+        overlay.sweep(now.minus(OVERLAY_GRACE)).forEach(this::evict);
+    }
+
+    private int queuedCount() {
+        lock.lock();
+        try {
+            return queued.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evict(Long id) {
+        var cache = cacheManager.getCache(TaskService.TASK_CACHE);
+        if (cache != null) {
+            cache.evict(id);
+        }
+    }
+}
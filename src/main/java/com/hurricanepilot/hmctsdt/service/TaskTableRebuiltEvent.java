@@ -0,0 +1,12 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import lombok.Value;
+
+/**
+ * Published when the task table has been replaced wholesale by
+ * {@link TaskJournal#rebuild()}, rather than by individual changes.
+ */
+@Value
+public class TaskTableRebuiltEvent {
+    int restored;
+}
@@ -0,0 +1,7 @@
+package com.hurricanepilot.hmctsdt.service.exception;
+
+import lombok.experimental.StandardException;
+
+@StandardException
+public class TaskWriteQueueFullException extends Exception {
+}
@@ -0,0 +1,21 @@
+-- IDs are allocated in blocks of 50 by the pooled optimiser, see TaskEntity
+create sequence task_seq start with 1 increment by 50;
+
+create table task (
+    id bigint not null,
+    title varchar(80) not null,
+    description varchar(2000),
+    -- Status ordinal
+    status tinyint not null check (status between 0 and 3),
+    due_date_time timestamp(6) with time zone not null,
+    version bigint not null default 0,
+    primary key (id)
+);
+
+-- Tasks in a status, optionally limited to a due date range
+-- (e.g. overdue, or due today), in due date order
+create index idx_task_status_due on task (status, due_date_time);
+
+-- due date ranges across all statuses, and the keyset (due date, id)
+-- ordering used for paging through the Task list
+create index idx_task_due on task (due_date_time, id);
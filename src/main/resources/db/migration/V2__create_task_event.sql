@@ -0,0 +1,22 @@
+-- the append-only Task change journal, see TaskJournal. Rows are only ever
+-- inserted, in batches
+create sequence task_event_seq start with 1 increment by 50;
+
+create table task_event (
+    id bigint not null,
+    task_id bigint not null,
+    -- TaskChangeType ordinal
+    type tinyint not null check (type between 0 and 2),
+    occurred_at timestamp(6) with time zone not null,
+    title varchar(80) not null,
+    description varchar(2000),
+    -- Status ordinals
+    status tinyint not null check (status between 0 and 3),
+    previous_status tinyint check (previous_status between 0 and 3),
+    due_date_time timestamp(6) with time zone not null,
+    version bigint not null,
+    primary key (id)
+);
+
+-- a Task's history, in the order it was recorded
+create index idx_task_event_task on task_event (task_id, id);
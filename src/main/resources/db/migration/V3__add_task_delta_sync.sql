@@ -0,0 +1,13 @@
+-- when each Task was created or last changed, for delta sync (GET /tasks?since=)
+alter table task add column last_modified timestamp(6) with time zone default current_timestamp not null;
+
+create index idx_task_modified on task (last_modified, id);
+
+-- the Tasks that have been deleted, so delta sync can tell clients to remove them
+create table task_tombstone (
+    task_id bigint not null,
+    deleted_at timestamp(6) with time zone not null,
+    primary key (task_id)
+);
+
+create index idx_task_tombstone_deleted on task_tombstone (deleted_at);
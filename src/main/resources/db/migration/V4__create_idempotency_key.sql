@@ -0,0 +1,11 @@
+-- the Idempotency-Key of each Task creation, and the Task it created - only
+-- used when hmcts.idempotency.persistent is enabled
+create table idempotency_key (
+    idempotency_key varchar(255) not null,
+    task_id bigint not null,
+    fingerprint integer not null,
+    created_at timestamp(6) with time zone not null,
+    primary key (idempotency_key)
+);
+
+create index idx_idempotency_key_created on idempotency_key (created_at);
@@ -0,0 +1,8 @@
+-- the database holding each Task shard, when sharding is enabled - only read
+-- from the home database, see TaskShardRebalancer. Shards with no row are held
+-- by database (shard % databases)
+create table task_shard (
+    shard integer not null,
+    database_index integer not null,
+    primary key (shard)
+);
@@ -0,0 +1,9 @@
+-- the fingerprint of each request is now its SHA-256 digest, in hex, rather
+-- than a 32-bit hash. Keys stored with the old fingerprint can't be compared
+-- with the new one, so are dropped - a retry of one of those creations within
+-- the TTL creates a new Task
+delete from idempotency_key;
+
+alter table idempotency_key drop column fingerprint;
+
+alter table idempotency_key add column fingerprint varchar(64) not null;
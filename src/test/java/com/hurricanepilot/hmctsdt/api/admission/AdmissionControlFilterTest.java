@@ -0,0 +1,137 @@
+package com.hurricanepilot.hmctsdt.api.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+
+class AdmissionControlFilterTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    LoadMonitor loadMonitor = new LoadMonitor(meterRegistry, Duration.ofMillis(100), Duration.ofMillis(100),
+            Duration.ofHours(1));
+
+    AdmissionControlFilter filter(int burst, int listLimit) {
+        return new AdmissionControlFilter(new ClientRateLimiter(1, burst, 100), loadMonitor,
+                Map.of(EndpointClass.LIST, listLimit), new ClientIdentity("X-Client-Id", List.of("127.0.0.1")),
+                new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void testAdmitted() throws Exception {
+        var response = new MockHttpServletResponse();
+        var chain = new MockFilterChain();
+
+        filter(1, 1).doFilter(new MockHttpServletRequest("GET", "/tasks"), response, chain);
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void testRateLimited() throws Exception {
+        var filter = filter(1, 1);
+        filter.doFilter(request("GET", "/tasks/1", "client"), new MockHttpServletResponse(), new MockFilterChain());
+
+        var response = new MockHttpServletResponse();
+        var chain = new MockFilterChain();
+        filter.doFilter(request("GET", "/tasks/1", "client"), response, chain);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("{\"status\":429,\"reason\":\"Too many requests from this client\"}",
+                response.getContentAsString());
+        assertNull(chain.getRequest());
+        assertEquals(1, rejected("READ", "rate_limited"));
+
+        // other clients are unaffected
+        var other = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/tasks/1", "other"), other, new MockFilterChain());
+        assertEquals(HttpStatus.OK.value(), other.getStatus());
+    }
+
+    @Test
+    void testConcurrencyLimited() throws Exception {
+        var filter = filter(10, 1);
+        var response = new MockHttpServletResponse();
+
+        // a second list request arrives while the first is being served
+        filter.doFilter(request("GET", "/tasks", "first"), new MockHttpServletResponse(),
+                (req, res) -> filter.doFilter(request("GET", "/tasks", "second"), response, new MockFilterChain()));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+        assertNotNull(response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, rejected("LIST", "concurrency"));
+
+        // the permit is returned once the first request completes
+        var next = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/tasks", "second"), next, new MockFilterChain());
+        assertEquals(HttpStatus.OK.value(), next.getStatus());
+    }
+
+    @Test
+    void testShed() throws Exception {
+        var filter = filter(10, 10);
+        loadMonitor.record(Duration.ofMillis(150).toNanos());
+        loadMonitor.assess();
+
+        var list = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/tasks", "client"), list, new MockFilterChain());
+        var write = new MockHttpServletResponse();
+        filter.doFilter(request("PATCH", "/tasks/1", "client"), write, new MockFilterChain());
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), list.getStatus());
+        assertEquals(1, rejected("LIST", "shed"));
+        assertEquals(HttpStatus.OK.value(), write.getStatus());
+    }
+
+    @Test
+    void testOtherPathsNotLimited() throws Exception {
+        var filter = filter(1, 1);
+        for (int i = 0; i < 3; i++) {
+            var response = new MockHttpServletResponse();
+            filter.doFilter(request("GET", "/actuator/health", "client"), response, new MockFilterChain());
+            assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        }
+    }
+
+    @Test
+    void testEndpointClass() {
+        assertEquals(EndpointClass.LIST, EndpointClass.of(new MockHttpServletRequest("GET", "/tasks")));
+        assertEquals(EndpointClass.LIST, EndpointClass.of(new MockHttpServletRequest("GET", "/tasks/export")));
+        assertEquals(EndpointClass.LIST, EndpointClass.of(new MockHttpServletRequest("GET", "/tasks/search")));
+        assertEquals(EndpointClass.LIST, EndpointClass.of(new MockHttpServletRequest("GET", "/tasks/overdue")));
+        assertEquals(EndpointClass.READ, EndpointClass.of(new MockHttpServletRequest("GET", "/tasks/1/history")));
+        assertEquals(EndpointClass.READ, EndpointClass.of(new MockHttpServletRequest("GET", "/tasks/summary")));
+        assertEquals(EndpointClass.STREAM, EndpointClass.of(new MockHttpServletRequest("GET", "/tasks/changes")));
+        assertEquals(EndpointClass.WRITE, EndpointClass.of(new MockHttpServletRequest("POST", "/tasks/batch")));
+        assertNull(EndpointClass.of(new MockHttpServletRequest("GET", "/taskstats")));
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String client) {
+        var request = new MockHttpServletRequest(method, uri);
+        request.addHeader("X-Client-Id", client);
+        return request;
+    }
+
+    private double rejected(String endpoint, String reason) {
+        return meterRegistry.get(AdmissionControlFilter.REJECTED_COUNTER)
+                .tag("class", endpoint).tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,48 @@
+package com.hurricanepilot.hmctsdt.api.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class ClientIdentityTest {
+
+    ClientIdentity clientIdentity = new ClientIdentity("X-Client-Id", List.of("10.0.0.1", " 10.0.0.2"));
+
+    @Test
+    void testHeaderFromTrustedProxy() {
+        assertEquals("client", clientIdentity.of(request("10.0.0.1", "client")));
+        assertEquals("client", clientIdentity.of(request("10.0.0.2", "client")));
+        // the proxy itself, when it sends no header
+        assertEquals("10.0.0.1", clientIdentity.of(request("10.0.0.1", null)));
+    }
+
+    @Test
+    void testHeaderIgnoredFromOtherAddresses() {
+        assertEquals("192.168.0.9", clientIdentity.of(request("192.168.0.9", "someone-else")));
+    }
+
+    @Test
+    void testByAddressWithoutHeader() {
+        var byAddress = new ClientIdentity("", List.of());
+
+        assertEquals("10.0.0.1", byAddress.of(request("10.0.0.1", "client")));
+    }
+
+    @Test
+    void testHeaderRequiresTrustedProxies() {
+        assertThrows(IllegalArgumentException.class, () -> new ClientIdentity("X-Client-Id", List.of("")));
+    }
+
+    private static MockHttpServletRequest request(String address, String client) {
+        var request = new MockHttpServletRequest("GET", "/tasks/1");
+        request.setRemoteAddr(address);
+        if (client != null) {
+            request.addHeader("X-Client-Id", client);
+        }
+        return request;
+    }
+}
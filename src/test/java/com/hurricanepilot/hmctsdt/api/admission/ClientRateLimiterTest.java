@@ -0,0 +1,46 @@
+package com.hurricanepilot.hmctsdt.api.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class ClientRateLimiterTest {
+
+    @Test
+    void testAcquireAllowsBurst() {
+        var rateLimiter = new ClientRateLimiter(1, 5, 100);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.acquire("client"));
+        }
+        var wait = rateLimiter.acquire("client");
+
+        // the next token is due in (just under) a second
+        assertTrue(wait > 0);
+        assertTrue(wait <= Duration.ofSeconds(1).toNanos());
+    }
+
+    @Test
+    void testAcquireIsPerClient() {
+        var rateLimiter = new ClientRateLimiter(1, 1, 100);
+
+        assertEquals(0, rateLimiter.acquire("first"));
+        assertTrue(rateLimiter.acquire("first") > 0);
+        assertEquals(0, rateLimiter.acquire("second"));
+    }
+
+    @Test
+    void testAcquireRefills() throws InterruptedException {
+        var rateLimiter = new ClientRateLimiter(100, 1, 100);
+
+        assertEquals(0, rateLimiter.acquire("client"));
+        assertTrue(rateLimiter.acquire("client") > 0);
+
+        Thread.sleep(20);
+
+        assertEquals(0, rateLimiter.acquire("client"));
+    }
+}
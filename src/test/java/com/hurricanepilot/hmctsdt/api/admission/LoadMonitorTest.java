@@ -0,0 +1,67 @@
+package com.hurricanepilot.hmctsdt.api.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoadMonitorTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    LoadMonitor loadMonitor = new LoadMonitor(meterRegistry, Duration.ofMillis(100), Duration.ofMillis(10),
+            Duration.ofHours(1));
+
+    @Test
+    void testNoShedding() {
+        loadMonitor.record(Duration.ofMillis(50).toNanos());
+        loadMonitor.assess();
+
+        assertEquals(0, loadMonitor.getLevel());
+        assertFalse(loadMonitor.sheds(EndpointClass.LIST));
+    }
+
+    @Test
+    void testShedsListsOnLatency() {
+        loadMonitor.record(Duration.ofMillis(100).toNanos());
+        loadMonitor.record(Duration.ofMillis(200).toNanos());
+        loadMonitor.assess();
+
+        assertEquals(1, loadMonitor.getLevel());
+        assertTrue(loadMonitor.sheds(EndpointClass.LIST));
+        assertFalse(loadMonitor.sheds(EndpointClass.READ));
+        assertFalse(loadMonitor.sheds(EndpointClass.WRITE));
+    }
+
+    @Test
+    void testShedsReadsOnPoolWait() {
+        var acquire = Timer.builder(LoadMonitor.POOL_ACQUIRE_TIMER).tag("pool", "test").register(meterRegistry);
+        acquire.record(Duration.ofMillis(30));
+
+        loadMonitor.assess();
+
+        assertEquals(2, loadMonitor.getLevel());
+        assertTrue(loadMonitor.sheds(EndpointClass.LIST));
+        assertTrue(loadMonitor.sheds(EndpointClass.READ));
+        assertFalse(loadMonitor.sheds(EndpointClass.WRITE));
+        assertFalse(loadMonitor.sheds(EndpointClass.STREAM));
+    }
+
+    @Test
+    void testSheddingStopsOnRecovery() {
+        loadMonitor.record(Duration.ofSeconds(1).toNanos());
+        loadMonitor.assess();
+        assertEquals(2, loadMonitor.getLevel());
+
+        // nothing served in the next interval, as everything was shed
+        loadMonitor.assess();
+
+        assertEquals(0, loadMonitor.getLevel());
+    }
+}
@@ -0,0 +1,165 @@
+package com.hurricanepilot.hmctsdt.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.constants.TaskChangeType;
+import com.hurricanepilot.hmctsdt.service.TaskChangeEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TaskChangeFeedTest {
+
+    ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // runs each subscriber's deliveries straight away, on the publishing thread
+    TaskChangeFeed feed = new TaskChangeFeed(objectMapper, meterRegistry, 8, 4, Duration.ZERO, Duration.ofMinutes(1),
+            Runnable::run);
+
+    @Test
+    void testPublish() {
+        var subscriber = new RecordingEmitter();
+        feed.subscribe(subscriber, null);
+
+        feed.publish(event(1L, TaskChangeType.CREATED));
+        feed.publish(event(1L, TaskChangeType.STATUS_CHANGED));
+        feed.publish(event(1L, TaskChangeType.DELETED));
+
+        assertEquals(List.of("created", "status_changed", "deleted"), subscriber.names());
+        assertTrue(subscriber.events.get(0).contains("\"id\":1"));
+        assertTrue(subscriber.events.get(1).contains("\"previousStatus\":\"NEW\""));
+        assertEquals(1, meterRegistry.get("tasks.changes.subscribers").gauge().value());
+    }
+
+    @Test
+    void testResume() {
+        var first = new RecordingEmitter();
+        feed.subscribe(first, null);
+        feed.publish(event(1L, TaskChangeType.CREATED));
+        feed.publish(event(2L, TaskChangeType.CREATED));
+        feed.publish(event(3L, TaskChangeType.CREATED));
+
+        // reconnect having only seen the first change
+        var resumed = new RecordingEmitter();
+        feed.subscribe(resumed, first.ids().get(0));
+
+        assertEquals(first.ids().subList(1, 3), resumed.ids());
+    }
+
+    @Test
+    void testResumeFromUnknownEvent() {
+        feed.publish(event(1L, TaskChangeType.CREATED));
+
+        var resumed = new RecordingEmitter();
+        feed.subscribe(resumed, "previous-boot:1");
+
+        assertEquals(List.of(TaskChangeFeed.RESYNC_EVENT), resumed.names());
+        assertEquals(1, meterRegistry.get("tasks.changes.resyncs").counter().count());
+    }
+
+    @Test
+    void testResumeBeyondReplay() {
+        var first = new RecordingEmitter();
+        feed.subscribe(first, null);
+        for (long id = 1; id <= 12; id++) {
+            feed.publish(event(id, TaskChangeType.CREATED));
+        }
+
+        // the first change is no longer retained
+        var resumed = new RecordingEmitter();
+        feed.subscribe(resumed, first.ids().get(0));
+
+        assertEquals(List.of(TaskChangeFeed.RESYNC_EVENT), resumed.names());
+    }
+
+    @Test
+    void testSlowSubscriberResynced() {
+        // hold on to the deliveries rather than running them, as if the
+        // subscriber were slow to receive
+        var pending = new ArrayList<Runnable>();
+        Executor slow = pending::add;
+        var slowFeed = new TaskChangeFeed(objectMapper, meterRegistry, 8, 4, Duration.ZERO, Duration.ofMinutes(1),
+                slow);
+        var subscriber = new RecordingEmitter();
+        slowFeed.subscribe(subscriber, null);
+
+        // overflows the buffer of 4 on the 5th change
+        for (long id = 1; id <= 6; id++) {
+            slowFeed.publish(event(id, TaskChangeType.CREATED));
+        }
+        pending.forEach(Runnable::run);
+
+        assertEquals(List.of(TaskChangeFeed.RESYNC_EVENT, "created"), subscriber.names());
+        assertTrue(subscriber.events.get(1).contains("\"id\":6"));
+    }
+
+    @Test
+    void testCompletedSubscriberRemoved() {
+        var subscriber = new RecordingEmitter();
+        subscriber.failing = true;
+        feed.subscribe(subscriber, null);
+
+        feed.publish(event(1L, TaskChangeType.CREATED));
+
+        assertEquals(0, meterRegistry.get("tasks.changes.subscribers").gauge().value());
+    }
+
+    private static TaskChangeEvent event(Long taskId, TaskChangeType type) {
+        return new TaskChangeEvent(taskId, type, Instant.now(), "Task " + taskId, null,
+                type == TaskChangeType.CREATED ? Status.NEW : Status.IN_PROGRESS,
+                type == TaskChangeType.STATUS_CHANGED ? Status.NEW : null,
+                ZonedDateTime.now(), 0);
+    }
+
+    /**
+     * Records the text of each event sent, rather than writing it to a
+     * response.
+     */
+    static class RecordingEmitter extends SseEmitter {
+
+        final List<String> events = new ArrayList<>();
+
+        boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            events.add(builder.build().stream()
+                    .map(data -> data.getData().toString())
+                    .collect(Collectors.joining()));
+        }
+
+        List<String> names() {
+            return field("event:");
+        }
+
+        List<String> ids() {
+            return field("id:");
+        }
+
+        private List<String> field(String prefix) {
+            return events.stream()
+                    .flatMap(event -> event.lines().filter(line -> line.startsWith(prefix)))
+                    .map(line -> line.substring(prefix.length()))
+                    .toList();
+        }
+    }
+}
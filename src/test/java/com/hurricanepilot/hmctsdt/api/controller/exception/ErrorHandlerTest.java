@@ -9,21 +9,33 @@ import static org.mockito.Mockito.when;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import com.hurricanepilot.hmctsdt.api.model.ErrorDetail;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.service.exception.TaskCursorInvalidException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskIdempotencyKeyReusedException;
 import com.hurricanepilot.hmctsdt.service.exception.TaskNotFoundException;
 import com.hurricanepilot.hmctsdt.service.exception.TaskStatusInvalidException;
 import com.hurricanepilot.hmctsdt.service.exception.TaskUpdateNotSupportedException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskVersionMismatchException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskWriteQueueFullException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 class ErrorHandlerTest {
 
-    ErrorHandler errorHandler = new ErrorHandler();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    ErrorHandler errorHandler = new ErrorHandler(meterRegistry);
 
 	@Test
 	void testHandleError() {
@@ -36,6 +48,7 @@ class ErrorHandlerTest {
         assertNotNull(error);
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR.value(), error.getStatus());
         assertEquals("Internal Server Error", error.getReason());
+        assertEquals(1, errorCount("internal"));
 	}
 
 	@Test
@@ -49,6 +62,7 @@ class ErrorHandlerTest {
         assertNotNull(error);
         assertEquals(HttpStatus.BAD_REQUEST.value(), error.getStatus());
         assertEquals("Invalid status", error.getReason());
+        assertEquals(1, errorCount("status_invalid"));
 	}
 
 	@Test
@@ -62,6 +76,7 @@ class ErrorHandlerTest {
         assertNotNull(error);
         assertEquals(HttpStatus.BAD_REQUEST.value(), error.getStatus());
         assertEquals("Update not supported", error.getReason());
+        assertEquals(1, errorCount("update_not_supported"));
 	}
 
 	@Test
@@ -75,6 +90,91 @@ class ErrorHandlerTest {
         assertNotNull(error);
         assertEquals(HttpStatus.NOT_FOUND.value(), error.getStatus());
         assertEquals("Task not found", error.getReason());
+        assertEquals(1, errorCount("not_found"));
+        assertEquals(0, errorCount("status_invalid"));
+	}
+
+	@Test
+	void testHandleInvalidCursor() {
+        TaskCursorInvalidException e = new TaskCursorInvalidException("Invalid cursor: xyz");
+
+        ResponseEntity<ErrorDetail> response = errorHandler.handleInvalidCursor(e);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        ErrorDetail error = response.getBody();
+        assertNotNull(error);
+        assertEquals(HttpStatus.BAD_REQUEST.value(), error.getStatus());
+        assertEquals("Invalid cursor: xyz", error.getReason());
+	}
+
+	@Test
+	void testHandleVersionMismatch() {
+        TaskVersionMismatchException e = new TaskVersionMismatchException("Task 1 is at version 4, not 3");
+
+        ResponseEntity<ErrorDetail> response = errorHandler.handleVersionMismatch(e);
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+        ErrorDetail error = response.getBody();
+        assertNotNull(error);
+        assertEquals(HttpStatus.PRECONDITION_FAILED.value(), error.getStatus());
+        assertEquals("Task 1 is at version 4, not 3", error.getReason());
+        assertEquals(1, errorCount("version_mismatch"));
+	}
+
+	@Test
+	void testHandleIdempotencyKeyReused() {
+        var e = new TaskIdempotencyKeyReusedException("Idempotency-Key abc has already been used for a different Task");
+
+        ResponseEntity<ErrorDetail> response = errorHandler.handleIdempotencyKeyReused(e);
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        ErrorDetail error = response.getBody();
+        assertNotNull(error);
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY.value(), error.getStatus());
+        assertEquals("Idempotency-Key abc has already been used for a different Task", error.getReason());
+        assertEquals(1, errorCount("idempotency_key_reused"));
+	}
+
+	@Test
+	void testHandleWriteQueueFull() {
+        var e = new TaskWriteQueueFullException("Too many Task updates are waiting to be written");
+
+        ResponseEntity<ErrorDetail> response = errorHandler.handleWriteQueueFull(e);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        ErrorDetail error = response.getBody();
+        assertNotNull(error);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), error.getStatus());
+        assertEquals(1, errorCount("write_queue_full"));
+	}
+
+	@Test
+	void testHandleConcurrentUpdate() {
+        var e = new ObjectOptimisticLockingFailureException(TaskEntity.class, 1L);
+
+        ResponseEntity<ErrorDetail> response = errorHandler.handleConcurrentUpdate(e);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        ErrorDetail error = response.getBody();
+        assertNotNull(error);
+        assertEquals(HttpStatus.CONFLICT.value(), error.getStatus());
+        assertEquals(1, errorCount("concurrent_update"));
+	}
+
+	@Test
+	void testHandleTypeMismatch() {
+        var exceptionMock = mock(MethodArgumentTypeMismatchException.class);
+        when(exceptionMock.getName()).thenReturn("status");
+        when(exceptionMock.getValue()).thenReturn("WIBBLE");
+
+        ResponseEntity<ErrorDetail> response = errorHandler.handleTypeMismatch(exceptionMock);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        ErrorDetail error = response.getBody();
+        assertNotNull(error);
+        assertEquals(HttpStatus.BAD_REQUEST.value(), error.getStatus());
+        assertEquals("Invalid value for status: WIBBLE", error.getReason());
 	}
 
 	@Test
@@ -119,4 +219,9 @@ class ErrorHandlerTest {
         assertTrue(reason.contains("task1: Title is missing"));
         assertTrue(reason.contains("Description is too long"));
 	}
+
+    private double errorCount(String type) {
+        var counter = meterRegistry.find(ErrorHandler.ERROR_COUNTER).tag("type", type).counter();
+        return counter == null ? 0 : counter.count();
+    }
 }
@@ -0,0 +1,57 @@
+package com.hurricanepilot.hmctsdt.api.converter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.hurricanepilot.hmctsdt.api.model.Task;
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+
+class TaskEntitySerializerTest {
+
+    // configured as Spring Boot configures it
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .modulesToInstall(new SimpleModule().addSerializer(new TaskEntitySerializer()))
+            .build();
+
+    @Test
+    void testSerialiseMatchesTask() throws JsonProcessingException {
+        var tasks = List.of(task(1L, "First", Status.IN_PROGRESS), task(2L, null, Status.NEW));
+
+        assertEquals(objectMapper.writeValueAsString(tasks.stream().map(Task::fromEntity).toList()),
+                objectMapper.writeValueAsString(tasks));
+        // the second time the formatted date/times come from the cache
+        assertEquals(objectMapper.writeValueAsString(Task.fromEntity(tasks.get(0))),
+                objectMapper.writeValueAsString(tasks.get(0)));
+    }
+
+    @Test
+    void testSerialiseUsesConfiguredDateTimeFormat() throws JsonProcessingException {
+        var task = task(1L, "First", Status.COMPLETED);
+
+        var withZoneId = objectMapper.copy().enable(SerializationFeature.WRITE_DATES_WITH_ZONE_ID);
+        assertEquals(withZoneId.writeValueAsString(Task.fromEntity(task)), withZoneId.writeValueAsString(task));
+
+        var compact = objectMapper.copy().registerModule(new CompactDateTimeModule());
+        assertEquals(compact.writeValueAsString(Task.fromEntity(task)), compact.writeValueAsString(task));
+    }
+
+    private static TaskEntity task(Long id, String description, Status status) {
+        var task = new TaskEntity("Task " + id, description,
+                ZonedDateTime.of(2025, 1, 1, 9, 30, 0, 0, ZoneId.of("Europe/London")).plusDays(id));
+        task.setId(id);
+        task.setStatus(status);
+        return task;
+    }
+}
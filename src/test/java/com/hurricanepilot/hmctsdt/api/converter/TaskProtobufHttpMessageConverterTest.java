@@ -0,0 +1,111 @@
+package com.hurricanepilot.hmctsdt.api.converter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import com.hurricanepilot.hmctsdt.api.model.Task;
+import com.hurricanepilot.hmctsdt.api.model.TaskPage;
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+
+class TaskProtobufHttpMessageConverterTest {
+
+    TaskProtobufHttpMessageConverter converter = new TaskProtobufHttpMessageConverter();
+
+    @Test
+    void testSupports() {
+        var protobuf = TaskProtobufHttpMessageConverter.APPLICATION_PROTOBUF;
+        assertTrue(converter.canWrite(TaskEntity.class, protobuf));
+        assertTrue(converter.canWrite(TaskPage.class, protobuf));
+        assertFalse(converter.canWrite(String.class, protobuf));
+        assertFalse(converter.canRead(TaskEntity.class, protobuf));
+    }
+
+    @Test
+    void testWritePage() throws IOException {
+        var due = ZonedDateTime.of(2025, 1, 1, 9, 30, 0, 0, ZoneId.of("Europe/London"));
+        var first = new TaskEntity("Task 1", "First", due);
+        first.setId(1L);
+        first.setStatus(Status.IN_PROGRESS);
+        var second = new TaskEntity("Task 2", due.plusDays(1));
+        second.setId(300L);
+        var tasks = List.of(first, second);
+        var page = new TaskPage(tasks, "cursor");
+        page.setDeleted(List.of(7L, 1000L));
+        page.setSyncedTo(Instant.ofEpochMilli(1_700_000_000_000L));
+
+        var output = new MockHttpOutputMessage();
+        converter.write(page, TaskProtobufHttpMessageConverter.APPLICATION_PROTOBUF, output);
+
+        var input = CodedInputStream.newInstance(output.getBodyAsBytes());
+        var decoded = new ArrayList<Task>();
+        var deleted = new ArrayList<Long>();
+        String cursor = null;
+        var syncedTo = 0L;
+        for (var tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+            case 1 -> {
+                var limit = input.pushLimit(input.readRawVarint32());
+                decoded.add(readTask(input));
+                input.popLimit(limit);
+            }
+            case 2 -> cursor = input.readString();
+            case 3 -> {
+                var limit = input.pushLimit(input.readRawVarint32());
+                while (input.getBytesUntilLimit() > 0) {
+                    deleted.add(input.readInt64());
+                }
+                input.popLimit(limit);
+            }
+            case 4 -> syncedTo = input.readInt64();
+            default -> input.skipField(tag);
+            }
+        }
+
+        assertEquals(tasks.stream().map(Task::fromEntity).toList(), decoded);
+        assertEquals("cursor", cursor);
+        assertEquals(List.of(7L, 1000L), deleted);
+        assertEquals(1_700_000_000_000L, syncedTo);
+    }
+
+    private static Task readTask(CodedInputStream input) throws IOException {
+        var task = Task.builder().status(Status.NEW);
+        for (var tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+            case 1 -> task.id(input.readInt64());
+            case 2 -> task.title(input.readString());
+            case 3 -> task.description(input.readString());
+            case 4 -> task.status(Status.values()[input.readEnum()]);
+            case 5 -> {
+                var limit = input.pushLimit(input.readRawVarint32());
+                var epochMillis = 0L;
+                var zone = "UTC";
+                for (var field = input.readTag(); field != 0; field = input.readTag()) {
+                    if (WireFormat.getTagFieldNumber(field) == 1) {
+                        epochMillis = input.readInt64();
+                    } else {
+                        zone = input.readString();
+                    }
+                }
+                task.dueDateTime(Instant.ofEpochMilli(epochMillis).atZone(ZoneId.of(zone)));
+                input.popLimit(limit);
+            }
+            default -> input.skipField(tag);
+            }
+        }
+        return task.build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.hurricanepilot.hmctsdt.api.converter;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.hurricanepilot.hmctsdt.api.model.TaskPage;
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+
+/**
+ * Compares the encoded size of a page of Tasks in each wire format, with the
+ * mappers configured as WireFormatConfiguration configures them. Encode
+ * times are compared by TaskWireFormatBenchmark.
+ */
+class TaskWireFormatSizeTest {
+
+    static final SimpleModule TASK_SERIALIZER = new SimpleModule().addSerializer(new TaskEntitySerializer());
+
+    TaskPage page = page(1_000);
+
+    @Test
+    void testBinaryFormatsAreSmallerThanJson() throws IOException {
+        var json = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(TASK_SERIALIZER)
+                .build()
+                .writeValueAsBytes(page);
+        var smile = binaryObjectMapper(SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build()).writeValueAsBytes(page);
+        var cbor = binaryObjectMapper(new CBORFactory()).writeValueAsBytes(page);
+        var protobuf = protobuf();
+
+        assertSmaller(smile, json, "Smile");
+        assertSmaller(cbor, json, "CBOR");
+        assertSmaller(protobuf, json, "Protocol Buffers");
+        // and each is smaller again once compressed
+        for (var body : new byte[][] { json, smile, cbor, protobuf }) {
+            assertTrue(gzip(body).length < body.length);
+        }
+    }
+
+    private static void assertSmaller(byte[] body, byte[] json, String format) {
+        assertTrue(body.length < json.length,
+                () -> format + " is " + body.length + " bytes, JSON " + json.length + " bytes");
+    }
+
+    private static ObjectMapper binaryObjectMapper(JsonFactory factory) {
+        return Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(TASK_SERIALIZER)
+                .factory(factory)
+                .build()
+                .registerModule(new CompactDateTimeModule());
+    }
+
+    private byte[] protobuf() throws IOException {
+        var output = new MockHttpOutputMessage();
+        new TaskProtobufHttpMessageConverter().write(page, TaskProtobufHttpMessageConverter.APPLICATION_PROTOBUF,
+                output);
+        return output.getBodyAsBytes();
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        var compressed = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static TaskPage page(int size) {
+        var tasks = new ArrayList<TaskEntity>(size);
+        var due = ZonedDateTime.of(2025, 1, 1, 9, 0, 0, 0, ZoneId.of("Europe/London"));
+        for (int i = 0; i < size; i++) {
+            var task = new TaskEntity("Task " + i, "A task used to compare wire formats", due.plusMinutes(i));
+            task.setId((long) i);
+            task.setStatus(Status.values()[i % Status.values().length]);
+            tasks.add(task);
+        }
+        return new TaskPage(tasks, "MjAyNS0wMS0wMVQwOTowMDowMFp8MTAwMA");
+    }
+}
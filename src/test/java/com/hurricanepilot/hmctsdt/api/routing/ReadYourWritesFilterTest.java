@@ -0,0 +1,71 @@
+package com.hurricanepilot.hmctsdt.api.routing;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.hurricanepilot.hmctsdt.api.admission.ClientIdentity;
+import com.hurricanepilot.hmctsdt.persistence.replica.ReplicaRoutingDataSource;
+
+import jakarta.servlet.FilterChain;
+
+class ReadYourWritesFilterTest {
+
+    ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMillis(200), 100,
+            new ClientIdentity("X-Client-Id", List.of("127.0.0.1")));
+
+    AtomicBoolean primaryRequired = new AtomicBoolean();
+
+    FilterChain chain = (request, response) -> primaryRequired.set(ReplicaRoutingDataSource.isPrimaryRequired());
+
+    @Test
+    void testReadsAfterWriteGoToPrimary() throws Exception {
+        filter.doFilter(request("GET", "client-a"), new MockHttpServletResponse(), chain);
+        assertFalse(primaryRequired.get());
+
+        filter.doFilter(request("PATCH", "client-a"), new MockHttpServletResponse(), chain);
+        filter.doFilter(request("GET", "client-a"), new MockHttpServletResponse(), chain);
+        assertTrue(primaryRequired.get());
+        assertFalse(ReplicaRoutingDataSource.isPrimaryRequired());
+
+        // other clients are unaffected
+        filter.doFilter(request("GET", "client-b"), new MockHttpServletResponse(), chain);
+        assertFalse(primaryRequired.get());
+    }
+
+    @Test
+    void testReadsReturnToReplicasAfterWindow() throws Exception {
+        filter.doFilter(request("POST", "client-a"), new MockHttpServletResponse(), chain);
+
+        Thread.sleep(300);
+        filter.doFilter(request("GET", "client-a"), new MockHttpServletResponse(), chain);
+
+        assertFalse(primaryRequired.get());
+    }
+
+    @Test
+    void testClientIdentifiedByAddressWithoutHeader() throws Exception {
+        var write = new MockHttpServletRequest("DELETE", "/tasks/1");
+        write.setRemoteAddr("10.0.0.1");
+        filter.doFilter(write, new MockHttpServletResponse(), chain);
+
+        var read = new MockHttpServletRequest("GET", "/tasks/1");
+        read.setRemoteAddr("10.0.0.1");
+        filter.doFilter(read, new MockHttpServletResponse(), chain);
+
+        assertTrue(primaryRequired.get());
+    }
+
+    private static MockHttpServletRequest request(String method, String client) {
+        var request = new MockHttpServletRequest(method, "/tasks/1");
+        request.addHeader("X-Client-Id", client);
+        return request;
+    }
+}
@@ -7,7 +7,12 @@ import org.springframework.restdocs.mockmvc.RestDocumentationResultHandler;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hurricanepilot.hmctsdt.api.converter.TaskEntitySerializer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @TestConfiguration(proxyBeanMethods = false)
 public class HmctsTestConfiguration {
@@ -17,10 +22,17 @@ public class HmctsTestConfiguration {
         return MockMvcRestDocumentation.document("{method-name}");
     }
 
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
     @Bean
     public ObjectMapper objectMapper() {
         return new ObjectMapper()
                 .registerModule(new JavaTimeModule())
+                // as registered by Spring Boot from the @JsonComponent
+                .registerModule(new SimpleModule().addSerializer(new TaskEntitySerializer()))
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
                 .enable(SerializationFeature.INDENT_OUTPUT);
     }
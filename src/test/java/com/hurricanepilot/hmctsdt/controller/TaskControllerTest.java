@@ -1,42 +1,83 @@
 package com.hurricanepilot.hmctsdt.controller;
 
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.restdocs.AutoConfigureRestDocs;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.hurricanepilot.hmctsdt.api.controller.TaskChangeFeed;
 import com.hurricanepilot.hmctsdt.api.controller.TaskController;
+import com.hurricanepilot.hmctsdt.api.converter.CompactDateTimeModule;
+import com.hurricanepilot.hmctsdt.api.converter.TaskProtobufHttpMessageConverter;
 import com.hurricanepilot.hmctsdt.api.model.Task;
+import com.hurricanepilot.hmctsdt.api.model.TaskStatusUpdate;
 import com.hurricanepilot.hmctsdt.config.HmctsTestConfiguration;
 import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.constants.TaskChangeType;
 import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEventEntity;
+import com.hurricanepilot.hmctsdt.service.TaskBulkUpdateResult;
+import com.hurricanepilot.hmctsdt.service.TaskChangeTracker;
+import com.hurricanepilot.hmctsdt.service.TaskCounts;
+import com.hurricanepilot.hmctsdt.service.TaskCursor;
+import com.hurricanepilot.hmctsdt.service.TaskDelta;
+import com.hurricanepilot.hmctsdt.service.TaskFilter;
+import com.hurricanepilot.hmctsdt.service.TaskIdempotency;
+import com.hurricanepilot.hmctsdt.service.TaskSearchResult;
 import com.hurricanepilot.hmctsdt.service.TaskService;
+import com.hurricanepilot.hmctsdt.service.TaskSlice;
+import com.hurricanepilot.hmctsdt.service.TaskStatusWriter;
+import com.hurricanepilot.hmctsdt.service.exception.TaskIdempotencyKeyReusedException;
 import com.hurricanepilot.hmctsdt.service.exception.TaskNotFoundException;
 import com.hurricanepilot.hmctsdt.service.exception.TaskStatusInvalidException;
 import com.hurricanepilot.hmctsdt.service.exception.TaskUpdateNotSupportedException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskVersionMismatchException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskWriteQueueFullException;
 
 @AutoConfigureRestDocs
-@Import(HmctsTestConfiguration.class)
+@Import({ HmctsTestConfiguration.class, TaskChangeTracker.class })
 @WebMvcTest(TaskController.class)
 class TaskControllerTest {
 
@@ -49,6 +90,15 @@ class TaskControllerTest {
     @MockitoBean
     private TaskService taskService;
 
+    @MockitoBean
+    private TaskChangeFeed taskChangeFeed;
+
+    @MockitoBean
+    private TaskIdempotency taskIdempotency;
+
+    @MockitoBean
+    private TaskStatusWriter taskStatusWriter;
+
     @Test
     void createTaskRequiredFieldsOnly() throws Exception {
 
@@ -145,6 +195,126 @@ class TaskControllerTest {
                 .andExpect(MockMvcResultMatchers.header().exists("Location"));
     }
 
+    @Test
+    void createTaskIdempotent() throws Exception {
+
+        var task = Task
+                .builder()
+                .title("My Task")
+                .dueDateTime(ZonedDateTime.now().plusDays(2)).build();
+
+        when(taskIdempotency.create(eq("4b7d3a0c-create-my-task"), any(TaskEntity.class))).thenReturn(Long.valueOf(3));
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.post("/tasks")
+                        .header(TaskController.IDEMPOTENCY_KEY, "4b7d3a0c-create-my-task")
+                        .content(objectMapper.writeValueAsString(task))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.header().string("Location", endsWith("/tasks/3")));
+
+        verify(taskService, never()).create(any(TaskEntity.class));
+    }
+
+    @Test
+    void createTaskIdempotencyKeyReused() throws Exception {
+
+        var task = Task
+                .builder()
+                .title("A different Task")
+                .dueDateTime(ZonedDateTime.now().plusDays(2)).build();
+
+        when(taskIdempotency.create(eq("4b7d3a0c-create-my-task"), any(TaskEntity.class)))
+                .thenThrow(new TaskIdempotencyKeyReusedException(
+                        "Idempotency key 4b7d3a0c-create-my-task has already been used to create a different Task"));
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.post("/tasks")
+                        .header(TaskController.IDEMPOTENCY_KEY, "4b7d3a0c-create-my-task")
+                        .content(objectMapper.writeValueAsString(task))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
+
+    @Test
+    void createTaskIdempotencyKeyTooLong() throws Exception {
+
+        var task = Task
+                .builder()
+                .title("My Task")
+                .dueDateTime(ZonedDateTime.now().plusDays(2)).build();
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.post("/tasks")
+                        .header(TaskController.IDEMPOTENCY_KEY, "k".repeat(256))
+                        .content(objectMapper.writeValueAsString(task))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void createTasksBatch() throws Exception {
+
+        var tasks = List.of(
+                Task.builder().title("First Task").dueDateTime(ZonedDateTime.now().plusDays(1)).build(),
+                Task.builder().title("").dueDateTime(ZonedDateTime.now().plusDays(1)).build(),
+                Task.builder().title("Third Task").dueDateTime(ZonedDateTime.now().plusDays(2)).build());
+
+        when(taskService.createAll(anyList())).thenReturn(List.of(1L, 2L));
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.post("/tasks/batch")
+                        .content(objectMapper.writeValueAsString(tasks))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rejected").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].id").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[1].id").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[1].errors[0]").value("title: Title must be specified"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[2].id").value(2));
+    }
+
+    @Test
+    void createTasksBatchNdjson() throws Exception {
+
+        var writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        var body = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            body.append(writer.writeValueAsString(Task.builder().title("Task " + i)
+                    .dueDateTime(ZonedDateTime.now().plusDays(1)).build())).append('\n');
+        }
+
+        when(taskService.createAll(anyList())).thenReturn(List.of(1L, 2L, 3L));
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.post("/tasks/batch")
+                        .content(body.toString())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[*]", hasSize(3)));
+    }
+
+    @Test
+    void createTasksBatchUnparseable() throws Exception {
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.post("/tasks/batch")
+                        .content("[{\"title\": \"Task\", \"dueDateTime\": \"tomorrow\"}]")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
     @Test
     void retrieveTaskById() throws Exception {
 
@@ -152,6 +322,7 @@ class TaskControllerTest {
         task.setId(1L);
         task.setDescription("Description of test task 1");
         task.setStatus(Status.DEFERRED);
+        task.setVersion(3L);
 
         when(taskService.find(Long.valueOf(1))).thenReturn(task);
 
@@ -160,9 +331,44 @@ class TaskControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"3\""))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.id").exists());
     }
 
+    @Test
+    void retrieveTaskByIdNotModified() throws Exception {
+
+        var task = new TaskEntity("Test Task 1", ZonedDateTime.now().plusDays(1));
+        task.setId(1L);
+        task.setVersion(3L);
+
+        when(taskService.find(Long.valueOf(1))).thenReturn(task);
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks/{id}", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @Test
+    void retrieveTaskByIdCbor() throws Exception {
+
+        var task = new TaskEntity("Test Task 1", ZonedDateTime.now().plusDays(1));
+        task.setId(1L);
+        task.setVersion(3L);
+
+        when(taskService.find(Long.valueOf(1))).thenReturn(task);
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks/{id}", 1L)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR));
+    }
+
     @Test
     void retrieveTaskByIdNotFound() throws Exception {
 
@@ -175,6 +381,42 @@ class TaskControllerTest {
                 .andExpect(MockMvcResultMatchers.status().isNotFound());
     }
 
+    @Test
+    void retrieveTaskHistory() throws Exception {
+
+        var due = ZonedDateTime.now().plusDays(1);
+        var created = Instant.now();
+        when(taskService.history(1L)).thenReturn(List.of(
+                new TaskEventEntity(1L, TaskChangeType.CREATED, created, "Test Task 1", null, Status.NEW, null,
+                        due, 0),
+                new TaskEventEntity(1L, TaskChangeType.STATUS_CHANGED, created.plusSeconds(60), "Test Task 1", null,
+                        Status.IN_PROGRESS, Status.NEW, due, 1)));
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks/{id}/history", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$", hasSize(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].type").value("CREATED"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].previousStatus").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].type").value("STATUS_CHANGED"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].previousStatus").value("NEW"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].status").value("IN_PROGRESS"));
+    }
+
+    @Test
+    void retrieveTaskHistoryNotFound() throws Exception {
+
+        when(taskService.history(1L)).thenThrow(new TaskNotFoundException("Task not found for ID: 1"));
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks/{id}/history", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
     @Test
     void retrieveAllTasks() throws Exception {
 
@@ -186,35 +428,479 @@ class TaskControllerTest {
 
         }
 
-        when(taskService.retrieveAll()).thenReturn(taskList);
+        when(taskService.retrievePage(any(TaskFilter.class), isNull(), eq(50)))
+                .thenReturn(new TaskSlice(taskList, null));
 
         this.mockMvc
                 .perform(RestDocumentationRequestBuilders.get("/tasks")
                         .accept(MediaType.APPLICATION_JSON))
                 .andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().isOk())
-                .andExpect(MockMvcResultMatchers.jsonPath("$[*]", hasSize(10)));
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.tasks[*]", hasSize(10)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").doesNotExist());
+
+    }
+
+    @Test
+    void searchTasks() throws Exception {
+
+        var first = new TaskEntity("Hearing bundle review", ZonedDateTime.now().plusDays(1));
+        first.setId(3L);
+        var second = new TaskEntity("Prepare courtroom", "Copy the hearing bundle for the judge",
+                ZonedDateTime.now().plusDays(2));
+        second.setId(1L);
+
+        when(taskService.search("hearing bundle", 0, 2))
+                .thenReturn(new TaskSearchResult(List.of(first, second), 3));
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks/search")
+                        .param("q", "hearing bundle")
+                        .param("limit", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.tasks[*].id").value(contains(3, 1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextOffset").value(2));
+
+    }
+
+    @Test
+    void searchTasksLastPage() throws Exception {
+
+        var task = new TaskEntity("Hearing bundle review", ZonedDateTime.now().plusDays(1));
+        task.setId(3L);
+
+        when(taskService.search("hearing", 20, 20))
+                .thenReturn(new TaskSearchResult(List.of(task), 21));
+
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/tasks/search")
+                        .param("q", "hearing")
+                        .param("offset", "20")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.tasks[*]", hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextOffset").doesNotExist());
+
+    }
+
+    @Test
+    void searchTasksInvalidQuery() throws Exception {
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks/search")
+                        .param("q", " ")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        verify(taskService, never()).search(any(), anyInt(), anyInt());
+
+    }
+
+    @Test
+    void retrieveAllTasksSmile() throws Exception {
+
+        var due = ZonedDateTime.parse("2025-01-01T09:30:00Z[Europe/London]");
+        var task = new TaskEntity("Test Task 1", due);
+        task.setId(1L);
+
+        when(taskService.retrievePage(any(TaskFilter.class), isNull(), eq(50)))
+                .thenReturn(new TaskSlice(List.of(task), null));
+
+        var body = this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks")
+                        .accept("application/x-jackson-smile"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
 
+        var smileMapper = new ObjectMapper(new SmileFactory()).registerModule(new CompactDateTimeModule());
+        var page = smileMapper.readTree(body);
+        assertEquals(due.toInstant().toEpochMilli(), page.at("/tasks/0/dueDateTime/0").asLong());
+        assertEquals("Europe/London", page.at("/tasks/0/dueDateTime/1").asText());
+    }
+
+    @Test
+    void retrieveAllTasksProtobuf() throws Exception {
+
+        when(taskService.retrievePage(any(TaskFilter.class), isNull(), eq(50)))
+                .thenReturn(new TaskSlice(List.of(), null));
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks")
+                        .accept(TaskProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(TaskProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+
+        // JSON remains the default
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks")
+                        .accept(MediaType.ALL))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void retrieveAllTasksNotModified() throws Exception {
+
+        when(taskService.retrievePage(any(TaskFilter.class), isNull(), eq(50)))
+                .thenReturn(new TaskSlice(List.of(), null));
+
+        var eTag = this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+
+        // the second request is answered without querying
+        verify(taskService, times(1)).retrievePage(any(TaskFilter.class), isNull(), eq(50));
+
+        // a different query has a different ETag
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks")
+                        .param("status", Status.NEW.name())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    void retrieveTaskChangesSince() throws Exception {
+
+        var since = Instant.parse("2025-01-01T09:00:00Z");
+        var syncedTo = Instant.parse("2025-01-02T09:00:00Z");
+        var task = new TaskEntity("Test Task 1", ZonedDateTime.now().plusDays(1));
+        task.setId(1L);
+
+        when(taskService.retrieveChanges(since, null, 50))
+                .thenReturn(new TaskDelta(List.of(task), null, List.of(2L, 3L), syncedTo));
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks")
+                        .param("since", since.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.tasks[*]", hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.deleted[*]", hasSize(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.syncedTo").value(syncedTo.toString()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void retrieveTaskChangesSinceFiltered() throws Exception {
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks")
+                        .param("since", "2025-01-01T09:00:00Z")
+                        .param("status", Status.NEW.name())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void retrieveTasksFilteredPage() throws Exception {
+
+        var taskList = new ArrayList<TaskEntity>();
+        for (int i = 0; i < 2; i++) {
+            var task = new TaskEntity("Test Task " + i, ZonedDateTime.now().plusDays(1));
+            task.setId(Long.valueOf((long) i + 10));
+            task.setStatus(Status.IN_PROGRESS);
+            taskList.add(task);
+        }
+        var after = new TaskCursor(Instant.parse("2025-01-01T09:00:00Z"), 9L);
+        var next = TaskCursor.of(taskList.get(1));
+
+        when(taskService.retrievePage(argThat(f -> f.getStatus() == Status.IN_PROGRESS), eq(after), eq(2)))
+                .thenReturn(new TaskSlice(taskList, next));
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks")
+                        .param("status", Status.IN_PROGRESS.name())
+                        .param("after", after.encode())
+                        .param("limit", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.tasks[*]", hasSize(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").value(next.encode()));
+    }
+
+    @Test
+    void retrieveTasksInvalidCursor() throws Exception {
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks")
+                        .param("after", "not-a-cursor")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void retrieveTasksInvalidLimit() throws Exception {
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks")
+                        .param("limit", "0")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void summariseTasks() throws Exception {
+
+        var byStatus = new EnumMap<Status, Long>(Status.class);
+        byStatus.put(Status.NEW, 12L);
+        byStatus.put(Status.IN_PROGRESS, 4L);
+        byStatus.put(Status.DEFERRED, 1L);
+        byStatus.put(Status.COMPLETED, 30L);
+        when(taskService.count()).thenReturn(new TaskCounts(byStatus, 3));
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks/summary")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.byStatus.NEW").value(12))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.byStatus.COMPLETED").value(30))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(47))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.overdue").value(3));
+    }
+
+    @Test
+    void retrieveOverdueTasks() throws Exception {
+
+        var taskList = new ArrayList<TaskEntity>();
+        for (int i = 0; i < 2; i++) {
+            var task = new TaskEntity("Test Task " + i, ZonedDateTime.now().minusDays(2 - i));
+            task.setId(Long.valueOf((long) i + 10));
+            taskList.add(task);
+        }
+        var next = TaskCursor.of(taskList.get(1));
+
+        when(taskService.retrieveOverdue(isNull(), eq(2))).thenReturn(new TaskSlice(taskList, next));
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks/overdue")
+                        .param("limit", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.tasks[*]", hasSize(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").value(next.encode()));
+    }
+
+    @Test
+    void retrieveTasksDueWithin() throws Exception {
+
+        var task = new TaskEntity("Test Task 1", ZonedDateTime.now().plusMinutes(30));
+        task.setId(1L);
+
+        when(taskService.retrieveDueWithin(eq(Duration.ofHours(1)), isNull(), eq(50)))
+                .thenReturn(new TaskSlice(List.of(task), null));
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks/due")
+                        .param("within", "PT1H")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.tasks[*]", hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void retrieveTasksDueWithinInvalidDuration() throws Exception {
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks/due")
+                        .param("within", "-PT1H")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/tasks/due")
+                        .param("within", "P400D")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        verify(taskService, never()).retrieveDueWithin(any(), any(), anyInt());
+    }
+
+    @Test
+    void streamTaskChanges() throws Exception {
+
+        when(taskChangeFeed.subscribe("boot:41")).thenReturn(new SseEmitter());
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks/changes")
+                        .header(TaskChangeFeed.LAST_EVENT_ID, "boot:41")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.request().asyncStarted());
+
+        verify(taskChangeFeed).subscribe("boot:41");
+    }
+
+    @Test
+    void exportTasks() throws Exception {
+
+        doAnswer(invocation -> {
+            Consumer<TaskEntity> sink = invocation.getArgument(0);
+            for (int i = 0; i < 3; i++) {
+                var task = new TaskEntity("Test Task " + i, ZonedDateTime.now().plusDays(1));
+                task.setId(Long.valueOf((long) i));
+                sink.accept(task);
+            }
+            return null;
+        }).when(taskService).export(any());
+
+        var result = this.mockMvc
+                .perform(RestDocumentationRequestBuilders.get("/tasks/export")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        var content = this.mockMvc
+                .perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        var lines = content.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("Test Task 0", objectMapper.readValue(lines[0], Task.class).getTitle());
     }
 
     @Test
     void updateTaskStatus() throws Exception {
 
-        doNothing().when(taskService).updateTask(1L, Map.of("status", Status.COMPLETED.name()));
+        doNothing().when(taskService).updateTask(1L, Map.of("status", Status.COMPLETED.name()), null);
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.patch("/tasks/{id}", 1)
+                        .content(objectMapper.writeValueAsString(Map.of("status", Status.COMPLETED.name())))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    void updateTaskStatusWriteBehind() throws Exception {
+
+        when(taskStatusWriter.isEnabled()).thenReturn(true);
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.patch("/tasks/{id}", 1)
+                        .content(objectMapper.writeValueAsString(Map.of("status", Status.COMPLETED.name())))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isAccepted());
+
+        verify(taskStatusWriter).submit(1L, Map.of("status", Status.COMPLETED.name()));
+        verify(taskService, never()).updateTask(any(), any(), any());
+    }
+
+    @Test
+    void updateTaskStatusWriteBehindQueueFull() throws Exception {
+
+        when(taskStatusWriter.isEnabled()).thenReturn(true);
+        doThrow(new TaskWriteQueueFullException("Too many Task updates are waiting to be written"))
+                .when(taskStatusWriter).submit(1L, Map.of("status", Status.COMPLETED.name()));
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.patch("/tasks/{id}", 1)
+                        .content(objectMapper.writeValueAsString(Map.of("status", Status.COMPLETED.name())))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    void updateTaskStatusWriteBehindIfMatch() throws Exception {
+
+        when(taskStatusWriter.isEnabled()).thenReturn(true);
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.patch("/tasks/{id}", 1)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .content(objectMapper.writeValueAsString(Map.of("status", Status.COMPLETED.name())))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        verify(taskService).updateTask(1L, Map.of("status", Status.COMPLETED.name()), 3L);
+        verify(taskStatusWriter, never()).submit(any(), any());
+    }
+
+    @Test
+    void updateTaskStatusIfMatch() throws Exception {
+
+        doNothing().when(taskService).updateTask(1L, Map.of("status", Status.COMPLETED.name()), 3L);
 
         this.mockMvc
                 .perform(RestDocumentationRequestBuilders.patch("/tasks/{id}", 1)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
                         .content(objectMapper.writeValueAsString(Map.of("status", Status.COMPLETED.name())))
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
                 .andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().isOk());
+
+        verify(taskService).updateTask(1L, Map.of("status", Status.COMPLETED.name()), 3L);
+    }
+
+    @Test
+    void updateTaskStatusVersionMismatch() throws Exception {
+        doThrow(new TaskVersionMismatchException("Task 1 is at version 4, not 3")).when(taskService)
+                .updateTask(1L, Map.of("status", Status.COMPLETED.name()), 3L);
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.patch("/tasks/{id}", 1)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .content(objectMapper.writeValueAsString(Map.of("status", Status.COMPLETED.name())))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateTaskStatusWeakIfMatch() throws Exception {
+
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.patch("/tasks/{id}", 1)
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .content(objectMapper.writeValueAsString(Map.of("status", Status.COMPLETED.name())))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
     }
 
     @Test
     void updateTaskNotFound() throws Exception {
         doThrow(new TaskNotFoundException("Failed to locate Task for id 1")).when(taskService)
-                .updateTask(1L, Map.of("status", Status.COMPLETED.name()));
+                .updateTask(1L, Map.of("status", Status.COMPLETED.name()), null);
 
         this.mockMvc
                 .perform(RestDocumentationRequestBuilders.patch("/tasks/{id}", 1)
@@ -228,7 +914,7 @@ class TaskControllerTest {
     @Test
     void updateTaskInvalidStatus() throws Exception {
         doThrow(new TaskStatusInvalidException("Task cannot be set to NEW once work has commenced.")).when(taskService)
-                .updateTask(1L, Map.of("status", "NEW"));
+                .updateTask(1L, Map.of("status", "NEW"), null);
 
         this.mockMvc
                 .perform(RestDocumentationRequestBuilders.patch("/tasks/{id}", 1)
@@ -242,7 +928,7 @@ class TaskControllerTest {
     @Test
     void updateTaskUnsupportedTaskFragment() throws Exception {
         doThrow(new TaskUpdateNotSupportedException("description")).when(taskService)
-                .updateTask(1L, Map.of("description", "wibble"));
+                .updateTask(1L, Map.of("description", "wibble"), null);
 
         this.mockMvc
                 .perform(RestDocumentationRequestBuilders.patch("/tasks/{id}", 1)
@@ -256,7 +942,7 @@ class TaskControllerTest {
     @Test
     void updateTaskInvalidTaskFragment() throws Exception {
         doThrow(new TaskUpdateNotSupportedException("description")).when(taskService)
-                .updateTask(1L, Map.of("description", "wibble"));
+                .updateTask(1L, Map.of("description", "wibble"), null);
 
         this.mockMvc
                 .perform(RestDocumentationRequestBuilders.patch("/tasks/{id}", 1)
@@ -267,6 +953,63 @@ class TaskControllerTest {
                 .andExpect(MockMvcResultMatchers.status().isBadRequest());
     }
 
+    @Test
+    void updateTasksStatusByIds() throws Exception {
+        var update = TaskStatusUpdate.builder()
+                .ids(List.of(1L, 2L, 3L, 4L))
+                .status(Status.COMPLETED)
+                .build();
+
+        when(taskService.updateStatus(List.of(1L, 2L, 3L, 4L), Status.COMPLETED))
+                .thenReturn(new TaskBulkUpdateResult(2, 1, 1));
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.patch("/tasks")
+                        .content(objectMapper.writeValueAsString(update))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.updated").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rejected").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.missing").value(1));
+    }
+
+    @Test
+    void updateTasksStatusByFilter() throws Exception {
+        var update = TaskStatusUpdate.builder()
+                .filter(TaskStatusUpdate.Filter.builder().status(Status.IN_PROGRESS).build())
+                .status(Status.COMPLETED)
+                .build();
+
+        when(taskService.updateStatus(argThat((TaskFilter f) -> f.getStatus() == Status.IN_PROGRESS), eq(Status.COMPLETED)))
+                .thenReturn(new TaskBulkUpdateResult(5, 0, 0));
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.patch("/tasks")
+                        .content(objectMapper.writeValueAsString(update))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.updated").value(5));
+    }
+
+    @Test
+    void updateTasksStatusNoSelection() throws Exception {
+        var update = TaskStatusUpdate.builder()
+                .status(Status.COMPLETED)
+                .build();
+
+        this.mockMvc
+                .perform(RestDocumentationRequestBuilders.patch("/tasks")
+                        .content(objectMapper.writeValueAsString(update))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
     @Test
     void deleteTask() throws Exception {
         doNothing().when(taskService).delete(1L);
@@ -0,0 +1,107 @@
+package com.hurricanepilot.hmctsdt.persistence.replica;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReplicaRoutingDataSourceTest {
+
+    DataSource primary = mock(DataSource.class);
+
+    DataSource first = mock(DataSource.class);
+
+    DataSource second = mock(DataSource.class);
+
+    Connection primaryConnection = mock(Connection.class);
+
+    Connection firstConnection = mock(Connection.class);
+
+    Connection secondConnection = mock(Connection.class);
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(first.getConnection()).thenReturn(firstConnection);
+        when(second.getConnection()).thenReturn(secondConnection);
+        var replicas = new LinkedHashMap<String, DataSource>();
+        replicas.put("replica-1", first);
+        replicas.put("replica-2", second);
+        routing = new ReplicaRoutingDataSource(primary, replicas, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.requirePrimary(false);
+    }
+
+    @Test
+    void testRoundRobin() throws Exception {
+        assertSame(firstConnection, routing.getConnection());
+        assertSame(secondConnection, routing.getConnection());
+        assertSame(firstConnection, routing.getConnection());
+        assertEquals(2, reads("replica-1"));
+        assertEquals(1, reads("replica-2"));
+    }
+
+    @Test
+    void testRequirePrimary() throws Exception {
+        ReplicaRoutingDataSource.requirePrimary(true);
+
+        assertSame(primaryConnection, routing.getConnection());
+        assertEquals(1, reads("primary"));
+    }
+
+    @Test
+    void testFailedReplicaIsSkippedUntilHealthy() throws Exception {
+        when(first.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertSame(secondConnection, routing.getConnection());
+        assertSame(secondConnection, routing.getConnection());
+        assertEquals(1, meterRegistry.get(ReplicaRoutingDataSource.HEALTHY_GAUGE).gauge().value());
+
+        // recovered
+        var recovered = mock(Connection.class);
+        when(recovered.isValid(2)).thenReturn(true);
+        doReturn(recovered).when(first).getConnection();
+        when(secondConnection.isValid(2)).thenReturn(true);
+        routing.checkHealth();
+
+        assertEquals(2, meterRegistry.get(ReplicaRoutingDataSource.HEALTHY_GAUGE).gauge().value());
+    }
+
+    @Test
+    void testFallsBackToPrimary() throws Exception {
+        when(first.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(second.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertSame(primaryConnection, routing.getConnection());
+        assertEquals(0, meterRegistry.get(ReplicaRoutingDataSource.HEALTHY_GAUGE).gauge().value());
+
+        // the unhealthy replicas aren't tried again until a health check passes
+        routing.checkHealth();
+        assertSame(primaryConnection, routing.getConnection());
+        assertEquals(2, reads("primary"));
+    }
+
+    private double reads(String target) {
+        return meterRegistry.get(ReplicaRoutingDataSource.READS_COUNTER).tag("target", target).counter().count();
+    }
+}
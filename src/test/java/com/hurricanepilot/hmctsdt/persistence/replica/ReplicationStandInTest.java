@@ -0,0 +1,93 @@
+package com.hurricanepilot.hmctsdt.persistence.replica;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.constants.TaskChangeType;
+import com.hurricanepilot.hmctsdt.service.TaskChangeEvent;
+
+class ReplicationStandInTest {
+
+    DriverManagerDataSource primary = new DriverManagerDataSource("jdbc:h2:mem:stand-in-primary;DB_CLOSE_DELAY=-1", "sa", "");
+
+    DriverManagerDataSource replica = new DriverManagerDataSource("jdbc:h2:mem:stand-in-replica;DB_CLOSE_DELAY=-1", "sa", "");
+
+    JdbcTemplate primaryJdbc = new JdbcTemplate(primary);
+
+    JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+
+    ReplicationStandIn standIn;
+
+    @BeforeEach
+    void setUp() {
+        Flyway.configure().dataSource(primary).locations("classpath:db/migration").load().migrate();
+        standIn = new ReplicationStandIn(primary, List.of(replica), Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        standIn.destroy();
+        primaryJdbc.execute("drop all objects");
+        replicaJdbc.execute("drop all objects");
+    }
+
+    @Test
+    void testCopiesExistingTasks() {
+        primaryJdbc.update("insert into task (id, title, status, due_date_time) values (1, 'Task 1', 0, current_timestamp)");
+        primaryJdbc.update("insert into task_tombstone (task_id, deleted_at) values (2, current_timestamp)");
+
+        standIn.run(null);
+
+        awaitReplica(() -> count("select count(*) from task"), 1);
+        awaitReplica(() -> count("select count(*) from task_tombstone"), 1);
+    }
+
+    @Test
+    void testAppliesChanges() {
+        standIn.run(null);
+        var due = ZonedDateTime.now(ZoneOffset.UTC);
+
+        standIn.changed(event(1L, TaskChangeType.CREATED, Status.NEW, 0, due));
+        standIn.changed(event(2L, TaskChangeType.CREATED, Status.NEW, 0, due));
+        standIn.changed(event(1L, TaskChangeType.STATUS_CHANGED, Status.COMPLETED, 1, due));
+        standIn.changed(event(2L, TaskChangeType.DELETED, Status.NEW, 0, due));
+
+        awaitReplica(() -> count("select count(*) from task_tombstone where task_id = 2"), 1);
+        assertEquals(List.of(1L), replicaJdbc.queryForList("select id from task", Long.class));
+        assertEquals(Status.COMPLETED.ordinal(),
+                replicaJdbc.queryForObject("select status from task where id = 1", Integer.class));
+        assertEquals(1L, replicaJdbc.queryForObject("select version from task where id = 1", Long.class));
+    }
+
+    private long count(String sql) {
+        return replicaJdbc.queryForObject(sql, Long.class);
+    }
+
+    private static void awaitReplica(Supplier<Long> actual, long expected) {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (actual.get() != expected && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(expected, actual.get());
+    }
+
+    private static TaskChangeEvent event(Long id, TaskChangeType type, Status status, long version,
+            ZonedDateTime due) {
+        return new TaskChangeEvent(id, type, Instant.now(), "Task " + id, null, status, null, due, version);
+    }
+}
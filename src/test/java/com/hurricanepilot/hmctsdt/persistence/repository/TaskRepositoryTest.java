@@ -0,0 +1,150 @@
+package com.hurricanepilot.hmctsdt.persistence.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+
+/**
+ * Checks the Task list queries return the right Tasks, and that H2
+ * plans them using the indexes created by the migrations rather than scanning
+ * the table. The SQL Hibernate generates for each query is captured and run
+ * through {@code EXPLAIN}.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.hurricanepilot.hmctsdt.persistence.repository.TaskRepositoryTest$CapturingStatementInspector")
+@Transactional
+class TaskRepositoryTest {
+
+    @Autowired
+    TaskRepository taskRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    ZonedDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        // 200 Tasks due hourly, half of them already overdue, spread evenly
+        // across the statuses
+        now = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        var tasks = new ArrayList<TaskEntity>();
+        for (int i = 0; i < 200; i++) {
+            var task = new TaskEntity("Task " + i, now.plusHours(i - 100L));
+            task.setStatus(Status.values()[i % Status.values().length]);
+            tasks.add(task);
+        }
+        taskRepository.saveAll(tasks);
+        CapturingStatementInspector.lastQuery = null;
+    }
+
+    @Test
+    void testFindPageInStatus() {
+        var result = taskRepository.findPage(Status.IN_PROGRESS, null, null, null, null, 10);
+
+        assertEquals(10, result.size());
+        assertTrue(result.stream().allMatch(t -> t.getStatus() == Status.IN_PROGRESS));
+        assertOrderedByDue(result);
+
+        assertPlanUses("idx_task_status_due", Status.IN_PROGRESS.ordinal(), 10);
+    }
+
+    @Test
+    void testFindPageDueInStatus() {
+        var result = taskRepository.findPage(Status.NEW, now, now.plusDays(1), null, null, 10);
+
+        // due at now, +4h, +8h ... +20h
+        assertEquals(6, result.size());
+        assertTrue(result.stream().allMatch(t -> t.getStatus() == Status.NEW));
+        assertOrderedByDue(result);
+
+        assertPlanUses("idx_task_status_due", Status.NEW.ordinal(), now.toOffsetDateTime(),
+                now.plusDays(1).toOffsetDateTime(), 10);
+    }
+
+    @Test
+    void testFindPageDue() {
+        var result = taskRepository.findPage(null, now, now.plusDays(1), null, null, 50);
+
+        assertEquals(24, result.size());
+        assertOrderedByDue(result);
+
+        assertPlanUses("idx_task_due", now.toOffsetDateTime(), now.plusDays(1).toOffsetDateTime(), 50);
+    }
+
+    @Test
+    void testFindFirstPage() {
+        var result = taskRepository.findPage(null, null, null, null, null, 10);
+
+        assertEquals(10, result.size());
+        assertEquals(now.minusHours(100).toInstant(), result.get(0).getDueDateTime().toInstant());
+        assertOrderedByDue(result);
+
+        // walked in order from the start of the index, rather than sorted
+        assertPlanUses("idx_task_due", 10);
+    }
+
+    @Test
+    void testFindPageAfterCursor() {
+        var first = taskRepository.findPage(null, null, null, null, null, 10);
+        var last = first.get(9);
+        CapturingStatementInspector.lastQuery = null;
+
+        var result = taskRepository.findPage(null, null, null, last.getDueDateTime(), last.getId(), 10);
+
+        assertEquals(10, result.size());
+        assertTrue(result.get(0).getDueDateTime().isAfter(last.getDueDateTime()));
+        assertOrderedByDue(result);
+
+        // seeks to the cursor, rather than scanning up to it
+        var after = last.getDueDateTime().toOffsetDateTime();
+        assertPlanUses("idx_task_due: due_date_time >=", after, after, last.getId(), 10);
+    }
+
+    private void assertOrderedByDue(List<TaskEntity> tasks) {
+        for (int i = 1; i < tasks.size(); i++) {
+            assertTrue(!tasks.get(i).getDueDateTime().isBefore(tasks.get(i - 1).getDueDateTime()));
+        }
+    }
+
+    private void assertPlanUses(String index, Object... params) {
+        var sql = CapturingStatementInspector.lastQuery;
+        assertNotNull(sql);
+
+        var plan = String.join("\n", jdbcTemplate.query("explain " + sql, (rs, row) -> rs.getString(1), params));
+
+        assertTrue(plan.toLowerCase().contains(index), () -> "Expected " + index + " to be used by:\n" + plan);
+    }
+
+    /**
+     * Records the last Task query prepared by Hibernate.
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static volatile String lastQuery;
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.startsWith("select") && sql.contains(" from task ")) {
+                lastQuery = sql;
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.hurricanepilot.hmctsdt.persistence.shard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TaskShardsTest {
+
+    TaskShards taskShards = new TaskShards(6, 3);
+
+    @AfterEach
+    void tearDown() {
+        taskShards.destroy();
+    }
+
+    @Test
+    void testIdLayout() {
+        var id = TaskShards.idOf(5, 1234);
+
+        assertEquals(5, TaskShards.shardOf(id));
+        assertEquals(1234, TaskShards.localIdOf(id));
+        assertEquals(5L << TaskShards.LOCAL_ID_BITS, TaskShards.firstIdOf(5));
+        // IDs handed out before sharding are all in shard 0
+        assertEquals(0, TaskShards.shardOf(987_654));
+        assertEquals(987_654, TaskShards.localIdOf(987_654));
+        assertThrows(IllegalStateException.class, () -> TaskShards.idOf(1, 1L << TaskShards.LOCAL_ID_BITS));
+    }
+
+    @Test
+    void testDefaultAssignment() {
+        assertEquals(List.of(0, 1, 2, 0, 1, 2), taskShards.getAssignment());
+        assertTrue(taskShards.isSharded());
+        assertFalse(TaskShards.single().isSharded());
+    }
+
+    @Test
+    void testRoutesToTheDatabaseOfTheShard() {
+        taskShards.onShardOf(TaskShards.idOf(4, 1), () -> {
+            assertEquals(4, TaskShards.currentShard());
+            assertEquals(1, TaskShards.currentDatabase());
+            return null;
+        });
+
+        assertEquals(0, TaskShards.currentShard());
+        assertEquals(TaskShards.HOME_DATABASE, TaskShards.currentDatabase());
+    }
+
+    @Test
+    void testNewShardsAreTakenInTurn() {
+        var shards = new HashSet<Integer>();
+        for (int i = 0; i < 6; i++) {
+            shards.add(taskShards.onNewShard(TaskShards::currentShard));
+        }
+        assertEquals(Set.of(0, 1, 2, 3, 4, 5), shards);
+
+        // nested creations stay on the shard already chosen
+        taskShards.onShard(2, () -> {
+            assertEquals(2, taskShards.onNewShard(TaskShards::currentShard));
+            return null;
+        });
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(TaskShards.HOME_DATABASE,
+                    taskShards.databaseOf(taskShards.onNewShard(TaskShards.HOME_DATABASE, TaskShards::currentShard)));
+        }
+    }
+
+    @Test
+    void testCantCreateAcrossADatabase() {
+        assertThrows(IllegalStateException.class,
+                () -> taskShards.onDatabase(1, TaskShards::currentShard));
+    }
+
+    @Test
+    void testGroupsIdsByDatabase() {
+        var ids = List.of(TaskShards.idOf(0, 1), TaskShards.idOf(1, 2), TaskShards.idOf(3, 3), TaskShards.idOf(4, 4));
+
+        var groups = taskShards.onDatabasesOf(ids, group -> {
+            group.forEach(id -> assertEquals(TaskShards.currentDatabase(),
+                    taskShards.databaseOf(TaskShards.shardOf(id))));
+            return Set.copyOf(group);
+        });
+
+        assertEquals(Set.of(Set.of(ids.get(0), ids.get(2)), Set.of(ids.get(1), ids.get(3))), Set.copyOf(groups));
+    }
+
+    @Test
+    void testRunsOnEachDatabase() {
+        assertEquals(List.of(0, 1, 2), taskShards.onEachDatabase(database -> TaskShards.currentDatabase()));
+    }
+
+    @Test
+    void testWorkOnThePoolDoesNotWaitForAQueuedMove() throws Exception {
+        var working = new CountDownLatch(3);
+        var moveQueued = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            var scatter = executor.submit(() -> taskShards.onEachDatabase(database -> {
+                working.countDown();
+                await(moveQueued);
+                // e.g. an after-commit listener writing to the home database
+                return taskShards.onDatabase(TaskShards.HOME_DATABASE, TaskShards::currentDatabase);
+            }));
+            assertTrue(working.await(5, TimeUnit.SECONDS));
+            var move = executor.submit(() -> taskShards.exclusively(() -> null));
+            Thread.sleep(100);
+            moveQueued.countDown();
+
+            assertEquals(List.of(0, 0, 0), scatter.get(5, TimeUnit.SECONDS));
+            move.get(5, TimeUnit.SECONDS);
+        } finally {
+            // not closed, which would wait for the threads if they deadlocked
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testAssign() {
+        taskShards.exclusively(() -> {
+            taskShards.assign(3, 2);
+            return null;
+        });
+
+        assertEquals(2, taskShards.databaseOf(3));
+        assertEquals(2, taskShards.onShard(3, TaskShards::currentDatabase));
+        assertThrows(IllegalArgumentException.class, () -> taskShards.assign(6, 0));
+        assertThrows(IllegalArgumentException.class, () -> taskShards.assign(0, 3));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.persistence.shard.TaskShardRebalancer;
+import com.hurricanepilot.hmctsdt.persistence.shard.TaskShards;
+import com.hurricanepilot.hmctsdt.service.exception.TaskNotFoundException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskStatusInvalidException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskUpdateNotSupportedException;
+
+/**
+ * Runs the service against three local in-memory databases holding six
+ * shards. The databases are shared by every test here and work is spread
+ * across threads, so the tests aren't transactional and only look at the
+ * Tasks they create.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sharded-0",
+        "hmcts.shards.enabled=true",
+        "hmcts.shards.urls=jdbc:h2:mem:sharded-1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:sharded-2;DB_CLOSE_DELAY=-1",
+        "hmcts.shards.count=6" })
+class ShardedTaskServiceTest {
+
+    @Autowired
+    TaskService taskService;
+
+    @Autowired
+    TaskShards taskShards;
+
+    @Autowired
+    TaskShardRebalancer taskShardRebalancer;
+
+    @Test
+    void testCreateSpreadsTasksOverTheShards() throws TaskNotFoundException {
+        var ids = new ArrayList<Long>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(taskService.create(new TaskEntity("Task " + i, ZonedDateTime.now())));
+        }
+
+        assertEquals(6, ids.stream().map(TaskShards::shardOf).distinct().count());
+        for (var id : ids) {
+            assertEquals(1, countOn(taskShards.databaseOf(TaskShards.shardOf(id)), id));
+            assertEquals(id, taskService.find(id).getId());
+        }
+    }
+
+    @Test
+    void testCreateAllKeepsAChunkOnOneShard() {
+        var ids = taskService.createAll(List.of(
+                new TaskEntity("Task 1", ZonedDateTime.now()),
+                new TaskEntity("Task 2", ZonedDateTime.now())));
+
+        assertEquals(1, ids.stream().map(TaskShards::shardOf).distinct().count());
+    }
+
+    @Test
+    void testUpdateAndDeleteRouteToTheShard()
+            throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException {
+        var ids = new ArrayList<Long>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(taskService.create(new TaskEntity("Task " + i, ZonedDateTime.now())));
+        }
+
+        for (var id : ids) {
+            taskService.updateTask(id, Map.of("status", Status.IN_PROGRESS.name()));
+            assertEquals(Status.IN_PROGRESS, taskService.find(id).getStatus());
+            taskService.delete(id);
+            assertThrows(TaskNotFoundException.class, () -> taskService.find(id));
+        }
+    }
+
+    @Test
+    void testBulkUpdateAcrossDatabases() throws TaskNotFoundException {
+        var ids = new ArrayList<Long>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(taskService.create(new TaskEntity("Task " + i, ZonedDateTime.now())));
+        }
+
+        var result = taskService.updateStatus(ids, Status.COMPLETED);
+
+        assertEquals(6, result.getUpdated());
+        for (var id : ids) {
+            assertEquals(Status.COMPLETED, taskService.find(id).getStatus());
+        }
+    }
+
+    @Test
+    void testRetrievePageMergesTheShardsInDueOrder() {
+        var base = ZonedDateTime.of(2031, 3, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+        var expected = new ArrayList<Long>();
+        for (int i = 0; i < 9; i++) {
+            expected.add(taskService.create(new TaskEntity("Task " + i, base.plusHours(i))));
+        }
+        var filter = TaskFilter.builder().dueFrom(base).dueTo(base.plusDays(1)).build();
+
+        var seen = new ArrayList<Long>();
+        TaskCursor cursor = null;
+        do {
+            var slice = taskService.retrievePage(filter, cursor, 4);
+            slice.getTasks().forEach(task -> seen.add(task.getId()));
+            cursor = slice.getNext();
+        } while (cursor != null);
+
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void testMoveShard() throws TaskNotFoundException {
+        var ids = new ArrayList<Long>();
+        for (int i = 0; i < 12; i++) {
+            ids.add(taskService.create(new TaskEntity("Task " + i, ZonedDateTime.now())));
+        }
+        var shard = TaskShards.shardOf(ids.get(0));
+        var source = taskShards.databaseOf(shard);
+        var target = (source + 1) % taskShards.getDatabaseCount();
+        var moving = ids.stream().filter(id -> TaskShards.shardOf(id) == shard).toList();
+
+        taskShardRebalancer.move(shard, target);
+
+        assertEquals(target, taskShardRebalancer.getAssignment().get(shard));
+        for (var id : moving) {
+            assertEquals(0, countOn(source, id));
+            assertEquals(1, countOn(target, id));
+            assertEquals(id, taskService.find(id).getId());
+        }
+        // new Tasks on the shard follow those moved with it
+        var created = taskShards.onShard(shard, () -> taskService.create(new TaskEntity("Moved", ZonedDateTime.now())));
+        assertEquals(shard, TaskShards.shardOf(created));
+        assertEquals(1, countOn(target, created));
+        assertTrue(moving.stream().allMatch(id -> id < created));
+
+        taskShardRebalancer.move(shard, source);
+
+        assertEquals(1, countOn(source, created));
+        assertEquals(0, countOn(target, created));
+        assertEquals(created, taskService.find(created).getId());
+    }
+
+    private int countOn(int database, long id) {
+        var url = database == 0 ? "jdbc:h2:mem:sharded-0" : "jdbc:h2:mem:sharded-" + database + ";DB_CLOSE_DELAY=-1";
+        var jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        return jdbcTemplate.queryForObject("select count(*) from task where id = ?", Integer.class, id);
+    }
+}
@@ -0,0 +1,194 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.constants.TaskChangeType;
+import com.hurricanepilot.hmctsdt.persistence.shard.TaskShards;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TaskDueIndexTest {
+
+    JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    TaskDueIndex taskDueIndex = new TaskDueIndex(jdbcTemplate, TaskShards.single(), eventPublisher, meterRegistry);
+
+    Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Test
+    void testFind() {
+        changed(3L, TaskChangeType.CREATED, Status.NEW, now.minusSeconds(60));
+        changed(1L, TaskChangeType.CREATED, Status.IN_PROGRESS, now.minusSeconds(60));
+        changed(2L, TaskChangeType.CREATED, Status.NEW, now.minusSeconds(120));
+        changed(4L, TaskChangeType.CREATED, Status.NEW, now.plusSeconds(60));
+        changed(5L, TaskChangeType.CREATED, Status.DEFERRED, now.plusSeconds(3600));
+
+        // overdue, in due and then ID order
+        assertEquals(List.of(2L, 1L, 3L), ids(taskDueIndex.find(null, now, null, 10)));
+        // due within the next hour
+        assertEquals(List.of(4L), ids(taskDueIndex.find(now, now.plusSeconds(3600), null, 10)));
+        assertEquals(5, taskDueIndex.size());
+    }
+
+    @Test
+    void testFindPages() {
+        for (long id = 1; id <= 5; id++) {
+            changed(id, TaskChangeType.CREATED, Status.NEW, now.minusSeconds(id));
+        }
+
+        var first = taskDueIndex.find(null, now, null, 2);
+        var second = taskDueIndex.find(null, now, first.get(1), 2);
+        var last = taskDueIndex.find(null, now, second.get(1), 2);
+
+        assertEquals(List.of(5L, 4L), ids(first));
+        assertEquals(List.of(3L, 2L), ids(second));
+        assertEquals(List.of(1L), ids(last));
+        assertEquals(List.of(), taskDueIndex.find(null, now, last.get(0), 2));
+    }
+
+    @Test
+    void testFindIgnoresCursorBeforeRange() {
+        changed(1L, TaskChangeType.CREATED, Status.NEW, now.plusSeconds(10));
+        changed(2L, TaskChangeType.CREATED, Status.NEW, now.plusSeconds(20));
+
+        var stale = new TaskCursor(now.minusSeconds(60), 9L);
+
+        assertEquals(List.of(1L, 2L), ids(taskDueIndex.find(now, now.plusSeconds(60), stale, 10)));
+        // and one past the end of the range finds nothing
+        assertEquals(List.of(), taskDueIndex.find(now, now.plusSeconds(60), new TaskCursor(now.plusSeconds(90), 1L), 10));
+    }
+
+    @Test
+    void testChangedRemovesCompletedAndDeleted() {
+        changed(1L, TaskChangeType.CREATED, Status.NEW, now.minusSeconds(60));
+        changed(2L, TaskChangeType.CREATED, Status.NEW, now.minusSeconds(60));
+        changed(3L, TaskChangeType.CREATED, Status.COMPLETED, now.minusSeconds(60));
+
+        changed(1L, TaskChangeType.STATUS_CHANGED, Status.COMPLETED, now.minusSeconds(60), 1);
+        changed(2L, TaskChangeType.DELETED, Status.NEW, now.minusSeconds(60));
+        // reopened
+        changed(3L, TaskChangeType.STATUS_CHANGED, Status.IN_PROGRESS, now.minusSeconds(60), 1);
+
+        assertEquals(List.of(3L), ids(taskDueIndex.find(null, now, null, 10)));
+        assertEquals(1, taskDueIndex.size());
+        assertEquals(1, taskDueIndex.getOverdueCount());
+    }
+
+    @Test
+    void testChangedIgnoresOlderChanges() {
+        changed(1L, TaskChangeType.CREATED, Status.NEW, now.minusSeconds(60));
+        changed(2L, TaskChangeType.CREATED, Status.NEW, now.minusSeconds(60));
+
+        // the completion commits first, but its event is delivered after the
+        // later reopening
+        changed(1L, TaskChangeType.STATUS_CHANGED, Status.IN_PROGRESS, now.minusSeconds(60), 2);
+        changed(1L, TaskChangeType.STATUS_CHANGED, Status.COMPLETED, now.minusSeconds(60), 1);
+        // nor does anything follow a deletion
+        changed(2L, TaskChangeType.DELETED, Status.NEW, now.minusSeconds(60));
+        changed(2L, TaskChangeType.STATUS_CHANGED, Status.IN_PROGRESS, now.minusSeconds(60), 1);
+
+        assertEquals(List.of(1L), ids(taskDueIndex.find(null, now, null, 10)));
+        assertEquals(1, taskDueIndex.getOverdueCount());
+    }
+
+    @Test
+    void testForgetDeparted() {
+        changed(1L, TaskChangeType.CREATED, Status.NEW, now.minusSeconds(60));
+        changed(2L, TaskChangeType.CREATED, Status.NEW, now.minusSeconds(60));
+        changed(3L, TaskChangeType.CREATED, Status.NEW, now.minusSeconds(60));
+        changed(1L, TaskChangeType.STATUS_CHANGED, Status.COMPLETED, now.minusSeconds(60), 1);
+        changed(2L, TaskChangeType.DELETED, Status.NEW, now.minusSeconds(60));
+
+        // kept while an older change could still arrive
+        taskDueIndex.forgetDeparted();
+        changed(2L, TaskChangeType.STATUS_CHANGED, Status.IN_PROGRESS, now.minusSeconds(60), 1);
+        assertEquals(3, taskDueIndex.versionCount());
+        assertEquals(List.of(3L), ids(taskDueIndex.find(null, now, null, 10)));
+
+        taskDueIndex.forgetDeparted(Instant.now().plusSeconds(1));
+
+        assertEquals(1, taskDueIndex.versionCount());
+        assertEquals(List.of(3L), ids(taskDueIndex.find(null, now, null, 10)));
+    }
+
+    @Test
+    void testRebuild() throws Exception {
+        changed(1L, TaskChangeType.CREATED, Status.NEW, now.minusSeconds(60));
+        var row = mock(ResultSet.class);
+        when(row.getLong(1)).thenReturn(2L, 3L);
+        when(row.getObject(2, OffsetDateTime.class)).thenReturn(
+                now.minusSeconds(30).atOffset(ZoneOffset.UTC), now.minusSeconds(20).atOffset(ZoneOffset.UTC));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row);
+            // changes committed while the table is read
+            changed(2L, TaskChangeType.STATUS_CHANGED, Status.COMPLETED, now.minusSeconds(30), 1);
+            changed(4L, TaskChangeType.CREATED, Status.NEW, now.minusSeconds(10));
+            handler.processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(Status.COMPLETED.ordinal()));
+
+        taskDueIndex.rebuild();
+
+        assertEquals(List.of(3L, 4L), ids(taskDueIndex.find(null, now, null, 10)));
+        assertEquals(2, taskDueIndex.size());
+    }
+
+    @Test
+    void testAnnounceOverdue() throws Exception {
+        var start = Instant.now();
+        changed(1L, TaskChangeType.CREATED, Status.NEW, start.minusSeconds(60));
+        changed(2L, TaskChangeType.CREATED, Status.NEW, start.plusMillis(50));
+        changed(3L, TaskChangeType.CREATED, Status.NEW, start.plusSeconds(3600));
+
+        assertEquals(1, taskDueIndex.getOverdueCount());
+
+        Thread.sleep(100);
+        taskDueIndex.announceOverdue();
+        taskDueIndex.announceOverdue();
+
+        // only the Task that became overdue since the index was created, once
+        verify(eventPublisher).publishEvent(new TaskOverdueEvent(2L, start.plusMillis(50)));
+        verify(eventPublisher, never()).publishEvent(new TaskOverdueEvent(1L, start.minusSeconds(60)));
+        assertEquals(1, meterRegistry.get(TaskDueIndex.OVERDUE_COUNTER).counter().count());
+        assertEquals(2, taskDueIndex.getOverdueCount());
+    }
+
+    private void changed(Long id, TaskChangeType type, Status status, Instant due) {
+        changed(id, type, status, due, 0);
+    }
+
+    private void changed(Long id, TaskChangeType type, Status status, Instant due, long version) {
+        taskDueIndex.changed(new TaskChangeEvent(id, type, Instant.now(), "Task " + id, null, status, null,
+                due.atZone(ZoneOffset.UTC), version));
+    }
+
+    private static List<Long> ids(List<TaskCursor> positions) {
+        return positions.stream().map(TaskCursor::getId).toList();
+    }
+}
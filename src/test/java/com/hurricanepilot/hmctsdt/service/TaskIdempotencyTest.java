@@ -0,0 +1,155 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hurricanepilot.hmctsdt.persistence.entity.IdempotencyKeyEntity;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.persistence.repository.IdempotencyKeyRepository;
+import com.hurricanepilot.hmctsdt.persistence.shard.TaskShards;
+import com.hurricanepilot.hmctsdt.service.exception.TaskIdempotencyKeyReusedException;
+
+import jakarta.persistence.EntityManager;
+
+class TaskIdempotencyTest {
+
+    private static final ZonedDateTime DUE = ZonedDateTime.parse("2025-01-02T09:00:00Z");
+
+    TaskService taskService = mock(TaskService.class);
+
+    IdempotencyKeyRepository idempotencyKeyRepository = mock(IdempotencyKeyRepository.class);
+
+    EntityManager entityManager = mock(EntityManager.class);
+
+    TaskIdempotency taskIdempotency(boolean persistent) {
+        return new TaskIdempotency(taskService, TaskShards.single(), idempotencyKeyRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), entityManager,
+                Duration.ofHours(24), 100, persistent);
+    }
+
+    @Test
+    void testCreateReplaysKey() throws Exception {
+        var taskIdempotency = taskIdempotency(false);
+        when(taskService.create(any(TaskEntity.class))).thenReturn(1L, 2L);
+
+        assertEquals(1L, taskIdempotency.create("key", new TaskEntity("Task", DUE)));
+        assertEquals(1L, taskIdempotency.create("key", new TaskEntity("Task", DUE)));
+        assertEquals(2L, taskIdempotency.create("other-key", new TaskEntity("Task", DUE)));
+
+        verify(taskService, times(2)).create(any(TaskEntity.class));
+    }
+
+    @Test
+    void testCreateCoalescesConcurrentRequests() throws Exception {
+        var taskIdempotency = taskIdempotency(false);
+        var creating = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(taskService.create(any(TaskEntity.class))).thenAnswer(invocation -> {
+            creating.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 1L;
+        });
+
+        try (var executor = Executors.newFixedThreadPool(2)) {
+            var first = executor.submit(() -> taskIdempotency.create("key", new TaskEntity("Task", DUE)));
+            creating.await(5, TimeUnit.SECONDS);
+            var second = executor.submit(() -> taskIdempotency.create("key", new TaskEntity("Task", DUE)));
+            release.countDown();
+
+            assertEquals(1L, first.get(5, TimeUnit.SECONDS));
+            assertEquals(1L, second.get(5, TimeUnit.SECONDS));
+        }
+        verify(taskService, times(1)).create(any(TaskEntity.class));
+    }
+
+    @Test
+    void testCreateKeyReused() throws Exception {
+        var taskIdempotency = taskIdempotency(false);
+        when(taskService.create(any(TaskEntity.class))).thenReturn(1L);
+
+        taskIdempotency.create("key", new TaskEntity("Task", DUE));
+        var different = new TaskEntity("A different Task", DUE);
+
+        assertThrows(TaskIdempotencyKeyReusedException.class, () -> taskIdempotency.create("key", different));
+        verify(taskService, times(1)).create(any(TaskEntity.class));
+    }
+
+    @Test
+    void testCreateFailureReleasesKey() throws Exception {
+        var taskIdempotency = taskIdempotency(false);
+        when(taskService.create(any(TaskEntity.class)))
+                .thenThrow(new IllegalStateException("Database unavailable"))
+                .thenReturn(1L);
+        var task = new TaskEntity("Task", DUE);
+
+        assertThrows(IllegalStateException.class, () -> taskIdempotency.create("key", task));
+        assertEquals(1L, taskIdempotency.create("key", new TaskEntity("Task", DUE)));
+    }
+
+    @Test
+    void testFingerprint() {
+        var task = new TaskEntity("Task", "Details", DUE);
+
+        assertEquals(TaskIdempotency.fingerprint(task), TaskIdempotency.fingerprint(new TaskEntity("Task", "Details", DUE)));
+        assertEquals(64, TaskIdempotency.fingerprint(task).length());
+        assertNotEquals(TaskIdempotency.fingerprint(task), TaskIdempotency.fingerprint(new TaskEntity("Task", DUE)));
+        // the same text split differently between the fields
+        assertNotEquals(TaskIdempotency.fingerprint(new TaskEntity("TaskD", "etails", DUE)),
+                TaskIdempotency.fingerprint(task));
+        assertNotEquals(TaskIdempotency.fingerprint(task),
+                TaskIdempotency.fingerprint(new TaskEntity("Task", "Details", DUE.plusSeconds(1))));
+    }
+
+    @Test
+    void testCreatePersistentReplaysStoredKey() throws Exception {
+        var taskIdempotency = taskIdempotency(true);
+        var stored = new IdempotencyKeyEntity("key", 7L, TaskIdempotency.fingerprint(new TaskEntity("Task", DUE)), Instant.now());
+        when(idempotencyKeyRepository.findById("key")).thenReturn(Optional.of(stored));
+
+        assertEquals(7L, taskIdempotency.create("key", new TaskEntity("Task", DUE)));
+        verify(taskService, never()).create(any(TaskEntity.class));
+    }
+
+    @Test
+    void testCreatePersistentStoresKey() throws Exception {
+        var taskIdempotency = taskIdempotency(true);
+        when(idempotencyKeyRepository.findById("key")).thenReturn(Optional.empty());
+        when(taskService.create(any(TaskEntity.class))).thenReturn(3L);
+
+        assertEquals(3L, taskIdempotency.create("key", new TaskEntity("Task", DUE)));
+        verify(idempotencyKeyRepository).deleteExpired(any(String.class), any(Instant.class));
+        verify(entityManager).persist(any(IdempotencyKeyEntity.class));
+    }
+
+    @Test
+    void testCreatePersistentConflict() throws Exception {
+        var taskIdempotency = taskIdempotency(true);
+        var stored = new IdempotencyKeyEntity("key", 7L, TaskIdempotency.fingerprint(new TaskEntity("Task", DUE)), Instant.now());
+        when(idempotencyKeyRepository.findById("key")).thenReturn(Optional.empty(), Optional.of(stored));
+        when(taskService.create(any(TaskEntity.class))).thenReturn(3L);
+        doThrow(new DataIntegrityViolationException("duplicate key")).when(entityManager).flush();
+
+        assertEquals(7L, taskIdempotency.create("key", new TaskEntity("Task", DUE)));
+    }
+}
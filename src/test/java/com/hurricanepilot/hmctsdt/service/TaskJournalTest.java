@@ -0,0 +1,168 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.constants.TaskChangeType;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEventEntity;
+import com.hurricanepilot.hmctsdt.persistence.repository.TaskEventRepository;
+import com.hurricanepilot.hmctsdt.persistence.shard.TaskShards;
+import com.hurricanepilot.hmctsdt.service.exception.TaskNotFoundException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskStatusInvalidException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskUpdateNotSupportedException;
+
+/**
+ * Events are only journalled once the change commits, so unlike the other
+ * service tests these aren't transactional. They run against their own
+ * database so the committed Tasks don't leak in to other tests.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:journal")
+class TaskJournalTest {
+
+    @Autowired
+    TaskService taskService;
+
+    @Autowired
+    TaskJournal taskJournal;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    void testHistory() throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException {
+        var id = taskService.create(new TaskEntity("Task 1", ZonedDateTime.now()));
+        taskService.updateTask(id, Map.of("status", Status.IN_PROGRESS.name()));
+        taskService.updateTask(id, Map.of("status", Status.COMPLETED.name()));
+        taskService.delete(id);
+
+        var history = taskService.history(id);
+
+        assertEquals(List.of(TaskChangeType.CREATED, TaskChangeType.STATUS_CHANGED, TaskChangeType.STATUS_CHANGED,
+                TaskChangeType.DELETED), history.stream().map(TaskEventEntity::getType).toList());
+        assertNull(history.get(0).getPreviousStatus());
+        assertEquals(Status.NEW, history.get(1).getPreviousStatus());
+        assertEquals(Status.IN_PROGRESS, history.get(1).getStatus());
+        assertEquals(Status.IN_PROGRESS, history.get(2).getPreviousStatus());
+        assertEquals(Status.COMPLETED, history.get(2).getStatus());
+        assertEquals(List.of(0L, 1L, 2L, 2L), history.stream().map(TaskEventEntity::getVersion).toList());
+    }
+
+    @Test
+    void testRecordedWhileStopped()
+            throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException {
+        var id = taskService.create(new TaskEntity("Task 1", ZonedDateTime.now()));
+        // events are written by the thread that made the change, once it commits
+        taskJournal.stop();
+        try {
+            taskService.updateTask(id, Map.of("status", Status.IN_PROGRESS.name()));
+        } finally {
+            taskJournal.start();
+        }
+
+        assertEquals(List.of(TaskChangeType.CREATED, TaskChangeType.STATUS_CHANGED),
+                taskService.history(id).stream().map(TaskEventEntity::getType).toList());
+    }
+
+    @Test
+    void testRebuildRefusedAfterLostEvents() {
+        var failing = mock(TaskEventRepository.class);
+        when(failing.saveAll(anyList())).thenThrow(new QueryTimeoutException("timed out"));
+        // not started, so each event is written as it is recorded
+        var journal = new TaskJournal(failing, transactionTemplate, jdbcTemplate, TaskShards.single(),
+                event -> {
+                });
+
+        var task = new TaskEntity("Task 1", ZonedDateTime.now());
+        task.setId(1L);
+        task.setVersion(0L);
+        journal.record(TaskChangeEvent.created(task));
+
+        verify(failing, times(3)).saveAll(anyList());
+        assertEquals(1, journal.getLostCount());
+        assertThrows(IllegalStateException.class, journal::rebuild);
+        verify(failing, never()).streamAll();
+    }
+
+    @Test
+    void testHistoryUnknownTask() {
+        assertThrows(TaskNotFoundException.class, () -> taskService.history(-1L));
+    }
+
+    @Test
+    void testUnchangedStatusNotJournalled() throws TaskNotFoundException, TaskStatusInvalidException,
+            TaskUpdateNotSupportedException {
+        var id = taskService.create(new TaskEntity("Task 1", ZonedDateTime.now()));
+        taskService.updateTask(id, Map.of("status", Status.NEW.name()));
+        assertThrows(TaskUpdateNotSupportedException.class,
+                () -> taskService.updateTask(id, Map.of("title", "wibble")));
+
+        assertEquals(1, taskService.history(id).size());
+    }
+
+    @Test
+    void testBulkUpdateJournalled() throws TaskNotFoundException {
+        var ids = taskService.createAll(List.of(
+                new TaskEntity("Task 1", ZonedDateTime.now()),
+                new TaskEntity("Task 2", ZonedDateTime.now())));
+
+        taskService.updateStatus(ids, Status.DEFERRED);
+
+        for (var id : ids) {
+            var history = taskService.history(id);
+            assertEquals(2, history.size());
+            assertEquals(TaskChangeType.STATUS_CHANGED, history.get(1).getType());
+            assertEquals(Status.DEFERRED, history.get(1).getStatus());
+            assertEquals(taskService.find(id).getVersion(), history.get(1).getVersion());
+        }
+    }
+
+    @Test
+    void testRebuild() throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException {
+        var kept = taskService.create(new TaskEntity("Kept", "Still here", ZonedDateTime.now().plusDays(1)));
+        taskService.updateTask(kept, Map.of("status", Status.IN_PROGRESS.name()));
+        var deleted = taskService.create(new TaskEntity("Deleted", ZonedDateTime.now()));
+        taskService.delete(deleted);
+        var before = taskService.find(kept);
+
+        // lose the task table
+        jdbcTemplate.update("delete from task");
+
+        taskJournal.rebuild();
+
+        var rebuilt = taskService.find(kept);
+        assertEquals("Kept", rebuilt.getTitle());
+        assertEquals("Still here", rebuilt.getDescription());
+        assertEquals(Status.IN_PROGRESS, rebuilt.getStatus());
+        assertEquals(before.getDueDateTime().toInstant(), rebuilt.getDueDateTime().toInstant());
+        assertEquals(before.getVersion(), rebuilt.getVersion());
+        assertThrows(TaskNotFoundException.class, () -> taskService.find(deleted));
+
+        // new Tasks are given IDs beyond the rebuilt ones
+        var created = taskService.create(new TaskEntity("New", ZonedDateTime.now()));
+        assertTrue(created > kept);
+    }
+}
@@ -0,0 +1,183 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.persistence.replica.ReplicaRoutingDataSource;
+import com.hurricanepilot.hmctsdt.persistence.repository.TaskRepository;
+import com.hurricanepilot.hmctsdt.persistence.shard.TaskShards;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TaskLoaderTest {
+
+    TaskRepository taskRepository = mock(TaskRepository.class);
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testLoad() {
+        var taskLoader = new TaskLoader(taskRepository, TaskShards.single(), meterRegistry, Duration.ZERO, 100);
+        var task = task(1L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+
+        assertSame(task, taskLoader.load(1L).orElseThrow());
+        assertTrue(taskLoader.load(2L).isEmpty());
+        assertEquals(0, saved("coalesced"));
+    }
+
+    @Test
+    void testLoadCoalescesConcurrentLookups() throws Exception {
+        var taskLoader = new TaskLoader(taskRepository, TaskShards.single(), meterRegistry, Duration.ZERO, 100);
+        var task = task(1L);
+        var reading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(taskRepository.findById(1L)).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(task);
+        });
+
+        try (var executor = Executors.newFixedThreadPool(4)) {
+            var first = executor.submit(() -> taskLoader.load(1L));
+            reading.await(5, TimeUnit.SECONDS);
+            var others = new ArrayList<Future<Optional<TaskEntity>>>();
+            for (int i = 0; i < 3; i++) {
+                others.add(executor.submit(() -> taskLoader.load(1L)));
+            }
+            // wait for the other lookups to join the read in progress
+            var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (saved("coalesced") < 3 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertSame(task, first.get(5, TimeUnit.SECONDS).orElseThrow());
+            for (var other : others) {
+                assertSame(task, other.get(5, TimeUnit.SECONDS).orElseThrow());
+            }
+        }
+        verify(taskRepository, times(1)).findById(1L);
+        assertEquals(3, saved("coalesced"));
+    }
+
+    @Test
+    void testLoadBatchesLookups() throws Exception {
+        var taskLoader = new TaskLoader(taskRepository, TaskShards.single(), meterRegistry, Duration.ofSeconds(5), 3);
+        when(taskRepository.findAllById(anyIterable())).thenReturn(List.of(task(1L), task(3L)));
+
+        try (var executor = Executors.newFixedThreadPool(3)) {
+            var first = executor.submit(() -> taskLoader.load(1L));
+            var second = executor.submit(() -> taskLoader.load(2L));
+            var third = executor.submit(() -> taskLoader.load(3L));
+
+            // the batch is loaded as soon as it is full, well within the window
+            assertEquals(1L, first.get(2, TimeUnit.SECONDS).orElseThrow().getId());
+            assertTrue(second.get(2, TimeUnit.SECONDS).isEmpty());
+            assertEquals(3L, third.get(2, TimeUnit.SECONDS).orElseThrow().getId());
+        }
+        verify(taskRepository, times(1)).findAllById(anyIterable());
+        verify(taskRepository, never()).findById(1L);
+        assertEquals(2, saved("batched"));
+    }
+
+    @Test
+    void testLoadBatchClosesAfterWindow() {
+        var taskLoader = new TaskLoader(taskRepository, TaskShards.single(), meterRegistry, Duration.ofMillis(10), 100);
+        when(taskRepository.findAllById(anyIterable())).thenReturn(List.of(task(1L)));
+
+        assertEquals(1L, taskLoader.load(1L).orElseThrow().getId());
+        assertEquals(0, saved("batched"));
+    }
+
+    @Test
+    void testLoadWithinTransactionReadsDirectly() {
+        var taskLoader = new TaskLoader(taskRepository, TaskShards.single(), meterRegistry, Duration.ofSeconds(5), 100);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task(1L)));
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertEquals(1L, taskLoader.load(1L).orElseThrow().getId());
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        verify(taskRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void testLoadRequiringPrimaryDoesNotShareReads() throws Exception {
+        var taskLoader = new TaskLoader(taskRepository, TaskShards.single(), meterRegistry, Duration.ZERO, 100);
+        var reading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(taskRepository.findById(1L)).thenAnswer(invocation -> {
+            if (!ReplicaRoutingDataSource.isPrimaryRequired()) {
+                // a replica read, still in progress
+                reading.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return Optional.of(task(1L));
+        });
+
+        try (var executor = Executors.newFixedThreadPool(2)) {
+            var replicaRead = executor.submit(() -> taskLoader.load(1L));
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+            var primaryRead = executor.submit(() -> {
+                ReplicaRoutingDataSource.requirePrimary(true);
+                try {
+                    return taskLoader.load(1L);
+                } finally {
+                    ReplicaRoutingDataSource.requirePrimary(false);
+                }
+            });
+
+            assertEquals(1L, primaryRead.get(5, TimeUnit.SECONDS).orElseThrow().getId());
+            release.countDown();
+            assertEquals(1L, replicaRead.get(5, TimeUnit.SECONDS).orElseThrow().getId());
+        }
+        verify(taskRepository, times(2)).findById(1L);
+        assertEquals(0, saved("coalesced"));
+    }
+
+    @Test
+    void testLoadFailureIsNotShared() {
+        var taskLoader = new TaskLoader(taskRepository, TaskShards.single(), meterRegistry, Duration.ZERO, 100);
+        when(taskRepository.findById(1L))
+                .thenThrow(new IllegalStateException("Database unavailable"))
+                .thenReturn(Optional.of(task(1L)));
+
+        assertThrows(IllegalStateException.class, () -> taskLoader.load(1L));
+        assertEquals(1L, taskLoader.load(1L).orElseThrow().getId());
+    }
+
+    private double saved(String reason) {
+        return meterRegistry.get(TaskLoader.QUERIES_SAVED_COUNTER).tag("reason", reason).counter().count();
+    }
+
+    private static TaskEntity task(Long id) {
+        var task = new TaskEntity("Task " + id, ZonedDateTime.now());
+        task.setId(id);
+        return task;
+    }
+}
@@ -0,0 +1,131 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.constants.TaskChangeType;
+import com.hurricanepilot.hmctsdt.persistence.shard.TaskShards;
+
+class TaskSearchIndexTest {
+
+    JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    TaskSearchIndex taskSearchIndex = new TaskSearchIndex(jdbcTemplate, TaskShards.single());
+
+    @Test
+    void testTokenise() {
+        assertEquals(Map.of("resume", 2, "cafe", 1, "2025", 1),
+                TaskSearchIndex.tokenise("Résumé: CAFÉ-resume (2025)"));
+        assertEquals(Map.of(), TaskSearchIndex.tokenise(" -- "));
+        assertEquals(Map.of(), TaskSearchIndex.tokenise(null));
+    }
+
+    @Test
+    void testSearchRanksTitleMatchesFirst() {
+        created(1L, "Prepare courtroom", "Copy the hearing bundle for the judge");
+        created(2L, "Hearing bundle", null);
+        created(3L, "Book interpreter", "For the hearing");
+        created(4L, "Unrelated", "Nothing to see");
+
+        var hits = taskSearchIndex.search("hearing bundle", 0, 10);
+
+        assertEquals(List.of(2L, 1L, 3L), hits.getIds());
+        assertEquals(3, hits.getTotal());
+    }
+
+    @Test
+    void testSearchFoldsCaseAndAccents() {
+        created(1L, "Café order", null);
+
+        assertEquals(List.of(1L), taskSearchIndex.search("CAFE", 0, 10).getIds());
+        assertEquals(List.of(1L), taskSearchIndex.search("café", 0, 10).getIds());
+    }
+
+    @Test
+    void testSearchPages() {
+        for (long id = 1; id <= 5; id++) {
+            created(id, "Review case " + id, null);
+        }
+
+        // equally good matches are ordered by ID
+        var first = taskSearchIndex.search("review", 0, 2);
+        var last = taskSearchIndex.search("review", 4, 2);
+
+        assertEquals(List.of(1L, 2L), first.getIds());
+        assertEquals(List.of(5L), last.getIds());
+        assertEquals(5, last.getTotal());
+        assertEquals(List.of(), taskSearchIndex.search("review", 6, 2).getIds());
+    }
+
+    @Test
+    void testSearchNoMatches() {
+        created(1L, "Review case", null);
+
+        assertEquals(0, taskSearchIndex.search("appeal", 0, 10).getTotal());
+        assertEquals(0, taskSearchIndex.search("!!", 0, 10).getTotal());
+    }
+
+    @Test
+    void testDeleted() {
+        created(1L, "Review case", null);
+        created(2L, "Review appeal", null);
+
+        taskSearchIndex.changed(event(1L, TaskChangeType.DELETED, "Review case", null));
+        // a status change leaves the text, and so the index, unchanged
+        taskSearchIndex.changed(event(2L, TaskChangeType.STATUS_CHANGED, "Review appeal", null));
+
+        assertEquals(List.of(2L), taskSearchIndex.search("review", 0, 10).getIds());
+        assertEquals(0, taskSearchIndex.search("case", 0, 10).getTotal());
+        assertEquals(1, taskSearchIndex.size());
+    }
+
+    @Test
+    void testRebuild() throws Exception {
+        created(1L, "Stale task", null);
+        var row = mock(ResultSet.class);
+        when(row.getLong(1)).thenReturn(2L, 3L);
+        when(row.getString(2)).thenReturn("Review case", "Review appeal");
+        when(row.getString(3)).thenReturn(null, "Lodged late");
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row);
+            // a Task created and another deleted while the table is read
+            created(4L, "Review bundle", null);
+            taskSearchIndex.changed(event(2L, TaskChangeType.DELETED, "Review case", null));
+            handler.processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        taskSearchIndex.rebuild();
+
+        assertEquals(0, taskSearchIndex.search("stale", 0, 10).getTotal());
+        assertEquals(Set.of(3L, 4L), Set.copyOf(taskSearchIndex.search("review", 0, 10).getIds()));
+        assertEquals(List.of(3L), taskSearchIndex.search("late", 0, 10).getIds());
+        assertEquals(2, taskSearchIndex.size());
+    }
+
+    private void created(Long id, String title, String description) {
+        taskSearchIndex.changed(event(id, TaskChangeType.CREATED, title, description));
+    }
+
+    private static TaskChangeEvent event(Long id, TaskChangeType type, String title, String description) {
+        return new TaskChangeEvent(id, type, Instant.now(), title, description, Status.NEW, null,
+                ZonedDateTime.now(), 0L);
+    }
+}
@@ -0,0 +1,101 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.service.exception.TaskNotFoundException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskStatusInvalidException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskUpdateNotSupportedException;
+
+@SpringBootTest
+@Transactional
+class TaskServiceCacheTest {
+
+    @Autowired
+    TaskService taskService;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = cacheManager.getCache(TaskService.TASK_CACHE);
+        assertNotNull(cache);
+    }
+
+    @Test
+    void testFindIsCached() throws TaskNotFoundException {
+        var id = taskService.create(new TaskEntity("Task 1", ZonedDateTime.now()));
+        assertNull(cache.get(id));
+
+        var result = taskService.find(id);
+
+        assertNotNull(cache.get(id));
+        assertSame(result, taskService.find(id));
+    }
+
+    @Test
+    void testUpdateTaskEvicts()
+            throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException {
+        var id = taskService.create(new TaskEntity("Task 1", ZonedDateTime.now()));
+        taskService.find(id);
+
+        taskService.updateTask(id, Map.of("status", Status.COMPLETED.name()));
+
+        assertNull(cache.get(id));
+        assertEquals(Status.COMPLETED, taskService.find(id).getStatus());
+    }
+
+    @Test
+    void testRejectedUpdateDoesNotEvict() throws TaskNotFoundException {
+        var id = taskService.create(new TaskEntity("Task 1", ZonedDateTime.now()));
+        taskService.find(id);
+
+        try {
+            taskService.updateTask(id, Map.of("description", "new description"));
+        } catch (TaskStatusInvalidException | TaskUpdateNotSupportedException e) {
+            // expected
+        }
+
+        assertNotNull(cache.get(id));
+    }
+
+    @Test
+    void testBulkUpdateEvicts() throws TaskNotFoundException {
+        var id = taskService.create(new TaskEntity("Task 1", ZonedDateTime.now()));
+        taskService.find(id);
+
+        taskService.updateStatus(List.of(id), Status.IN_PROGRESS);
+
+        assertNull(cache.get(id));
+        assertEquals(Status.IN_PROGRESS, taskService.find(id).getStatus());
+    }
+
+    @Test
+    void testDeleteEvicts() throws TaskNotFoundException {
+        var id = taskService.create(new TaskEntity("Task 1", ZonedDateTime.now()));
+        taskService.find(id);
+
+        taskService.delete(id);
+
+        assertNull(cache.get(id));
+    }
+}
@@ -0,0 +1,74 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.persistence.replica.ReplicaRoutingDataSource;
+import com.hurricanepilot.hmctsdt.service.exception.TaskNotFoundException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskStatusInvalidException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskUpdateNotSupportedException;
+
+/**
+ * Reads against a replica kept a couple of seconds behind the primary by the
+ * replication stand-in. The changes have to commit to be replicated, so
+ * these tests aren't transactional, and run against their own databases.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:lagging-primary",
+        "hmcts.replicas.enabled=true",
+        "hmcts.replicas.urls=jdbc:h2:mem:lagging-replica;DB_CLOSE_DELAY=-1",
+        "hmcts.replicas.stand-in.enabled=true",
+        "hmcts.replicas.stand-in.lag=2s",
+        "hmcts.replicas.read-your-writes=30s" })
+class TaskServiceReplicaTest {
+
+    private static final Duration REPLICATION_TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    TaskService taskService;
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.requirePrimary(false);
+    }
+
+    @Test
+    void testReadsRequiringPrimarySeeTheirWrites()
+            throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException,
+            InterruptedException {
+        var id = taskService.create(new TaskEntity("Task 1", ZonedDateTime.now()));
+        awaitReplica(id);
+
+        taskService.updateTask(id, Map.of("status", Status.IN_PROGRESS.name()));
+        // another client's read, served by the replica before the update reaches
+        // it, caches the old state
+        assertEquals(Status.NEW, taskService.find(id).getStatus());
+
+        ReplicaRoutingDataSource.requirePrimary(true);
+        assertEquals(Status.IN_PROGRESS, taskService.find(id).getStatus());
+    }
+
+    private void awaitReplica(Long id) throws InterruptedException {
+        var deadline = System.nanoTime() + REPLICATION_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                taskService.find(id);
+                return;
+            } catch (TaskNotFoundException e) {
+                Thread.sleep(50);
+            }
+        }
+        fail("Task " + id + " did not reach the replica");
+    }
+}
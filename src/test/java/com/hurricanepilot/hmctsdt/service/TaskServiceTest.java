@@ -1,10 +1,17 @@
 package com.hurricanepilot.hmctsdt.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -18,6 +25,7 @@ import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
 import com.hurricanepilot.hmctsdt.service.exception.TaskNotFoundException;
 import com.hurricanepilot.hmctsdt.service.exception.TaskStatusInvalidException;
 import com.hurricanepilot.hmctsdt.service.exception.TaskUpdateNotSupportedException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskVersionMismatchException;
 
 @SpringBootTest
 @Transactional
@@ -26,6 +34,15 @@ class TaskServiceTest {
     @Autowired
     TaskService taskService;
 
+    @Autowired
+    TaskSearchIndex taskSearchIndex;
+
+    @Autowired
+    TaskDueIndex taskDueIndex;
+
+    @Autowired
+    TaskStatusOverlay statusOverlay;
+
     @Test
     void testCreate() {
         var task = new TaskEntity("Task 1", ZonedDateTime.now());
@@ -33,6 +50,20 @@ class TaskServiceTest {
         assertNotNull(id);
     }
 
+    @Test
+    void testCreateAll() throws TaskNotFoundException {
+        var tasks = new ArrayList<TaskEntity>();
+        for (int i = 0; i < 120; i++) {
+            tasks.add(new TaskEntity("Task " + i, ZonedDateTime.now()));
+        }
+
+        var ids = taskService.createAll(tasks);
+
+        assertEquals(tasks.size(), ids.size());
+        assertEquals(tasks.size(), ids.stream().distinct().count());
+        assertEquals("Task 119", taskService.find(ids.get(119)).getTitle());
+    }
+
     @Test
     void testDelete() throws TaskNotFoundException {
         var task = new TaskEntity("Task 1", ZonedDateTime.now());
@@ -77,6 +108,90 @@ class TaskServiceTest {
         assertEquals(tasks.size(), result.size());
     }
 
+    @Test
+    void testRetrievePage() {
+        var base = ZonedDateTime.of(2025, 1, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+        var expected = new ArrayList<Long>();
+        for (int i = 0; i < 5; i++) {
+            // two tasks share each due date/time so the ID tie-break is exercised
+            expected.add(taskService.create(new TaskEntity("Task " + i, base.plusHours(i / 2))));
+        }
+
+        var seen = new ArrayList<Long>();
+        TaskCursor cursor = null;
+        do {
+            var slice = taskService.retrievePage(TaskFilter.builder().build(), cursor, 2);
+            slice.getTasks().forEach(t -> seen.add(t.getId()));
+            cursor = slice.getNext();
+        } while (cursor != null);
+
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void testRetrievePageFiltered()
+            throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException {
+        var base = ZonedDateTime.of(2025, 1, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+        var early = taskService.create(new TaskEntity("Early", base));
+        var inRange = taskService.create(new TaskEntity("In range", base.plusDays(1)));
+        var inRangeDone = taskService.create(new TaskEntity("In range but done", base.plusDays(1)));
+        taskService.create(new TaskEntity("Late", base.plusDays(2)));
+        taskService.updateTask(inRangeDone, Map.of("status", Status.COMPLETED.name()));
+
+        var byRange = taskService.retrievePage(TaskFilter.builder()
+                .dueFrom(base.plusHours(1))
+                .dueTo(base.plusDays(2))
+                .build(), null, 10);
+        assertEquals(List.of(inRange, inRangeDone), byRange.getTasks().stream().map(TaskEntity::getId).toList());
+        assertNull(byRange.getNext());
+
+        var byStatus = taskService.retrievePage(TaskFilter.builder().status(Status.NEW).build(), null, 1);
+        assertEquals(List.of(early), byStatus.getTasks().stream().map(TaskEntity::getId).toList());
+        assertNotNull(byStatus.getNext());
+    }
+
+    @Test
+    void testRetrieveChanges()
+            throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException {
+        var since = Instant.now();
+        var first = taskService.create(new TaskEntity("Task 1", ZonedDateTime.now()));
+        var second = taskService.create(new TaskEntity("Task 2", ZonedDateTime.now()));
+        var third = taskService.create(new TaskEntity("Task 3", ZonedDateTime.now()));
+        taskService.updateTask(first, Map.of("status", Status.COMPLETED.name()));
+        taskService.delete(third);
+
+        // the updated Task is now the most recently modified
+        var page = taskService.retrieveChanges(since, null, 1);
+        assertEquals(List.of(second), page.getTasks().stream().map(TaskEntity::getId).toList());
+        assertNotNull(page.getNext());
+        assertNull(page.getDeleted());
+        assertNull(page.getSyncedTo());
+
+        page = taskService.retrieveChanges(since, page.getNext(), 1);
+        assertEquals(List.of(first), page.getTasks().stream().map(TaskEntity::getId).toList());
+        assertNull(page.getNext());
+        assertEquals(List.of(third), page.getDeleted());
+        assertTrue(page.getSyncedTo().isBefore(Instant.now()));
+
+        var none = taskService.retrieveChanges(Instant.now().plusSeconds(60), null, 10);
+        assertTrue(none.getTasks().isEmpty());
+        assertTrue(none.getDeleted().isEmpty());
+    }
+
+    @Test
+    void testExport() {
+        var tasks = List.of(
+                new TaskEntity("Task 1", ZonedDateTime.now()),
+                new TaskEntity("Task 2", ZonedDateTime.now()),
+                new TaskEntity("Task 3", ZonedDateTime.now()));
+        var ids = tasks.stream().map(taskService::create).toList();
+
+        var exported = new ArrayList<Long>();
+        taskService.export(task -> exported.add(task.getId()));
+
+        assertEquals(ids, exported);
+    }
+
     @Test
     void testUpdateTaskStatus()
             throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException {
@@ -98,6 +213,24 @@ class TaskServiceTest {
                 () -> taskService.updateTask(id, Map.of("status", Status.NEW.name())));
     }
 
+    @Test
+    void testUpdateTaskExpectedVersion()
+            throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException,
+            TaskVersionMismatchException {
+        var task = new TaskEntity("Task 1", ZonedDateTime.now());
+        var id = taskService.create(task);
+
+        var version = taskService.find(id).getVersion();
+        assertEquals(0L, version);
+
+        assertThrows(TaskVersionMismatchException.class,
+                () -> taskService.updateTask(id, Map.of("status", Status.COMPLETED.name()), 5L));
+        assertEquals(Status.NEW, taskService.find(id).getStatus());
+
+        taskService.updateTask(id, Map.of("status", Status.COMPLETED.name()), version);
+        assertEquals(Status.COMPLETED, taskService.find(id).getStatus());
+    }
+
     @Test
     void testUpdateTaskStatusSameStatusIgnoredIfNew()
             throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException {
@@ -124,6 +257,149 @@ class TaskServiceTest {
                 () -> taskService.updateTask(id, Map.of("status", Status.NEW.name())));
     }
 
+    @Test
+    void testUpdateStatusByIds()
+            throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException {
+        var first = taskService.create(new TaskEntity("Task 1", ZonedDateTime.now()));
+        var second = taskService.create(new TaskEntity("Task 2", ZonedDateTime.now()));
+        var third = taskService.create(new TaskEntity("Task 3", ZonedDateTime.now()));
+        taskService.updateTask(third, Map.of("status", Status.COMPLETED.name()));
+
+        var result = taskService.updateStatus(List.of(first, second, third, -1L), Status.COMPLETED);
+
+        assertEquals(new TaskBulkUpdateResult(2, 0, 1), result);
+        assertEquals(Status.COMPLETED, taskService.find(first).getStatus());
+        assertEquals(Status.COMPLETED, taskService.find(second).getStatus());
+
+        var backToNew = taskService.updateStatus(List.of(first, second), Status.NEW);
+
+        assertEquals(new TaskBulkUpdateResult(0, 2, 0), backToNew);
+        assertEquals(Status.COMPLETED, taskService.find(first).getStatus());
+    }
+
+    @Test
+    void testApplyStatuses()
+            throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException {
+        var first = taskService.create(new TaskEntity("Task 1", ZonedDateTime.now()));
+        var second = taskService.create(new TaskEntity("Task 2", ZonedDateTime.now()));
+        taskService.updateTask(second, Map.of("status", Status.COMPLETED.name()));
+
+        var changed = taskService.create(new TaskEntity("Task 3", ZonedDateTime.now()));
+        taskService.updateTask(changed, Map.of("status", Status.DEFERRED.name()));
+
+        var updated = taskService.applyStatuses(Map.of(
+                first, new TaskPendingStatus(Status.IN_PROGRESS, 1),
+                second, new TaskPendingStatus(Status.NEW, 2),
+                // queued at version 0, but since updated
+                changed, new TaskPendingStatus(Status.COMPLETED, 1),
+                -1L, new TaskPendingStatus(Status.COMPLETED, 1)));
+
+        assertEquals(1, updated);
+        assertEquals(Status.IN_PROGRESS, taskService.find(first).getStatus());
+        assertEquals(Status.COMPLETED, taskService.find(second).getStatus());
+        assertEquals(Status.DEFERRED, taskService.find(changed).getStatus());
+    }
+
+    @Test
+    void testUpdateTaskWritesQueuedStatusFirst() throws TaskNotFoundException, TaskStatusInvalidException,
+            TaskUpdateNotSupportedException, TaskVersionMismatchException {
+        var id = taskService.create(new TaskEntity("Task 1", ZonedDateTime.now()));
+        // as accepted by the TaskStatusWriter, which a client sees as version 1
+        var queued = new TaskPendingStatus(Status.IN_PROGRESS, 1);
+        statusOverlay.put(id, queued);
+        try {
+            taskService.updateTask(id, Map.of("status", Status.COMPLETED.name()), 1L);
+        } finally {
+            statusOverlay.remove(id, queued);
+        }
+
+        assertEquals(Status.COMPLETED, taskService.find(id).getStatus());
+    }
+
+    @Test
+    void testSearch() throws TaskNotFoundException {
+        var mentioned = taskService.create(
+                new TaskEntity("Archive files", "Send the quarrelsome appeal to archive", ZonedDateTime.now()));
+        var titled = taskService.create(new TaskEntity("Quarrelsome appeal", ZonedDateTime.now()));
+        var deleted = taskService.create(new TaskEntity("Quarrelsome hearing", ZonedDateTime.now()));
+        // the index is updated once each change commits, which the test transaction never does
+        for (var id : List.of(mentioned, titled, deleted)) {
+            taskSearchIndex.changed(TaskChangeEvent.created(taskService.find(id)));
+        }
+        taskService.delete(deleted);
+
+        var result = taskService.search("quarrelsome appeal", 0, 10);
+
+        // the deleted Task is still indexed, so counted, but not returned
+        assertEquals(3, result.getTotal());
+        assertEquals(List.of(titled, mentioned), result.getTasks().stream().map(TaskEntity::getId).toList());
+    }
+
+    @Test
+    void testRetrieveDue()
+            throws TaskNotFoundException, TaskStatusInvalidException, TaskUpdateNotSupportedException {
+        var now = ZonedDateTime.now();
+        var overdue = taskService.create(new TaskEntity("Overdue", now.minusYears(50)));
+        var completed = taskService.create(new TaskEntity("Completed", now.minusYears(49)));
+        var upcoming = taskService.create(new TaskEntity("Upcoming", now.plusMinutes(30)));
+        var later = taskService.create(new TaskEntity("Later", now.plusHours(2)));
+        // the index is updated once each change commits, which the test transaction never does
+        for (var id : List.of(overdue, completed, upcoming, later)) {
+            taskDueIndex.changed(TaskChangeEvent.created(taskService.find(id)));
+        }
+        taskService.updateTask(completed, Map.of("status", Status.COMPLETED.name()));
+
+        var overdueSlice = taskService.retrieveOverdue(null, 1);
+        var dueSlice = taskService.retrieveDueWithin(Duration.ofHours(1), null, 10);
+
+        assertEquals(List.of(overdue), overdueSlice.getTasks().stream().map(TaskEntity::getId).toList());
+        assertNotNull(overdueSlice.getNext());
+        // the index hasn't caught up with the completion, but it is left out anyway
+        assertEquals(List.of(), taskService.retrieveOverdue(overdueSlice.getNext(), 1).getTasks());
+        var due = dueSlice.getTasks().stream().map(TaskEntity::getId).toList();
+        assertTrue(due.contains(upcoming));
+        assertFalse(due.contains(later));
+    }
+
+    @Test
+    void testUpdateStatusByFilter() throws TaskNotFoundException {
+        var base = ZonedDateTime.of(2025, 1, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+        var overdue = taskService.create(new TaskEntity("Overdue", base));
+        var upcoming = taskService.create(new TaskEntity("Upcoming", base.plusDays(1)));
+
+        var result = taskService.updateStatus(TaskFilter.builder()
+                .status(Status.NEW)
+                .dueTo(base.plusHours(1))
+                .build(), Status.DEFERRED);
+
+        assertEquals(new TaskBulkUpdateResult(1, 0, 0), result);
+        assertEquals(Status.DEFERRED, taskService.find(overdue).getStatus());
+        assertEquals(Status.NEW, taskService.find(upcoming).getStatus());
+    }
+
+    @Test
+    void testUpdateStatusInBatches() throws TaskNotFoundException {
+        // more Tasks than are moved in one batch
+        var due = ZonedDateTime.of(2030, 6, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+        var tasks = new ArrayList<TaskEntity>();
+        for (int i = 0; i < 1_001; i++) {
+            tasks.add(new TaskEntity("Task " + i, due));
+        }
+        var ids = taskService.createAll(tasks);
+
+        var byFilter = taskService.updateStatus(TaskFilter.builder()
+                .dueFrom(due)
+                .dueTo(due.plusMinutes(1))
+                .build(), Status.IN_PROGRESS);
+        var byIds = taskService.updateStatus(ids, Status.COMPLETED);
+
+        assertEquals(new TaskBulkUpdateResult(1_001, 0, 0), byFilter);
+        assertEquals(new TaskBulkUpdateResult(1_001, 0, 0), byIds);
+        assertEquals(Status.COMPLETED, taskService.find(ids.get(0)).getStatus());
+        assertEquals(Status.COMPLETED, taskService.find(ids.get(1_000)).getStatus());
+        assertEquals(2L, taskService.find(ids.get(1_000)).getVersion());
+    }
+
     @Test
     void testUpdateTaskOnlyStatus()
             throws TaskNotFoundException {
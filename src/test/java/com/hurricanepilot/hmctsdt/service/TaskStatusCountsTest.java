@@ -0,0 +1,77 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.constants.TaskChangeType;
+import com.hurricanepilot.hmctsdt.persistence.repository.TaskRepository;
+import com.hurricanepilot.hmctsdt.persistence.shard.TaskShards;
+
+class TaskStatusCountsTest {
+
+    TaskRepository taskRepository = mock(TaskRepository.class);
+
+    TaskStatusCounts taskStatusCounts = new TaskStatusCounts(taskRepository, TaskShards.single());
+
+    @Test
+    void testChanged() {
+        taskStatusCounts.changed(event(1L, TaskChangeType.CREATED, Status.NEW, null));
+        taskStatusCounts.changed(event(2L, TaskChangeType.CREATED, Status.NEW, null));
+        taskStatusCounts.changed(event(3L, TaskChangeType.CREATED, Status.DEFERRED, null));
+        taskStatusCounts.changed(event(1L, TaskChangeType.STATUS_CHANGED, Status.COMPLETED, Status.NEW));
+        taskStatusCounts.changed(event(3L, TaskChangeType.DELETED, Status.DEFERRED, null));
+
+        assertEquals(Map.of(Status.NEW, 1L, Status.IN_PROGRESS, 0L, Status.DEFERRED, 0L, Status.COMPLETED, 1L),
+                taskStatusCounts.getAll());
+    }
+
+    @Test
+    void testReconcile() {
+        when(taskRepository.countGroupedByStatus()).thenReturn(List.of(
+                new Object[] { Status.NEW, 5L },
+                new Object[] { Status.COMPLETED, 2L }));
+        taskStatusCounts.reconcile();
+        assertEquals(5, taskStatusCounts.get(Status.NEW));
+        assertEquals(0, taskStatusCounts.get(Status.IN_PROGRESS));
+
+        // a change that the counts missed is corrected by the next reconciliation
+        when(taskRepository.countGroupedByStatus()).thenReturn(List.of(
+                new Object[] { Status.NEW, 4L },
+                new Object[] { Status.IN_PROGRESS, 1L },
+                new Object[] { Status.COMPLETED, 2L }));
+        taskStatusCounts.reconcile();
+
+        assertEquals(Map.of(Status.NEW, 4L, Status.IN_PROGRESS, 1L, Status.DEFERRED, 0L, Status.COMPLETED, 2L),
+                taskStatusCounts.getAll());
+    }
+
+    @Test
+    void testReconcileSkipsCountsChangedWhileReading() {
+        when(taskRepository.countGroupedByStatus()).thenAnswer(invocation -> {
+            // committed while the table is read, so may or may not be in the result
+            taskStatusCounts.changed(event(1L, TaskChangeType.CREATED, Status.NEW, null));
+            return List.<Object[]>of(new Object[] { Status.NEW, 1L }, new Object[] { Status.DEFERRED, 3L });
+        });
+        taskStatusCounts.changed(event(2L, TaskChangeType.CREATED, Status.NEW, null));
+
+        taskStatusCounts.reconcile();
+
+        // left for the next reconciliation to settle
+        assertEquals(2, taskStatusCounts.get(Status.NEW));
+        assertEquals(3, taskStatusCounts.get(Status.DEFERRED));
+    }
+
+    private static TaskChangeEvent event(Long id, TaskChangeType type, Status status, Status previousStatus) {
+        return new TaskChangeEvent(id, type, Instant.now(), "Task " + id, null, status, previousStatus,
+                ZonedDateTime.now(), 0L);
+    }
+}
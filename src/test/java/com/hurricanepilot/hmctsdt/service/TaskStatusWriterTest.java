@@ -0,0 +1,155 @@
+package com.hurricanepilot.hmctsdt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.hurricanepilot.hmctsdt.constants.Status;
+import com.hurricanepilot.hmctsdt.persistence.entity.TaskEntity;
+import com.hurricanepilot.hmctsdt.service.exception.TaskStatusInvalidException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskUpdateNotSupportedException;
+import com.hurricanepilot.hmctsdt.service.exception.TaskWriteQueueFullException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TaskStatusWriterTest {
+
+    TaskService taskService = mock(TaskService.class);
+
+    TaskStatusOverlay overlay = new TaskStatusOverlay();
+
+    ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(TaskService.TASK_CACHE);
+
+    TaskStatusWriter taskStatusWriter = new TaskStatusWriter(taskService, overlay, cacheManager,
+            new SimpleMeterRegistry(), true, 2);
+
+    TaskEntity first = task(1L, Status.NEW);
+
+    TaskEntity second = task(2L, Status.IN_PROGRESS);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(taskService.find(1L)).thenReturn(first);
+        when(taskService.find(2L)).thenReturn(second);
+        when(taskService.find(3L)).thenReturn(task(3L, Status.NEW));
+    }
+
+    @Test
+    void testSubmit() throws Exception {
+        cacheManager.getCache(TaskService.TASK_CACHE).put(1L, first);
+
+        taskStatusWriter.submit(1L, Map.of("status", Status.IN_PROGRESS.name()));
+
+        var updated = overlay.apply(first);
+        assertEquals(Status.IN_PROGRESS, updated.getStatus());
+        assertEquals(first.getVersion() + 1, updated.getVersion());
+        // the shared Task is left unchanged
+        assertEquals(Status.NEW, first.getStatus());
+        assertNull(cacheManager.getCache(TaskService.TASK_CACHE).get(1L));
+    }
+
+    @Test
+    void testSubmitInvalid() {
+        assertThrows(TaskStatusInvalidException.class,
+                () -> taskStatusWriter.submit(2L, Map.of("status", Status.NEW.name())));
+        assertThrows(TaskUpdateNotSupportedException.class,
+                () -> taskStatusWriter.submit(1L, Map.of("title", "new title")));
+        assertSame(second, overlay.apply(second));
+    }
+
+    @Test
+    void testSubmitQueueFull() throws Exception {
+        taskStatusWriter.submit(1L, Map.of("status", Status.IN_PROGRESS.name()));
+        taskStatusWriter.submit(2L, Map.of("status", Status.COMPLETED.name()));
+        // a further update to a queued Task replaces the queued update
+        taskStatusWriter.submit(1L, Map.of("status", Status.DEFERRED.name()));
+
+        assertThrows(TaskWriteQueueFullException.class,
+                () -> taskStatusWriter.submit(3L, Map.of("status", Status.COMPLETED.name())));
+    }
+
+    @Test
+    void testWriteQueuedCollapsesUpdates() throws Exception {
+        taskStatusWriter.submit(1L, Map.of("status", Status.IN_PROGRESS.name()));
+        taskStatusWriter.submit(2L, Map.of("status", Status.COMPLETED.name()));
+        taskStatusWriter.submit(1L, Map.of("status", Status.DEFERRED.name()));
+
+        assertEquals(2, taskStatusWriter.writeQueued(0, TimeUnit.MILLISECONDS));
+
+        verify(taskService).applyStatuses(Map.of(
+                1L, new TaskPendingStatus(Status.DEFERRED, 1),
+                2L, new TaskPendingStatus(Status.COMPLETED, 1)));
+        assertEquals(0, taskStatusWriter.writeQueued(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testWrittenUpdateKeptUntilRead() throws Exception {
+        taskStatusWriter.submit(1L, Map.of("status", Status.IN_PROGRESS.name()));
+        taskStatusWriter.writeQueued(0, TimeUnit.MILLISECONDS);
+
+        // a lookup that read the Task before the write committed
+        assertEquals(Status.IN_PROGRESS, overlay.apply(first).getStatus());
+
+        var written = task(1L, Status.IN_PROGRESS);
+        written.setVersion(1L);
+        assertSame(written, overlay.apply(written));
+        assertSame(first, overlay.apply(first));
+    }
+
+    @Test
+    void testSweepWritten() throws Exception {
+        taskStatusWriter.submit(1L, Map.of("status", Status.IN_PROGRESS.name()));
+        taskStatusWriter.writeQueued(0, TimeUnit.MILLISECONDS);
+        // cached by a lookup that read the Task before the write committed
+        cacheManager.getCache(TaskService.TASK_CACHE).put(1L, overlay.apply(first));
+
+        taskStatusWriter.sweepWritten(Instant.now());
+        assertEquals(Status.IN_PROGRESS, overlay.apply(first).getStatus());
+
+        taskStatusWriter.sweepWritten(Instant.now().plus(Duration.ofMinutes(1)));
+        assertSame(first, overlay.apply(first));
+        assertNull(cacheManager.getCache(TaskService.TASK_CACHE).get(1L));
+    }
+
+    @Test
+    void testWriteQueuedFailureDropsOverlay() throws Exception {
+        taskStatusWriter.submit(1L, Map.of("status", Status.IN_PROGRESS.name()));
+        when(taskService.applyStatuses(anyMap())).thenThrow(new IllegalStateException("Database unavailable"));
+
+        assertEquals(1, taskStatusWriter.writeQueued(0, TimeUnit.MILLISECONDS));
+
+        assertSame(first, overlay.apply(first));
+    }
+
+    @Test
+    void testSubmitUnchangedIsNotQueued() throws Exception {
+        taskStatusWriter.submit(2L, Map.of("status", Status.IN_PROGRESS.name()));
+
+        assertEquals(0, taskStatusWriter.writeQueued(0, TimeUnit.MILLISECONDS));
+        verify(taskService, never()).applyStatuses(anyMap());
+    }
+
+    private static TaskEntity task(Long id, Status status) {
+        var task = new TaskEntity("Task " + id, ZonedDateTime.now());
+        task.setId(id);
+        task.setStatus(status);
+        task.setVersion(0L);
+        return task;
+    }
+}